@@ -0,0 +1,168 @@
+package benchmarks;
+
+import java.util.Locale;
+
+/**
+ * A small benchmark harness for the ray tracer, in the spirit of JMH: every benchmark is run
+ * for a warmup period (so the JIT compiles the measured code), then measured for several
+ * iterations, and the mean and standard deviation of the iterations are reported.<br/>
+ * The results of the measured operations are consumed, so the JIT cannot eliminate the work.
+ * <p>
+ * The harness is configured by system properties:
+ * <ul>
+ * <li>{@code bench.warmup} - warmup time of a throughput benchmark in milliseconds (default 1000)</li>
+ * <li>{@code bench.time} - time of a single measured iteration in milliseconds (default 1000)</li>
+ * <li>{@code bench.iterations} - amount of measured iterations (default 5)</li>
+ * <li>{@code bench.filter} - only the benchmarks whose names contain it are run (default all)</li>
+ * </ul>
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public final class Benchmark {
+    /**
+     * Warmup time of a throughput benchmark in milliseconds
+     */
+    private static final long WARMUP_MILLIS = Long.getLong("bench.warmup", 1000);
+    /**
+     * Time of a single measured iteration of a throughput benchmark in milliseconds
+     */
+    private static final long ITERATION_MILLIS = Long.getLong("bench.time", 1000);
+    /**
+     * Amount of measured iterations
+     */
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    /**
+     * Only the benchmarks whose names contain this string are run
+     */
+    private static final String FILTER = System.getProperty("bench.filter", "");
+    /**
+     * Consumes the results of the measured operations
+     */
+    private static volatile long sink;
+
+    /**
+     * A measured operation of a throughput benchmark
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Runs the operation once
+         *
+         * @param i the running number of the call, may be used to choose the input
+         * @return the result of the operation, consumed by the harness
+         */
+        Object run(int i);
+    }
+
+    /**
+     * A measured task of a single shot benchmark
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Runs the task once
+         *
+         * @throws Exception if the task fails
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private Benchmark() {
+    }
+
+    /**
+     * Checks whether a benchmark is selected by the filter
+     *
+     * @param name the name of the benchmark
+     * @return true if the benchmark should run
+     */
+    public static boolean isSelected(String name) {
+        return name.contains(FILTER);
+    }
+
+    /**
+     * Measures the throughput of a short operation and prints the average time of a single call.
+     *
+     * @param name      the name of the benchmark
+     * @param operation the measured operation
+     */
+    public static void throughput(String name, Operation operation) {
+        if (!isSelected(name)) return;
+
+        // Warmup, which also estimates the amount of calls that fit in a measured iteration
+        long calls = 0;
+        long start = System.nanoTime();
+        long warmupEnd = start + WARMUP_MILLIS * 1_000_000;
+        for (int batch = 1; System.nanoTime() < warmupEnd; batch = Math.min(batch * 2, 1 << 20))
+            calls += run(operation, calls, batch);
+        double nanosPerCall = (double) (System.nanoTime() - start) / Math.max(calls, 1);
+        long callsPerIteration = Math.max(1, (long) (ITERATION_MILLIS * 1_000_000 / nanosPerCall));
+
+        double[] results = new double[ITERATIONS];
+        for (int iteration = 0; iteration < ITERATIONS; ++iteration) {
+            long begin = System.nanoTime();
+            run(operation, 0, callsPerIteration);
+            results[iteration] = (double) (System.nanoTime() - begin) / callsPerIteration;
+        }
+        report(name, results, "ns/op");
+    }
+
+    /**
+     * Measures a long task (e.g. rendering of a whole image) by running it once for warmup and
+     * then once for every measured iteration, and prints the average time of a single run.
+     *
+     * @param name the name of the benchmark
+     * @param task the measured task
+     */
+    public static void singleShot(String name, Task task) {
+        if (!isSelected(name)) return;
+        try {
+            task.run();
+            double[] results = new double[ITERATIONS];
+            for (int iteration = 0; iteration < ITERATIONS; ++iteration) {
+                long begin = System.nanoTime();
+                task.run();
+                results[iteration] = (System.nanoTime() - begin) / 1e6;
+            }
+            report(name, results, "ms/op");
+        } catch (Exception e) {
+            System.out.printf("%-50s failed: %s%n", name, e);
+        }
+    }
+
+    /**
+     * Runs an operation several times and consumes its results
+     *
+     * @param operation the operation to run
+     * @param first     the running number of the first call
+     * @param calls     the amount of calls
+     * @return the amount of calls
+     */
+    private static long run(Operation operation, long first, long calls) {
+        long found = 0;
+        for (long i = first; i < first + calls; ++i)
+            if (operation.run((int) i) != null) ++found;
+        sink += found;
+        return calls;
+    }
+
+    /**
+     * Prints the mean and the standard deviation of the measured iterations
+     *
+     * @param name    the name of the benchmark
+     * @param results the results of the iterations
+     * @param unit    the unit of the results
+     */
+    private static void report(String name, double[] results, String unit) {
+        double mean = 0;
+        for (double result : results) mean += result;
+        mean /= results.length;
+        double variance = 0;
+        for (double result : results) variance += (result - mean) * (result - mean);
+        double deviation = results.length > 1 ? Math.sqrt(variance / (results.length - 1)) : 0;
+        System.out.printf(Locale.ROOT, "%-50s %12.3f +- %10.3f %s%n", name, mean, deviation, unit);
+    }
+}
@@ -0,0 +1,186 @@
+package benchmarks;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.*;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RenderTests;
+import renderer.SimpleRayTracer;
+import renderer.WavefrontRayTracer;
+import scene.Scene;
+
+import java.util.Random;
+
+import static benchmarks.Benchmark.singleShot;
+import static benchmarks.Benchmark.throughput;
+
+/**
+ * Performance benchmarks of the ray tracer:
+ * <ul>
+ * <li>intersection throughput of the basic geometries</li>
+ * <li>closest-hit cost of a plain {@link Geometries} collection and of a {@link BoundingVolumeHierarchy}
+ * as the amount of geometries grows</li>
+ * <li>cost of tracing a single ray through a lit scene by {@link SimpleRayTracer#traceRay(Ray)}, and of
+ * tracing a batch of rays depth first and by the {@link WavefrontRayTracer}</li>
+ * <li>end-to-end render time of the scenes of {@link RenderTests}</li>
+ * </ul>
+ * Run the main method with the test classpath, e.g. {@code -Dbench.filter=intersect} to run only
+ * the intersection benchmarks (see {@link Benchmark} for all the options).
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class RayTracingBenchmarks {
+    /**
+     * Amount of the prepared rays each benchmark cycles through
+     */
+    private static final int RAYS = 1024;
+    /**
+     * Fixed seed, so every run measures the same rays and geometries
+     */
+    private static final long SEED = 4909_8080L;
+
+    /**
+     * Runs all the selected benchmarks
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        intersectionBenchmarks();
+        scalingBenchmarks();
+        traceRayBenchmarks();
+        renderBenchmarks();
+    }
+
+    /**
+     * Intersection throughput of the basic geometries, with rays of which about half hit the geometry
+     */
+    private static void intersectionBenchmarks() {
+        Ray[] rays = raysTowards(new Point(0, 0, -100), 60);
+        Intersectable[] geometries = {
+                new Sphere(new Point(0, 0, -100), 30),
+                new Triangle(new Point(-40, -40, -100), new Point(40, -40, -100), new Point(0, 40, -100)),
+                new Polygon(new Point(-30, -30, -100), new Point(30, -30, -100),
+                        new Point(30, 30, -100), new Point(-30, 30, -100)),
+                new Plane(new Point(0, 0, -100), new Vector(0.1, 0.2, 1))
+        };
+        for (Intersectable geometry : geometries) {
+            String name = geometry.getClass().getSimpleName();
+            throughput("intersect." + name + ".findGeoIntersections",
+                    i -> geometry.findGeoIntersections(rays[i & (RAYS - 1)]));
+            throughput("intersect." + name + ".findClosestHit",
+                    i -> geometry.findClosestHit(rays[i & (RAYS - 1)], Double.POSITIVE_INFINITY, null));
+        }
+    }
+
+    /**
+     * Closest-hit cost of a plain collection and of a bounding volume hierarchy for growing amounts
+     * of geometries scattered in a box
+     */
+    private static void scalingBenchmarks() {
+        Ray[] rays = raysTowards(new Point(0, 0, -500), 250);
+        for (int n = 10; n <= 10_000; n *= 10) {
+            Random random = new Random(SEED);
+            Geometries list = new Geometries();
+            BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy();
+            for (int i = 0; i < n; ++i) {
+                Point center = new Point(random.nextDouble(-250, 250), random.nextDouble(-250, 250),
+                        random.nextDouble(-750, -250));
+                Intersectable geometry = i % 2 == 0 ? new Sphere(center, 5)
+                        : new Triangle(center, center.add(new Vector(8, 0, 1)), center.add(new Vector(0, 8, 2)));
+                list.add(geometry);
+                bvh.add(geometry);
+            }
+            throughput("scaling.Geometries.findClosestHit.n=" + n,
+                    i -> list.findClosestHit(rays[i & (RAYS - 1)], Double.POSITIVE_INFINITY, null));
+            throughput("scaling.BoundingVolumeHierarchy.findClosestHit.n=" + n,
+                    i -> bvh.findClosestHit(rays[i & (RAYS - 1)], Double.POSITIVE_INFINITY, null));
+        }
+    }
+
+    /**
+     * Cost of tracing a primary ray through a scene with shadows, reflections and transparency
+     */
+    private static void traceRayBenchmarks() {
+        Scene scene = new Scene("Benchmark scene")
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)))
+                .setBackground(new Color(20, 20, 40));
+        Random random = new Random(SEED);
+        Intersectable[] bodies = new Intersectable[201];
+        for (int i = 0; i < 200; ++i) {
+            Point center = new Point(random.nextDouble(-100, 100), random.nextDouble(-60, 60),
+                    random.nextDouble(-300, -100));
+            Material material = new Material().setKD(0.5).setKS(0.5).setShininess(60)
+                    .setkT(i % 5 == 0 ? 0.5 : 0).setkR(i % 7 == 0 ? 0.4 : 0);
+            bodies[i] = i % 2 == 0
+                    ? new Sphere(center, 6).setEmission(new Color(80, 30, 30)).setMaterial(material)
+                    : new Triangle(center, center.add(new Vector(12, 0, 0)), center.add(new Vector(0, 12, 4)))
+                    .setEmission(new Color(30, 30, 80)).setMaterial(material);
+        }
+        bodies[200] = new Plane(new Point(0, -70, 0), new Vector(0, 1, 0))
+                .setEmission(new Color(40, 40, 40)).setMaterial(new Material().setKD(0.6).setkR(0.2));
+        scene.geometries.add(bodies);
+        scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(-50, 100, 0)).setKL(0.0005));
+        scene.lights.add(new SpotLight(new Color(400, 400, 600), new Point(80, 80, -50), new Vector(-1, -1, -1))
+                .setKL(0.0005));
+
+        Camera camera;
+        try {
+            camera = Camera.getBuilder().setRayTracer(new SimpleRayTracer(scene))
+                    .setLocation(Point.ZERO).setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVpDistance(100).setVpSize(200, 150)
+                    .setImageWriter(new ImageWriter("benchmark", 32, 32)).build();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        Ray[] rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; ++i) rays[i] = camera.constructRay(32, 32, i % 32, i / 32);
+
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+        throughput("traceRay.Geometries", i -> tracer.traceRay(rays[i & (RAYS - 1)]));
+
+        scene.geometries = new BoundingVolumeHierarchy(bodies);
+        throughput("traceRay.BoundingVolumeHierarchy", i -> tracer.traceRay(rays[i & (RAYS - 1)]));
+
+        // A whole batch of rays per operation, depth first and by the wavefront stages
+        Color[] colors = new Color[RAYS];
+        throughput("traceBatch.SimpleRayTracer", i -> {
+            tracer.traceBatch(rays, RAYS, colors);
+            return colors[i & (RAYS - 1)];
+        });
+        WavefrontRayTracer wavefront = new WavefrontRayTracer(scene);
+        throughput("traceBatch.WavefrontRayTracer", i -> {
+            wavefront.traceBatch(rays, RAYS, colors);
+            return colors[i & (RAYS - 1)];
+        });
+    }
+
+    /**
+     * End-to-end render time of the test scenes, including writing the images
+     */
+    private static void renderBenchmarks() {
+        singleShot("render.RenderTests.renderComplexScene", () -> new RenderTests().renderComplexScene());
+        singleShot("render.RenderTests.renderMarblesScene", () -> new RenderTests().renderMarblesScene());
+        singleShot("render.RenderTests.renderHouseSceneRegular", () -> new RenderTests().renderHouseSceneRegular());
+    }
+
+    /**
+     * Prepares rays from the origin towards random points around a target
+     *
+     * @param target the center of the targets of the rays
+     * @param spread the size of the cube around the target the rays aim at
+     * @return the rays
+     */
+    private static Ray[] raysTowards(Point target, double spread) {
+        Random random = new Random(SEED);
+        Ray[] rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; ++i) {
+            Point aim = target.add(new Vector(random.nextDouble(-spread, spread), random.nextDouble(-spread, spread),
+                    random.nextDouble(-spread, spread) + 1e-3));
+            rays[i] = new Ray(Point.ZERO, aim.subtract(Point.ZERO));
+        }
+        return rays;
+    }
+}
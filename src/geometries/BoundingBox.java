@@ -0,0 +1,179 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+/**
+ * Axis-aligned bounding box (AABB) which encloses a finite geometry.
+ * The box is defined by its lower and upper corners and is immutable.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class BoundingBox {
+    /**
+     * Lower corner coordinates of the box
+     */
+    final double minX, minY, minZ;
+    /**
+     * Upper corner coordinates of the box
+     */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructs a bounding box from the coordinates of its two corners.
+     *
+     * @param minX lower x coordinate
+     * @param minY lower y coordinate
+     * @param minZ lower z coordinate
+     * @param maxX upper x coordinate
+     * @param maxY upper y coordinate
+     * @param maxZ upper z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest bounding box which contains all the given points.
+     *
+     * @param points the points to enclose
+     * @return the bounding box of the points
+     * @throws IllegalArgumentException if no points are given
+     */
+    public static BoundingBox fromPoints(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("Cannot bound an empty set of points");
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * @return the lower corner of the box
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * @return the upper corner of the box
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Constructs the smallest bounding box which contains both this box and another one.
+     *
+     * @param other the other box
+     * @return the union of the two boxes
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Calculates the surface area of the box, used by the surface area heuristic.
+     *
+     * @return the surface area of the box
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX;
+        double dy = maxY - minY;
+        double dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the center coordinate of the box along one of the axes.
+     *
+     * @param axis 0 for x, 1 for y and 2 for z
+     * @return the center coordinate along the axis
+     */
+    public double center(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Checks whether a ray enters the box before a given distance, using the slab method.
+     * The ray's direction reciprocals are calculated once per ray, so every test costs
+     * only multiplications and comparisons, and it stops at the first slab that separates
+     * the ray from the box.
+     *
+     * @param ray         the ray to check
+     * @param maxDistance the distance along the ray beyond which the box is ignored
+     * @return true if the ray passes through the box in the range (0, maxDistance)
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return intersects(minX, minY, minZ, maxX, maxY, maxZ, ray.getHead(), ray.getInverseDirection(), maxDistance);
+    }
+
+    /**
+     * Checks whether a ray enters a box given by its coordinates before a given distance, using the
+     * slab method. It is used by hierarchies that keep their boxes in flat arrays.
+     *
+     * @param minX        lower x coordinate of the box
+     * @param minY        lower y coordinate of the box
+     * @param minZ        lower z coordinate of the box
+     * @param maxX        upper x coordinate of the box
+     * @param maxY        upper y coordinate of the box
+     * @param maxZ        upper z coordinate of the box
+     * @param head        the head of the ray
+     * @param inv         the reciprocals of the ray's direction coordinates
+     * @param maxDistance the distance along the ray beyond which the box is ignored
+     * @return true if the ray passes through the box in the range (0, maxDistance)
+     */
+    static boolean intersects(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                              Point head, Point inv, double maxDistance) {
+        // The near plane of each slab is chosen by the direction sign, so no swapping is needed.
+        // A ray lying on a slab plane gives NaN (0 * infinity) - comparisons with NaN are false,
+        // so such a slab doesn't clip the range.
+        double invX = inv.getX();
+        double tNear = ((invX >= 0 ? minX : maxX) - head.getX()) * invX;
+        double tFar = ((invX >= 0 ? maxX : minX) - head.getX()) * invX;
+        if (!(tNear > 0)) tNear = 0;
+        if (!(tFar < maxDistance)) tFar = maxDistance;
+        if (tNear > tFar) return false;
+
+        double invY = inv.getY();
+        double t1 = ((invY >= 0 ? minY : maxY) - head.getY()) * invY;
+        double t2 = ((invY >= 0 ? maxY : minY) - head.getY()) * invY;
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        if (tNear > tFar) return false;
+
+        double invZ = inv.getZ();
+        t1 = ((invZ >= 0 ? minZ : maxZ) - head.getZ()) * invZ;
+        t2 = ((invZ >= 0 ? maxZ : minZ) - head.getZ()) * invZ;
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+        return tNear <= tFar;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=" + getMin() +
+                ", max=" + getMax() +
+                '}';
+    }
+}
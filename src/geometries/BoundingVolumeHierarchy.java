@@ -0,0 +1,365 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The BoundingVolumeHierarchy class is a collection of geometric objects organized in a
+ * bounding volume hierarchy (BVH) - a binary tree of axis-aligned bounding boxes.
+ * A ray visits only the geometries whose boxes it passes through, so the cost of a query
+ * is logarithmic in the amount of geometries instead of linear.
+ * The tree is built with the surface area heuristic (SAH), lazily, on the first query after
+ * geometries were added to the hierarchy or to a collection nested in it. Geometries without a bounding box
+ * (e.g. planes) are tested for every ray.<br/>
+ * Since it is a {@link Geometries}, it can be used as the geometries of a scene.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class BoundingVolumeHierarchy extends Geometries {
+    /**
+     * Maximum amount of geometries the surface area heuristic may keep in a single leaf
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * Cost of traversing a node relative to the cost of intersecting a geometry
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+    /**
+     * Comparators of geometries by the center of their box along the x, y and z axes
+     */
+    private static final List<Comparator<Item>> BY_CENTER = List.of(
+            Comparator.comparingDouble(item -> item.box().center(0)),
+            Comparator.comparingDouble(item -> item.box().center(1)),
+            Comparator.comparingDouble(item -> item.box().center(2)));
+
+    /**
+     * The current hierarchy, null until it is first built
+     */
+    private volatile Tree tree = null;
+
+    /**
+     * A geometry with its bounding box, used while building the hierarchy
+     */
+    private record Item(Intersectable geometry, BoundingBox box) {
+    }
+
+    /**
+     * The built hierarchy: the root of the tree and the unbounded geometries, built when the collection
+     * had the given amount of modifications
+     */
+    private record Tree(Node root, Intersectable[] unbounded, long modifications) {
+    }
+
+    /**
+     * A node of the hierarchy. Inner nodes have two children, leaves have a list of geometries.
+     */
+    private static class Node {
+        /**
+         * The bounding box of all the geometries under the node
+         */
+        final BoundingBox box;
+        /**
+         * The children of an inner node, null in a leaf
+         */
+        final Node left, right;
+        /**
+         * The geometries of a leaf, null in an inner node
+         */
+        final Intersectable[] geometries;
+        /**
+         * The axis along which the geometries of an inner node were split - the left child
+         * holds the geometries with the lower centers
+         */
+        final int axis;
+
+        /**
+         * Constructs an inner node
+         *
+         * @param box   the bounding box of both children
+         * @param axis  the axis along which the children were split
+         * @param left  the child with the lower centers along the axis
+         * @param right the child with the higher centers along the axis
+         */
+        Node(BoundingBox box, int axis, Node left, Node right) {
+            this.box = box;
+            this.axis = axis;
+            this.left = left;
+            this.right = right;
+            this.geometries = null;
+        }
+
+        /**
+         * Constructs a leaf
+         *
+         * @param box        the bounding box of the geometries
+         * @param geometries the geometries of the leaf
+         */
+        Node(BoundingBox box, Intersectable[] geometries) {
+            this.box = box;
+            this.axis = -1;
+            this.left = null;
+            this.right = null;
+            this.geometries = geometries;
+        }
+
+        /**
+         * Adds the intersections of a ray with the geometries under the node to a list
+         *
+         * @param ray           the ray to intersect with
+         * @param intersections the intersections found so far, may be null
+         * @return the list of intersections, or null if there are no intersections yet
+         */
+        List<GeoPoint> findIntersections(Ray ray, List<GeoPoint> intersections) {
+            if (!box.intersects(ray, Double.POSITIVE_INFINITY)) return intersections;
+            if (geometries == null)
+                return right.findIntersections(ray, left.findIntersections(ray, intersections));
+            for (Intersectable geometry : geometries)
+                intersections = addIntersections(intersections, geometry.findGeoIntersections(ray));
+            return intersections;
+        }
+
+        /**
+         * Finds the closest intersection of a ray with the geometries under the node. The child on
+         * the side the ray comes from is visited first, so the other child is often pruned by the
+         * distance of the hit found in the first one.
+         *
+         * @param ray      the ray to intersect with
+         * @param hit      the closest intersection found so far, updated if a closer one is found
+         * @param counters the counters of the intersection tests, null for not counting them
+         * @return true if a closer intersection was found
+         */
+        boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+            if (!box.intersects(ray, hit.t)) return false;
+            boolean found = false;
+            if (geometries == null) {
+                Vector dir = ray.getDirection();
+                double d = axis == 0 ? dir.getX() : axis == 1 ? dir.getY() : dir.getZ();
+                Node near = d >= 0 ? left : right;
+                Node far = d >= 0 ? right : left;
+                if (near.findClosestHit(ray, hit, counters)) found = true;
+                if (far.findClosestHit(ray, hit, counters)) found = true;
+            } else {
+                for (Intersectable geometry : geometries) {
+                    countTest(counters, geometry);
+                    if (geometry.findClosestHit(ray, hit, counters)) found = true;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Checks whether any geometry under the node intersects the ray before a maximal distance
+         *
+         * @param ray         the ray to intersect with
+         * @param maxDistance the distance along the ray beyond which intersections are ignored
+         * @param counters    the counters of the intersection tests, null for not counting them
+         * @return true if there is an intersection nearer than maxDistance
+         */
+        boolean isOccluded(Ray ray, double maxDistance, IntersectionCounters counters) {
+            if (!box.intersects(ray, maxDistance)) return false;
+            if (geometries == null)
+                return left.isOccluded(ray, maxDistance, counters) || right.isOccluded(ray, maxDistance, counters);
+            for (Intersectable geometry : geometries) {
+                countTest(counters, geometry);
+                if (geometry.isOccluded(ray, maxDistance, counters)) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Accumulates the transparency of the geometries under the node which the ray passes through
+         * before a maximal distance
+         *
+         * @param ray         the ray to intersect with
+         * @param maxDistance the distance along the ray beyond which intersections are ignored
+         * @param k           the transparency accumulated so far
+         * @param minK        the transparency below which the ray is considered as fully blocked
+         * @param occluder    a hit to set the geometry of to the geometry which blocked the ray by itself,
+         *                    null if not needed
+         * @param counters    the counters of the intersection tests, null for not counting them
+         * @return the accumulated transparency, or {@link Double3#ZERO} if it dropped below minK
+         */
+        Double3 findTransparency(Ray ray, double maxDistance, Double3 k, double minK, Hit occluder,
+                                 IntersectionCounters counters) {
+            if (!box.intersects(ray, maxDistance)) return k;
+            if (geometries == null) {
+                k = left.findTransparency(ray, maxDistance, k, minK, occluder, counters);
+                return k.lowerThan(minK) ? Double3.ZERO
+                        : right.findTransparency(ray, maxDistance, k, minK, occluder, counters);
+            }
+            for (Intersectable geometry : geometries) {
+                countTest(counters, geometry);
+                k = geometry.findTransparency(ray, maxDistance, k, minK, occluder, counters);
+                if (k.lowerThan(minK)) return Double3.ZERO;
+            }
+            return k;
+        }
+    }
+
+    /**
+     * Default constructor, initializes an empty hierarchy.
+     */
+    public BoundingVolumeHierarchy() {
+    }
+
+    /**
+     * Constructor that initializes the hierarchy with the provided elements.
+     *
+     * @param geometries the geometries to add to the hierarchy
+     */
+    public BoundingVolumeHierarchy(Intersectable... geometries) {
+        super(geometries);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        Tree tree = getTree();
+        List<GeoPoint> intersections = null;
+        for (Intersectable geometry : tree.unbounded())
+            intersections = addIntersections(intersections, geometry.findGeoIntersections(ray));
+        return tree.root() == null ? intersections : tree.root().findIntersections(ray, intersections);
+    }
+
+    @Override
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        Tree tree = getTree();
+        boolean found = false;
+        for (Intersectable geometry : tree.unbounded()) {
+            countTest(counters, geometry);
+            if (geometry.findClosestHit(ray, hit, counters)) found = true;
+        }
+        if (tree.root() != null && tree.root().findClosestHit(ray, hit, counters)) found = true;
+        return found;
+    }
+
+    @Override
+    public boolean isOccluded(Ray ray, double maxDistance, IntersectionCounters counters) {
+        Tree tree = getTree();
+        for (Intersectable geometry : tree.unbounded()) {
+            countTest(counters, geometry);
+            if (geometry.isOccluded(ray, maxDistance, counters)) return true;
+        }
+        return tree.root() != null && tree.root().isOccluded(ray, maxDistance, counters);
+    }
+
+    @Override
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 k, double minK, Hit occluder,
+                                    IntersectionCounters counters) {
+        Tree tree = getTree();
+        for (Intersectable geometry : tree.unbounded()) {
+            countTest(counters, geometry);
+            k = geometry.findTransparency(ray, maxDistance, k, minK, occluder, counters);
+            if (k.lowerThan(minK)) return Double3.ZERO;
+        }
+        return tree.root() == null ? k
+                : tree.root().findTransparency(ray, maxDistance, k, minK, occluder, counters);
+    }
+
+    /**
+     * Returns the hierarchy, building it if geometries were added (to the hierarchy or to a collection
+     * nested in it) since it was last built.
+     *
+     * @return the current hierarchy
+     */
+    private Tree getTree() {
+        long count = modifications();
+        Tree current = tree;
+        if (current == null || current.modifications() != count) {
+            synchronized (this) {
+                current = tree;
+                if (current == null || current.modifications() != count) tree = current = buildTree(count);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Builds the hierarchy of all the geometries in the collection.
+     *
+     * @param modifications the amount of modifications of the collection the hierarchy is built at
+     * @return the built hierarchy
+     */
+    private Tree buildTree(long modifications) {
+        List<Item> items = new ArrayList<>();
+        List<Intersectable> unbounded = new ArrayList<>();
+        for (Intersectable geometry : geometries) {
+            BoundingBox box = geometry.getBoundingBox();
+            if (box == null) unbounded.add(geometry);
+            else items.add(new Item(geometry, box));
+        }
+        Item[] array = items.toArray(new Item[0]);
+        Node root = array.length == 0 ? null : build(array, 0, array.length);
+        return new Tree(root, unbounded.toArray(new Intersectable[0]), modifications);
+    }
+
+    /**
+     * Recursively builds the subtree of a range of geometries. The range is split at the position
+     * (along the best axis) that minimizes the surface area heuristic cost, or kept as a leaf
+     * if it is small and splitting doesn't pay off.
+     *
+     * @param items the geometries, reordered in place
+     * @param from  the first index of the range (inclusive)
+     * @param to    the last index of the range (exclusive)
+     * @return the root of the subtree
+     */
+    private static Node build(Item[] items, int from, int to) {
+        int count = to - from;
+        BoundingBox box = items[from].box();
+        for (int i = from + 1; i < to; ++i) box = box.union(items[i].box());
+        if (count == 1) return new Node(box, new Intersectable[]{items[from].geometry()});
+
+        // The costs are scaled by the area of the node box, so a degenerate (flat) box causes no division by zero
+        double area = box.surfaceArea();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestSplit = -1;
+        double[] rightAreas = new double[count];
+        for (int axis = 0; axis < 3; ++axis) {
+            Arrays.sort(items, from, to, BY_CENTER.get(axis));
+            BoundingBox right = items[to - 1].box();
+            for (int i = to - 1; i > from; --i) {
+                right = right.union(items[i].box());
+                rightAreas[i - from] = right.surfaceArea();
+            }
+            BoundingBox left = items[from].box();
+            for (int i = from + 1; i < to; ++i) {
+                left = left.union(items[i - 1].box());
+                double cost = TRAVERSAL_COST * area
+                        + left.surfaceArea() * (i - from) + rightAreas[i - from] * (to - i);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = i;
+                }
+            }
+        }
+
+        if (count <= MAX_LEAF_SIZE && count * area <= bestCost) {
+            Intersectable[] leaf = new Intersectable[count];
+            for (int i = 0; i < count; ++i) leaf[i] = items[from + i].geometry();
+            return new Node(box, leaf);
+        }
+        if (bestAxis != 2) Arrays.sort(items, from, to, BY_CENTER.get(bestAxis));
+        return new Node(box, bestAxis, build(items, from, bestSplit), build(items, bestSplit, to));
+    }
+
+    /**
+     * Adds intersection points to a list of intersections, creating the list if needed.
+     *
+     * @param intersections the intersections found so far, may be null
+     * @param geoPoints     the new intersection points, may be null
+     * @return the list of intersections, or null if there are no intersections at all
+     */
+    private static List<GeoPoint> addIntersections(List<GeoPoint> intersections, List<GeoPoint> geoPoints) {
+        if (geoPoints == null) return intersections;
+        if (intersections == null) intersections = new ArrayList<>();
+        intersections.addAll(geoPoints);
+        return intersections;
+    }
+}
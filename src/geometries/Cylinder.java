@@ -6,6 +6,9 @@ import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * Cylinder class which represents the location of a cylinder in space
  *
@@ -16,6 +19,10 @@ public class Cylinder extends Tube {
      * the height of the Cylinder
      */
     private final double height;
+    /**
+     * The bounding box of the cylinder
+     */
+    private final BoundingBox boundingBox;
 
     /**
      * cylinder constructor gets radius,ray and height
@@ -27,6 +34,22 @@ public class Cylinder extends Tube {
     public Cylinder(double radius, Ray axisRay, double height) {
         super(radius, axisRay);
         this.height = height;
+
+        // The cylinder is bounded by its two base disks. A disk of radius r orthogonal to the unit
+        // vector v extends r * sqrt(1 - v_k^2) from its center along each axis k.
+        Point bottom = axisRay.getHead();
+        Vector v = axisRay.getDirection();
+        Point top = bottom.add(v.scale(height));
+        double ex = radius * Math.sqrt(Math.max(0, 1 - v.getX() * v.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - v.getY() * v.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - v.getZ() * v.getZ()));
+        boundingBox = new BoundingBox(
+                Math.min(bottom.getX(), top.getX()) - ex,
+                Math.min(bottom.getY(), top.getY()) - ey,
+                Math.min(bottom.getZ(), top.getZ()) - ez,
+                Math.max(bottom.getX(), top.getX()) + ex,
+                Math.max(bottom.getY(), top.getY()) + ey,
+                Math.max(bottom.getZ(), top.getZ()) + ez);
     }
 
     /**
@@ -73,8 +96,8 @@ public class Cylinder extends Tube {
         double t = v.dotProduct(delta);
         Point o;
 
-        // if t=0, the point is on the axis
-        if (t <= 0) {
+        // if t=0, the point is on the bottom base
+        if (alignZero(t) <= 0) {
             return v.scale(-1);
         } else {
             o = p0.add(v.scale(t));
@@ -84,7 +107,7 @@ public class Cylinder extends Tube {
             return p.subtract(p0).normalize();
         }
         // if the point is on the bottom or top of the cylinder
-        if ((t - height) == 0) {
+        if (isZero(t - height)) {
             return v;
         }
         // if the point is on the side of the cylinder
@@ -92,9 +115,58 @@ public class Cylinder extends Tube {
 
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    /**
+     * Finds the intersections of a ray with the cylinder: with its round surface between the bases,
+     * and with its two base disks. Intersections on the rims of the bases are not counted.
+     *
+     * @param ray the ray to intersect with the cylinder
+     * @return the intersection points sorted by their distance from the ray's head, or null if there are none
+     */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        return super.findGeoIntersectionsHelper(ray);
+        Point p0 = ray.getHead();
+        Vector v = ray.getDirection();
+        Point pa = axis.getHead();
+        Vector va = axis.getDirection();
+        // Projections of the ray's head (relative to the axis head) and direction on the axis
+        double pva = (p0.getX() - pa.getX()) * va.getX() + (p0.getY() - pa.getY()) * va.getY()
+                + (p0.getZ() - pa.getZ()) * va.getZ();
+        double vva = v.dotProduct(va);
+
+        // A convex body is crossed at most twice
+        double[] distances = new double[2];
+        int count = 0;
+
+        // The round surface, between the bases
+        double[] side = findSideDistances(ray);
+        if (side != null)
+            for (double t : side) {
+                t = alignZero(t);
+                double s = alignZero(pva + t * vva);
+                if (t > 0 && s > 0 && alignZero(s - height) < 0 && count < 2) distances[count++] = t;
+            }
+
+        // The bases, if the ray isn't parallel to them
+        if (!isZero(vva))
+            for (double base : new double[]{0, height}) {
+                double t = alignZero((base - pva) / vva);
+                if (t <= 0 || count == 2) continue;
+                // The squared distance of the intersection with the base plane from the base center
+                double x = p0.getX() + v.getX() * t - pa.getX() - va.getX() * base;
+                double y = p0.getY() + v.getY() * t - pa.getY() - va.getY() * base;
+                double z = p0.getZ() + v.getZ() * t - pa.getZ() - va.getZ() * base;
+                if (alignZero(x * x + y * y + z * z - radius * radius) < 0) distances[count++] = t;
+            }
+
+        if (count == 0) return null;
+        if (count == 1) return List.of(new GeoPoint(this, ray.getPoint(distances[0])));
+        double near = Math.min(distances[0], distances[1]), far = Math.max(distances[0], distances[1]);
+        return List.of(new GeoPoint(this, ray.getPoint(near)), new GeoPoint(this, ray.getPoint(far)));
     }
 }
 
@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Ray;
 
 import java.util.ArrayList;
@@ -18,10 +19,33 @@ public class Geometries extends Intersectable {
      * allowing for intersection calculations with rays or other geometric operations.
      * The list is initialized as a LinkedList.
      */
-    private final List<Intersectable> geometries = new LinkedList<>();
+    protected final List<Intersectable> geometries = new LinkedList<>();
 
+    /**
+     * The collections nested in this collection, whose changes change its bounding box too
+     */
+    private final List<Geometries> nested = new ArrayList<>();
 
+    /**
+     * The amount of times geometries were added to the collection
+     */
+    private long modifications = 0;
+
+    /**
+     * The bounding box of the collection, with the modifications it was calculated at.
+     * It is null until the box is first needed.
+     */
+    private volatile Bounds bounds = null;
 
+    /**
+     * The union of the bounding boxes of the geometries in the collection, as it was when the collection
+     * and the collections nested in it were modified the given amount of times
+     *
+     * @param box           the union of the boxes, null if the collection is empty or unbounded
+     * @param modifications the modifications of the collection the box was calculated at
+     */
+    private record Bounds(BoundingBox box, long modifications) {
+    }
 
     /**
      * Default constructor, initializes an empty list of geometries.
@@ -40,21 +64,75 @@ public class Geometries extends Intersectable {
 
     /**
      * Adds the provided geometries to the collection.
+     * The bounding box of the collection is recalculated when it is next needed, also when geometries are
+     * added later to a collection nested in it.
      *
      * @param geometries the geometries to add to the collection
      */
-    public void add(Intersectable... geometries) {
+    public final void add(Intersectable... geometries) {
         this.geometries.addAll(List.of(geometries));
+        for (Intersectable geometry : geometries)
+            if (geometry instanceof Geometries collection) nested.add(collection);
+        ++modifications;
+    }
+
+    /**
+     * Returns the amount of modifications of the collection and of all the collections nested in it.
+     * It grows whenever geometries are added to any of them, so a value calculated from the geometries is
+     * stale when the amount of modifications differs from the amount it was calculated at.
+     *
+     * @return the amount of modifications
+     */
+    protected long modifications() {
+        long count = modifications;
+        for (Geometries collection : nested) count += collection.modifications();
+        return count;
+    }
+
+    /**
+     * Returns the union of the bounding boxes of the geometries in the collection.
+     * It is calculated on the first call after the collection (or a collection nested in it) was modified.
+     *
+     * @return the bounding box of the collection, or null if the collection is empty or
+     * contains an unbounded geometry
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        long count = modifications();
+        Bounds current = bounds;
+        if (current == null || current.modifications() != count)
+            bounds = current = new Bounds(unionOfBoxes(), count);
+        return current.box();
+    }
+
+    /**
+     * Calculates the union of the bounding boxes of the geometries in the collection.
+     *
+     * @return the union of the boxes, or null if the collection is empty or contains an unbounded geometry
+     */
+    private BoundingBox unionOfBoxes() {
+        BoundingBox union = null;
+        for (Intersectable geometry : geometries) {
+            BoundingBox box = geometry.getBoundingBox();
+            if (box == null) return null;
+            union = union == null ? box : union.union(box);
+        }
+        return union;
     }
 
     /**
      * Finds the intersections of a given ray with all the geometries in the collection.
+     * A ray which misses the bounding box of the collection is rejected without testing
+     * any of the geometries.
      *
      * @param ray the ray to intersect with the geometries
      * @return a list of intersection points, or null if no intersections are found
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, Double.POSITIVE_INFINITY)) return null;
+
         List<GeoPoint> intersections = null;
         for (Intersectable geometry : this.geometries) {
             var geoPoints = geometry.findGeoIntersections(ray);
@@ -68,4 +146,75 @@ public class Geometries extends Intersectable {
 
         return intersections;
     }
+
+    /**
+     * Finds the closest intersection of a given ray with the geometries in the collection.
+     * All the geometries share the same hit, so each one is tested only against the closest
+     * intersection found so far.
+     *
+     * @param ray      the ray to intersect with the geometries
+     * @param hit      the closest intersection found so far, updated if a closer one is found
+     * @param counters the counters of the intersection tests, null for not counting them
+     * @return true if a closer intersection was found
+     */
+    @Override
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, hit.t)) return false;
+
+        boolean found = false;
+        for (Intersectable geometry : this.geometries) {
+            countTest(counters, geometry);
+            if (geometry.findClosestHit(ray, hit, counters)) found = true;
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether any of the geometries in the collection intersects the ray before a maximal
+     * distance, stopping at the first one that does.
+     *
+     * @param ray         the ray to intersect with the geometries
+     * @param maxDistance the distance along the ray beyond which intersections are ignored
+     * @param counters    the counters of the intersection tests, null for not counting them
+     * @return true if there is an intersection nearer than maxDistance
+     */
+    @Override
+    public boolean isOccluded(Ray ray, double maxDistance, IntersectionCounters counters) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance)) return false;
+
+        for (Intersectable geometry : this.geometries) {
+            countTest(counters, geometry);
+            if (geometry.isOccluded(ray, maxDistance, counters)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Accumulates the transparency of the geometries in the collection which the ray passes through
+     * before a maximal distance, stopping as soon as the ray is blocked.
+     *
+     * @param ray         the ray to intersect with the geometries
+     * @param maxDistance the distance along the ray beyond which intersections are ignored
+     * @param k           the transparency accumulated so far
+     * @param minK        the transparency below which the ray is considered as fully blocked
+     * @param occluder    a hit to set the geometry of to the geometry which blocked the ray by itself,
+     *                    null if not needed
+     * @param counters    the counters of the intersection tests, null for not counting them
+     * @return the accumulated transparency, or {@link Double3#ZERO} if it dropped below minK
+     */
+    @Override
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 k, double minK, Hit occluder,
+                                    IntersectionCounters counters) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance)) return k;
+
+        for (Intersectable geometry : this.geometries) {
+            countTest(counters, geometry);
+            k = geometry.findTransparency(ray, maxDistance, k, minK, occluder, counters);
+            if (k.lowerThan(minK)) return Double3.ZERO;
+        }
+        return k;
+    }
 }
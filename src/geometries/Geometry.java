@@ -1,8 +1,10 @@
 package geometries;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Material;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -68,6 +70,36 @@ public abstract class Geometry extends Intersectable {
      */
     public abstract Vector getNormal(Point p);
 
+    /**
+     * Calculates the normal vector to the surface at a point of an intersection, whose face is known.
+     * Only meshes have faces, so this default implementation ignores the face.
+     *
+     * @param p    the point on the surface
+     * @param face the index of the face of a mesh the point is on, -1 if unknown or for other geometries
+     * @return the normal vector at the given point
+     * @throws IllegalArgumentException if the point does not lie on the surface
+     */
+    public Vector getNormal(Point p, int face) {
+        return getNormal(p);
+    }
+
+    @Override
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 k, double minK, Hit occluder,
+                                    IntersectionCounters counters) {
+        int hits = countHits(ray, maxDistance);
+        if (hits == 0) return k;
+        // An opaque geometry blocks the ray without any calculation
+        if (material.kT.lowerThan(minK)) {
+            if (occluder != null) occluder.geometry = this;
+            return Double3.ZERO;
+        }
+        for (int i = 0; i < hits; ++i) {
+            k = k.product(material.kT);
+            if (k.lowerThan(minK)) return Double3.ZERO;
+        }
+        return k;
+    }
+
 
 
 
@@ -1,7 +1,9 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Vector;
 
 import java.util.List;
 import java.util.Objects;
@@ -14,6 +16,15 @@ import java.util.Objects;
  * @author Dvora Enav and Zohar Tamsut
  */
 public abstract class Intersectable {
+    /**
+     * Counts an intersection test of a geometry in a collection, if the tests are counted.
+     *
+     * @param counters the counters of the tests, null if the tests aren't counted
+     * @param geometry the tested geometry
+     */
+    static void countTest(IntersectionCounters counters, Intersectable geometry) {
+        if (counters != null) counters.count(geometry);
+    }
 
     /**
      * Finds intersection points between the intersectable object and a given ray.
@@ -48,7 +59,196 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray);
 
+    /**
+     * Returns the axis-aligned bounding box of the intersectable object.
+     * Infinite objects (and objects that don't compute their bounds) have no box.
+     *
+     * @return the bounding box of the object, or null if the object is unbounded
+     */
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
+    /**
+     * Finds the closest intersection between the given ray and the object which is nearer than
+     * a maximal distance, without building lists of intersection points.
+     *
+     * @param ray         the ray to intersect with the object
+     * @param maxDistance the distance along the ray beyond which intersections are ignored
+     * @param counters    the counters of the intersection tests, null for not counting them
+     * @return the closest intersection, or null if there is no intersection nearer than maxDistance
+     */
+    public final Hit findClosestHit(Ray ray, double maxDistance, IntersectionCounters counters) {
+        Hit hit = new Hit(maxDistance);
+        return findClosestHit(ray, hit, counters) ? hit : null;
+    }
+
+    /**
+     * Finds the closest intersection between the given ray and the object which is nearer than the
+     * current distance of the given hit, and updates the hit with it. The hit carries the running
+     * maximal distance, so collections pass the same hit to all their members and farther
+     * candidates are pruned.<br/>
+     * This default implementation is based on {@link #findGeoIntersectionsHelper(Ray)};
+     * geometries override it with a calculation that doesn't allocate intersection points.
+     *
+     * @param ray      the ray to intersect with the object
+     * @param hit      the closest intersection found so far, updated if a closer one is found
+     * @param counters the counters of the intersection tests of the geometries in collections,
+     *                 null for not counting them
+     * @return true if a closer intersection was found
+     */
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null) return false;
+        boolean found = false;
+        for (GeoPoint geoPoint : intersections) {
+            double t = ray.getHead().distance(geoPoint.point);
+            if (t < hit.t) {
+                hit.set(geoPoint.geometry, t, geoPoint.face);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Any-hit query: checks whether the ray intersects the object before a maximal distance.
+     * Unlike the closest-hit query it stops at the first intersection found, so it is the
+     * cheapest query for shadow rays.
+     *
+     * @param ray         the ray to intersect with the object
+     * @param maxDistance the distance along the ray beyond which intersections are ignored
+     * @param counters    the counters of the intersection tests of the geometries in collections,
+     *                    null for not counting them
+     * @return true if there is an intersection nearer than maxDistance
+     */
+    public boolean isOccluded(Ray ray, double maxDistance, IntersectionCounters counters) {
+        return countHits(ray, maxDistance) > 0;
+    }
+
+    /**
+     * Accumulates the transparency of all the geometries the ray passes through before a maximal
+     * distance, multiplying it by the transparency coefficient (kT) of each intersection in turn.
+     * The query stops as soon as the accumulated transparency drops below a minimal value, so an
+     * opaque geometry ends it immediately, and is reported as the occluder of the ray - it blocks any
+     * ray it intersects, so callers may test it first for the next rays.<br/>
+     * This default implementation is based on {@link #findGeoIntersectionsHelper(Ray)}.
+     *
+     * @param ray         the ray to intersect with the object
+     * @param maxDistance the distance along the ray beyond which intersections are ignored
+     * @param k           the transparency accumulated so far
+     * @param minK        the transparency below which the ray is considered as fully blocked
+     * @param occluder    a hit to set the geometry of to the geometry which blocked the ray by itself - an
+     *                    intersected geometry whose transparency (kT) is below minK, null if not needed
+     * @param counters    the counters of the intersection tests of the geometries in collections,
+     *                    null for not counting them
+     * @return the accumulated transparency, or {@link Double3#ZERO} if it dropped below minK
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 k, double minK, Hit occluder,
+                                    IntersectionCounters counters) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null) return k;
+        for (GeoPoint geoPoint : intersections) {
+            if (ray.getHead().distance(geoPoint.point) < maxDistance) {
+                Double3 kT = geoPoint.geometry.getMaterial().kT;
+                if (kT.lowerThan(minK) && occluder != null) occluder.geometry = geoPoint.geometry;
+                k = k.product(kT);
+                if (k.lowerThan(minK)) return Double3.ZERO;
+            }
+        }
+        return k;
+    }
 
+    /**
+     * Counts the intersections of the ray with the object which are nearer than a maximal distance.<br/>
+     * This default implementation is based on {@link #findGeoIntersectionsHelper(Ray)};
+     * geometries override it with a calculation that doesn't allocate intersection points.
+     *
+     * @param ray         the ray to intersect with the object
+     * @param maxDistance the distance along the ray beyond which intersections are ignored
+     * @return the number of intersections nearer than maxDistance
+     */
+    protected int countHits(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray);
+        if (intersections == null) return 0;
+        int count = 0;
+        for (GeoPoint geoPoint : intersections)
+            if (ray.getHead().distance(geoPoint.point) < maxDistance) ++count;
+        return count;
+    }
+
+    /**
+     * Hit represents the intersection of a ray with a geometry by the distance along the ray,
+     * without calculating the intersection point itself. It is mutable, so a closest-hit query
+     * can carry the distance of the closest intersection found so far.
+     */
+    public static class Hit {
+        /**
+         * The intersected geometry, null if no intersection was found yet.
+         */
+        public Geometry geometry = null;
+
+        /**
+         * The distance of the intersection along the ray (the maximal distance while nothing was found).
+         */
+        public double t;
+
+        /**
+         * The index of the intersected face of a mesh, -1 for other geometries
+         */
+        public int face = -1;
+
+        /**
+         * Constructs an empty hit, limited to a maximal distance.
+         *
+         * @param maxDistance the distance along the ray beyond which intersections are ignored
+         */
+        public Hit(double maxDistance) {
+            this.t = maxDistance;
+        }
+
+        /**
+         * Converts the hit into a GeoPoint on the ray which produced it.
+         *
+         * @param ray the ray of the hit
+         * @return the intersection point with its geometry
+         */
+        public GeoPoint toGeoPoint(Ray ray) {
+            return new GeoPoint(geometry, ray.getPoint(t), face);
+        }
+
+        /**
+         * Sets the hit to an intersection with a geometry which has no faces
+         *
+         * @param geometry the intersected geometry
+         * @param t        the distance of the intersection along the ray
+         */
+        public void set(Geometry geometry, double t) {
+            set(geometry, t, -1);
+        }
+
+        /**
+         * Sets the hit to an intersection with a face of a geometry
+         *
+         * @param geometry the intersected geometry
+         * @param t        the distance of the intersection along the ray
+         * @param face     the index of the intersected face of a mesh, -1 for other geometries
+         */
+        public void set(Geometry geometry, double t, int face) {
+            this.geometry = geometry;
+            this.t = t;
+            this.face = face;
+        }
+
+        @Override
+        public String toString() {
+            return "Hit{" +
+                    "geometry=" + geometry +
+                    ", t=" + t +
+                    ", face=" + face +
+                    '}';
+        }
+    }
 
     /**
      * GeoPoint represents a point on a geometric shape, including the specific geometry
@@ -65,6 +265,11 @@ public abstract class Intersectable {
          */
         public Point point;
 
+        /**
+         * The index of the face of a mesh on which the point lies, -1 for other geometries.
+         */
+        public int face;
+
         /**
          * Constructs a GeoPoint with the specified geometry and point.
          *
@@ -72,20 +277,40 @@ public abstract class Intersectable {
          * @param point    The coordinates of the point.
          */
         public GeoPoint(Geometry geometry, Point point) {
+            this(geometry, point, -1);
+        }
+
+        /**
+         * Constructs a GeoPoint on a face of a mesh.
+         *
+         * @param geometry The geometry on which the point lies.
+         * @param point    The coordinates of the point.
+         * @param face     The index of the face of the mesh, -1 for other geometries.
+         */
+        public GeoPoint(Geometry geometry, Point point, int face) {
             this.geometry = geometry;
             this.point = point;
+            this.face = face;
+        }
+
+        /**
+         * @return the normal of the geometry at the point
+         */
+        public Vector getNormal() {
+            return geometry.getNormal(point, face);
         }
 
         @Override
         public boolean equals(Object ob) {
             if (this == ob) return true;
             if (!(ob instanceof GeoPoint geoPoint)) return false;
-            return Objects.equals(geometry, geoPoint.geometry) && Objects.equals(point, geoPoint.point);
+            return face == geoPoint.face && Objects.equals(geometry, geoPoint.geometry)
+                    && Objects.equals(point, geoPoint.point);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(geometry, point);
+            return Objects.hash(geometry, point, face);
         }
 
         @Override
@@ -93,6 +318,7 @@ public abstract class Intersectable {
             return "GeoPoint{" +
                     "geometry=" + geometry +
                     ", point=" + point +
+                    ", face=" + face +
                     '}';
         }
     }
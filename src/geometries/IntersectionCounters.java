@@ -0,0 +1,58 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The amount of intersection tests of every class of geometries, counted by the collections of geometries
+ * during the queries of a single thread. The counters aren't synchronized - every thread counts into its
+ * own object, and the counts of the threads are summed after they are done.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class IntersectionCounters {
+    /**
+     * The classes of the geometries tested so far
+     */
+    private Class<?>[] types = new Class<?>[8];
+    /**
+     * The amount of tests of every class, by the index of the class in {@link #types}
+     */
+    private long[] counts = new long[8];
+    /**
+     * The amount of classes tested so far
+     */
+    private int size = 0;
+
+    /**
+     * Counts an intersection test of a geometry - by a collection, or by a renderer which tests a single
+     * geometry directly. Only geometries are counted, not the collections they are nested in.
+     *
+     * @param geometry the tested geometry
+     */
+    public void count(Intersectable geometry) {
+        if (!(geometry instanceof Geometry)) return;
+        Class<?> type = geometry.getClass();
+        for (int i = 0; i < size; ++i)
+            if (types[i] == type) {
+                ++counts[i];
+                return;
+            }
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        types[size] = type;
+        counts[size++] = 1;
+    }
+
+    /**
+     * Adds the amounts of the tests counted so far to a map of amounts by the simple names of the classes
+     *
+     * @param tests the map the amounts are added to
+     */
+    public void addTo(Map<String, Long> tests) {
+        for (int i = 0; i < size; ++i)
+            tests.merge(types[i].getSimpleName(), counts[i], Long::sum);
+    }
+}
@@ -85,36 +85,67 @@ public class Plane extends Geometry {
     }
 
 
+    /**
+     * A plane is infinite, so it has no bounding box.
+     *
+     * @return null, the plane is unbounded
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
+
     /**
      * Finds the intersection points between a ray and the plane.
      * Since a plane is infinite, it may intersect the ray at one point or infinitely many points.
-     * In this implementation, it returns null since it's not yet implemented.
+     * A ray which lies in the plane or starts on it is considered as not intersecting it.
      *
      * @param ray The ray to intersect with the plane.
      * @return A list of intersection points between the ray and the plane, or null if there are no intersections.
      */
     @Override
-
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        //if the ray starts at the plane
-        if (ray.getHead().equals(q)) {
-            return null;
-        }
-
-        double t = alignZero(normal.dotProduct(ray.getDirection()));
-        //if the ray is parallel to the plane
-        if (isZero(t)) {
-            return null;
-        }
-
-        double t1 = alignZero(normal.dotProduct(q.subtract(ray.getHead())) / t);
-        //if the ray is in the opposite direction of the normal
-        if (t1 <= 0) {
-            return null;
-        }
+        double t = findDistance(ray);
         //if the ray intersects the plane
-        return List.of(new GeoPoint(this, ray.getPoint(t1)));
+        return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
     }
 
+    @Override
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        double t = findDistance(ray);
+        if (t == 0 || t >= hit.t) return false;
+        hit.set(this, t);
+        return true;
+    }
 
+    @Override
+    protected int countHits(Ray ray, double maxDistance) {
+        double t = findDistance(ray);
+        return t != 0 && t < maxDistance ? 1 : 0;
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with the plane, without creating
+     * vectors or points.
+     *
+     * @param ray the ray to intersect with the plane
+     * @return the distance of the intersection, or 0 if the ray doesn't intersect the plane
+     */
+    double findDistance(Ray ray) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double qx = q.getX() - head.getX();
+        double qy = q.getY() - head.getY();
+        double qz = q.getZ() - head.getZ();
+        //if the ray starts at the plane
+        if (isZero(qx) && isZero(qy) && isZero(qz)) return 0;
+
+        double nv = alignZero(normal.getX() * dir.getX() + normal.getY() * dir.getY() + normal.getZ() * dir.getZ());
+        //if the ray is parallel to the plane
+        if (isZero(nv)) return 0;
+
+        double t = alignZero((normal.getX() * qx + normal.getY() * qy + normal.getZ() * qz) / nv);
+        //if the plane is behind the ray
+        return t <= 0 ? 0 : t;
+    }
 }
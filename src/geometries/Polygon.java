@@ -28,6 +28,15 @@ public class Polygon extends Geometry {
      * The size of the polygon - the amount of the vertices in the polygon
      */
     private final int size;
+    /**
+     * The bounding box of the polygon's vertices
+     */
+    private final BoundingBox boundingBox;
+    /**
+     * Unit normals to the edges, lying in the plane of the polygon - the coordinates of the normal
+     * to the edge from vertex i to vertex i+1 are at indexes 3i, 3i+1 and 3i+2
+     */
+    private final double[] edgeNormals;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -56,11 +65,23 @@ public class Polygon extends Geometry {
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
         size = vertices.length;
+        boundingBox = BoundingBox.fromPoints(vertices);
 
         // Generate the plane according to the first three vertices and associate the
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
+
+        // The normal to each edge in the plane is n x edge, all of them point to the same side
+        // (inside or outside) of the polygon since it is convex
+        edgeNormals = new double[3 * size];
+        for (int i = 0; i < size; ++i) {
+            Vector edgeNormal = plane.getNormal()
+                    .crossProduct(vertices[(i + 1) % size].subtract(vertices[i])).normalize();
+            edgeNormals[3 * i] = edgeNormal.getX();
+            edgeNormals[3 * i + 1] = edgeNormal.getY();
+            edgeNormals[3 * i + 2] = edgeNormal.getZ();
+        }
         if (size == 3) return; // no need for more tests for a Triangle
 
         Vector n = plane.getNormal();
@@ -94,53 +115,54 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        Point p0 = ray.getHead();
-        Vector v = ray.getDirection();
-        Plane plane = this.plane;
-        Vector normal = plane.getNormal();
-        Point q = plane.getQ();
-
-        // Check if ray is parallel to the plane or lies on the plane
-        double nv = normal.dotProduct(v);
-        if (isZero(nv)) {
-            return null;
-        }
-
-        // Find the intersection point t on the plane
-        double t = alignZero(normal.dotProduct(q.subtract(p0)) / nv);
-        if (t <= 0) {
-            return null;
-        }
+    @Override
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
 
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        double t = plane.findDistance(ray);
+        if (t == 0) return null;
         Point intersectionPoint = ray.getPoint(t);
+        return isInside(intersectionPoint) ? List.of(new GeoPoint(this, intersectionPoint)) : null;
+    }
 
-        try {
-            // Initialize vectors for the first edge and the point to intersection
-            Vector edgeVector = this.vertices.getFirst().subtract(this.vertices.getLast()).normalize();
-            Vector vecToPoint = intersectionPoint.subtract(this.vertices.getLast()).normalize();
-            Vector normalVector = edgeVector.crossProduct(vecToPoint).normalize(); // First vector to compare to others
-
-            for (int i = 0; i < this.vertices.size() - 1; i++) {
-                edgeVector = this.vertices.get(i + 1).subtract(this.vertices.get(i)).normalize();
-                vecToPoint = intersectionPoint.subtract(this.vertices.get(i)).normalize();
-
-                // The point is on the edge
-                if (edgeVector.equals(vecToPoint) || edgeVector.equals(edgeVector.scale(-1))) {
-                    return null;
-                }
+    @Override
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        double t = plane.findDistance(ray);
+        // The containment test is done only for an intersection nearer than the closest one so far
+        if (t == 0 || t >= hit.t || !isInside(ray.getPoint(t))) return false;
+        hit.set(this, t);
+        return true;
+    }
 
-                Vector crossVector = edgeVector.crossProduct(vecToPoint).normalize();
+    @Override
+    protected int countHits(Ray ray, double maxDistance) {
+        double t = plane.findDistance(ray);
+        return t != 0 && t < maxDistance && isInside(ray.getPoint(t)) ? 1 : 0;
+    }
 
-                if (normalVector.dotProduct(crossVector) < 0) {
-                    // At least one vector is not the same, the point is outside the polygon
-                    return null;
-                }
-            }
-            return List.of(new GeoPoint(this, intersectionPoint)); // The point is inside the polygon
-        } catch (IllegalArgumentException e) {
-            // Exception thrown because the zero vector was constructed (point on a vertex or edge)
-            return null;
+    /**
+     * Checks whether a point in the plane of the polygon lies strictly inside the polygon.
+     * The point is inside if it is on the same side of all the edges, i.e. its distances
+     * from the edges along their cached normals all have the same sign.
+     *
+     * @param point a point in the plane of the polygon
+     * @return true if the point is inside the polygon, false if it is outside or on its boundary
+     */
+    private boolean isInside(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        boolean positive = true;
+        for (int i = 0; i < size; ++i) {
+            Point vertex = vertices.get(i);
+            double distance = alignZero((px - vertex.getX()) * edgeNormals[3 * i]
+                    + (py - vertex.getY()) * edgeNormals[3 * i + 1]
+                    + (pz - vertex.getZ()) * edgeNormals[3 * i + 2]);
+            if (distance == 0) return false; // The point is on an edge (or its continuation)
+            if (i == 0) positive = distance > 0;
+            else if (positive != distance > 0) return false;
         }
+        return true;
     }
-}
\ No newline at end of file
+}
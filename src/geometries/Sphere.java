@@ -7,6 +7,7 @@ import primitives.Vector;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Sphere class which represents the location of a Sphere in space
@@ -19,6 +20,10 @@ public class Sphere extends RadialGeometry {
      * The center point of the sphere.
      */
     private Point center;
+    /**
+     * The bounding box of the sphere
+     */
+    private final BoundingBox boundingBox;
 
     /**
      * Constructor for a sphere object.
@@ -29,6 +34,8 @@ public class Sphere extends RadialGeometry {
     public Sphere(Point center, double radius) {
         super(radius);
         this.center = center;
+        this.boundingBox = new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
     }
 
     /**
@@ -39,11 +46,14 @@ public class Sphere extends RadialGeometry {
      */
 
     public Vector getNormal(Point point) {
-        // Calculate the vector from the center of the sphere to the given point
-        //  and Normalize the vector to obtain the normal vector
-        return point.subtract(center).normalize();
+        // Calculate the normalized vector from the center of the sphere to the given point
+        return point.directionFrom(center);
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
 
     /**
      * Finds intersection points between the sphere and a given ray.
@@ -87,4 +97,56 @@ public class Sphere extends RadialGeometry {
             return null; // No intersection, both intersection1 and intersection2 are non-positive
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        // The vector from the ray's starting point to the center of the sphere
+        double lx = center.getX() - head.getX();
+        double ly = center.getY() - head.getY();
+        double lz = center.getZ() - head.getZ();
+
+        double t;
+        if (isZero(lx) && isZero(ly) && isZero(lz)) {
+            // The ray starts at the center of the sphere
+            t = radius;
+        } else {
+            double projectionLength = alignZero(dir.getX() * lx + dir.getY() * ly + dir.getZ() * lz);
+            double perpendicularDistance = alignZero(Math.sqrt(lx * lx + ly * ly + lz * lz
+                    - projectionLength * projectionLength));
+            if (perpendicularDistance >= radius) return false;
+            double halfChordLength = alignZero(Math.sqrt(radius * radius - perpendicularDistance * perpendicularDistance));
+
+            // The nearer intersection in front of the ray head
+            t = alignZero(projectionLength - halfChordLength);
+            if (t <= 0) t = alignZero(projectionLength + halfChordLength);
+            if (!(t > 0)) return false;
+        }
+
+        if (t >= hit.t) return false;
+        hit.set(this, t);
+        return true;
+    }
+
+    @Override
+    protected int countHits(Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double lx = center.getX() - head.getX();
+        double ly = center.getY() - head.getY();
+        double lz = center.getZ() - head.getZ();
+        // The ray starts at the center of the sphere
+        if (isZero(lx) && isZero(ly) && isZero(lz)) return radius < maxDistance ? 1 : 0;
+
+        double projectionLength = alignZero(dir.getX() * lx + dir.getY() * ly + dir.getZ() * lz);
+        double perpendicularDistance = alignZero(Math.sqrt(lx * lx + ly * ly + lz * lz
+                - projectionLength * projectionLength));
+        if (perpendicularDistance >= radius) return 0;
+        double halfChordLength = alignZero(Math.sqrt(radius * radius - perpendicularDistance * perpendicularDistance));
+
+        double t1 = alignZero(projectionLength - halfChordLength);
+        double t2 = alignZero(projectionLength + halfChordLength);
+        return (t1 > 0 && t1 < maxDistance ? 1 : 0) + (t2 > 0 && t2 < maxDistance ? 1 : 0);
+    }
+}
@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -7,6 +8,7 @@ import primitives.Vector;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Represents a triangle in 3D space defined by three {@link Point}s.
@@ -14,6 +16,24 @@ import static primitives.Util.alignZero;
  * @author Dvora Enav and Zohar Tamsut
  */
 public class Triangle extends Polygon {
+    /**
+     * Coordinates of the first vertex, the origin of both edges
+     */
+    private final double ax, ay, az;
+    /**
+     * Coordinates of the edge from the first vertex to the second one
+     */
+    private final double e1x, e1y, e1z;
+    /**
+     * Coordinates of the edge from the first vertex to the third one
+     */
+    private final double e2x, e2y, e2z;
+    /**
+     * Length of the cross product of the edges (twice the area of the triangle), used to
+     * normalize the determinant when checking whether a ray is parallel to the triangle
+     */
+    private final double normalLength;
+
     /**
      * Constructs a triangle object from three points.
      *
@@ -23,53 +43,104 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point a, Point b, Point c) {
         super(a, b, c);
+        ax = a.getX();
+        ay = a.getY();
+        az = a.getZ();
+        e1x = b.getX() - ax;
+        e1y = b.getY() - ay;
+        e1z = b.getZ() - az;
+        e2x = c.getX() - ax;
+        e2y = c.getY() - ay;
+        e2z = c.getZ() - az;
+        double nx = e1y * e2z - e1z * e2y;
+        double ny = e1z * e2x - e1x * e2z;
+        double nz = e1x * e2y - e1y * e2x;
+        normalLength = Math.sqrt(nx * nx + ny * ny + nz * nz);
     }
 
     /**
      * Finds the intersection points between a given ray and the triangle.
-     * This method uses the Möller–Trumbore intersection algorithm to determine
-     * if and where a ray intersects a triangle in 3D space.
      *
      * @param ray the ray to intersect with the triangle.
      * @return a list of intersection points if the ray intersects the triangle,
      * or null if there are no intersections.
      */
-
     @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        double t = findDistance(ray, null);
+        return t == 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
+    @Override
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        double t = findDistance(ray, null);
+        if (t == 0 || t >= hit.t) return false;
+        hit.set(this, t);
+        return true;
+    }
 
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
-        Point p0 = ray.getHead(); // The starting point of the ray
-        Vector v = ray.getDirection(); // The direction vector of the ray
-        Plane plane = this.plane;
+    @Override
+    protected int countHits(Ray ray, double maxDistance) {
+        double t = findDistance(ray, null);
+        return t != 0 && t < maxDistance ? 1 : 0;
+    }
 
-        if (plane.findGeoIntersectionsHelper(ray) == null)
-            return null;
+    /**
+     * Finds the barycentric coordinates of the intersection of a ray with the triangle.
+     * The intersection point is w*a + u*b + v*c, where a, b and c are the vertices of the triangle.
+     *
+     * @param ray the ray to intersect with the triangle
+     * @return the coordinates (w, u, v) of the intersection point, or null if there is no intersection
+     */
+    public Double3 findBarycentric(Ray ray) {
+        double[] uv = new double[2];
+        return findDistance(ray, uv) == 0 ? null : new Double3(1 - uv[0] - uv[1], uv[0], uv[1]);
+    }
 
-        Point intersectionPoint = plane.findGeoIntersectionsHelper(ray).getFirst().point;
+    /**
+     * Intersects a ray with the triangle by the M&ouml;ller&ndash;Trumbore algorithm: the barycentric
+     * coordinates of the intersection and its distance are solved together by Cramer's rule, using
+     * only the cached edges of the triangle, without intersecting its plane first.
+     * As with the other geometries, intersections on the edges and vertices are not counted.
+     *
+     * @param ray         the ray to intersect with the triangle
+     * @param barycentric array which receives the barycentric coordinates (u, v) of the
+     *                    intersection with the second and the third vertices, may be null
+     * @return the distance of the intersection from the ray's head, or 0 if there is no intersection
+     */
+    private double findDistance(Ray ray, double[] barycentric) {
+        Point p0 = ray.getHead();
+        Vector dir = ray.getDirection();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
 
-        // Vectors from the ray's starting point to the vertices of the triangle
-        Vector v1 = this.vertices.get(0).subtract(p0);
-        Vector v2 = this.vertices.get(1).subtract(p0);
-        Vector v3 = this.vertices.get(2).subtract(p0);
+        // p = d x e2, det = e1 . p
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // det / |e1 x e2| is the cosine between the ray and the triangle's normal
+        if (isZero(det / normalLength)) return 0;
+        double invDet = 1 / det;
 
-        // Normals to the planes formed by the ray and the triangle's edges
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
+        // s = p0 - a, u = (s . p) / det
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * invDet);
+        if (u <= 0 || u >= 1) return 0;
 
-        // Dot products of the ray's direction with the normals
-        double d1 = alignZero(v.dotProduct(n1));
-        double d2 = alignZero(v.dotProduct(n2));
-        double d3 = alignZero(v.dotProduct(n3));
+        // q = s x e1, v = (d . q) / det
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * invDet);
+        if (v <= 0 || alignZero(u + v - 1) >= 0) return 0;
 
-        // Check if the ray intersects the triangle
-        // The ray intersects the triangle if all the dot products are either positive or negative
-        if ((d1 > 0 && d2 > 0 && d3 > 0) || (d1 < 0 && d2 < 0 && d3 < 0)) {
-            // If the ray intersects the triangle, find the intersection points with the plane
-            return List.of(new GeoPoint(this, intersectionPoint));
+        // t = (e2 . q) / det
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        if (t <= 0) return 0;
+        if (barycentric != null) {
+            barycentric[0] = u;
+            barycentric[1] = v;
         }
-        // If the ray does not intersect the triangle, return null
-        return null;
+        return t;
     }
 }
@@ -0,0 +1,525 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import primitives.VectorMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Indexed triangle mesh - a large model made of triangles which share vertices, a material and an emission.
+ * <p>
+ * Instead of an object per face (with its own vertex list, plane and material), the mesh keeps its
+ * vertices and faces in flat arrays of primitives: every vertex is 3 coordinates, every face is 3 vertex
+ * indexes. The faces are organized in a bounding volume hierarchy built with the binned surface area
+ * heuristic, whose nodes are kept in flat arrays as well, with the faces of every leaf stored
+ * consecutively, so a ray query walks through contiguous memory and allocates nothing but its result.
+ * <p>
+ * The intersections of the mesh are reported with the mesh itself and the index of the face that was hit
+ * (see {@link Hit#face} and {@link GeoPoint#face}), so the normal of that face is found without any search
+ * and no object is kept per face.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class TriangleMesh extends Geometry {
+    /**
+     * Maximum amount of faces the surface area heuristic may keep in a single leaf
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+    /**
+     * Amount of bins the faces are sorted into when looking for the best split
+     */
+    private static final int BINS = 16;
+    /**
+     * Cost of traversing a node relative to the cost of intersecting a face
+     */
+    private static final double TRAVERSAL_COST = 0.125;
+
+    /**
+     * Coordinates of the vertices - x, y and z of vertex i are at indexes 3i, 3i+1 and 3i+2
+     */
+    private final double[] vertices;
+    /**
+     * Vertex indexes of the faces, 3 per face, ordered by the leaves of the hierarchy
+     */
+    private final int[] faces;
+    /**
+     * Unit normals of the faces, 3 coordinates per face (zero for a degenerate face)
+     */
+    private final double[] normals;
+    /**
+     * Boxes of the hierarchy nodes, 6 coordinates per node - the lower corner and then the upper corner
+     */
+    private double[] nodeBounds;
+    /**
+     * Structure of the hierarchy nodes, 2 values per node. A leaf has its first face and the (positive)
+     * amount of its faces. An inner node has the index of its second child (the first child follows the
+     * node itself) and -(axis + 1), where axis is the axis along which its faces were split.
+     */
+    private int[] nodeData;
+    /**
+     * Amount of nodes in the hierarchy
+     */
+    private int nodeCount = 0;
+    /**
+     * Depth of the hierarchy, which bounds the size of the traversal stack
+     */
+    private int depth = 0;
+    /**
+     * The bounding box of the whole mesh
+     */
+    private final BoundingBox boundingBox;
+
+    /**
+     * Constructs a mesh from flat arrays of vertices and faces and builds its hierarchy.
+     * The vertices array is kept as is (without copying) and must not be changed afterwards.
+     *
+     * @param vertices the coordinates of the vertices, 3 per vertex
+     * @param faces    the vertex indexes of the faces, 3 per face
+     * @throws IllegalArgumentException if the arrays are not made of triples, there are no faces,
+     *                                  or a face refers to a vertex which doesn't exist
+     */
+    public TriangleMesh(double[] vertices, int[] faces) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("Vertices must be given by 3 coordinates each");
+        if (faces.length == 0 || faces.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have faces given by 3 vertex indexes each");
+        int vertexCount = vertices.length / 3;
+        for (int index : faces)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Face refers to a missing vertex " + index);
+        this.vertices = vertices;
+
+        int faceCount = faces.length / 3;
+        // Boxes and centers of the faces, used only while building the hierarchy
+        double[] faceBounds = new double[6 * faceCount];
+        double[] centers = new double[3 * faceCount];
+        for (int f = 0; f < faceCount; ++f)
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[3 * faces[3 * f] + axis];
+                double b = vertices[3 * faces[3 * f + 1] + axis];
+                double c = vertices[3 * faces[3 * f + 2] + axis];
+                faceBounds[6 * f + axis] = Math.min(a, Math.min(b, c));
+                faceBounds[6 * f + 3 + axis] = Math.max(a, Math.max(b, c));
+                centers[3 * f + axis] = (faceBounds[6 * f + axis] + faceBounds[6 * f + 3 + axis]) / 2;
+            }
+
+        int[] order = new int[faceCount];
+        for (int f = 0; f < faceCount; ++f) order[f] = f;
+        int capacity = Math.max(16, faceCount / 2);
+        nodeBounds = new double[6 * capacity];
+        nodeData = new int[2 * capacity];
+        build(order, 0, faceCount, faceBounds, centers, 1);
+        nodeBounds = Arrays.copyOf(nodeBounds, 6 * nodeCount);
+        nodeData = Arrays.copyOf(nodeData, 2 * nodeCount);
+
+        // Store the faces in the order of the leaves, with their normals
+        this.faces = new int[faces.length];
+        normals = new double[faces.length];
+        for (int i = 0; i < faceCount; ++i) {
+            System.arraycopy(faces, 3 * order[i], this.faces, 3 * i, 3);
+            calcNormal(i);
+        }
+        boundingBox = new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+
+    /**
+     * @return the amount of faces in the mesh
+     */
+    public int getFaceCount() {
+        return faces.length / 3;
+    }
+
+    /**
+     * Returns the normal of the face a point is on. The face is found through the hierarchy, so this is
+     * slower than {@link #getNormal(Point, int)} with the face of an intersection, which is known already.
+     *
+     * @param p a point on the mesh
+     * @return the unit normal of the face of the point
+     * @throws IllegalArgumentException if the point is not on any face of the mesh
+     */
+    @Override
+    public Vector getNormal(Point p) {
+        int face = findFace(p);
+        if (face < 0) throw new IllegalArgumentException("The point is not on the mesh");
+        return normal(face);
+    }
+
+    /**
+     * Returns the normal of a face of the mesh
+     *
+     * @param p    a point on the mesh
+     * @param face the index of the face the point is on, -1 for finding it by the point
+     * @return the unit normal of the face
+     * @throws IllegalArgumentException if the face is unknown and the point is not on any face of the mesh
+     */
+    @Override
+    public Vector getNormal(Point p, int face) {
+        return face < 0 ? getNormal(p) : normal(face);
+    }
+
+    /**
+     * Finds a face a point is on, by the same test as the intersections of rays: a ray through the point
+     * along the normal of the face must hit the face at the point
+     *
+     * @param p the point
+     * @return the index of the face, or -1 if the point is not on any face
+     */
+    private int findFace(Point p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int i = 6 * node;
+            if (alignZero(x - nodeBounds[i]) < 0 || alignZero(y - nodeBounds[i + 1]) < 0
+                    || alignZero(z - nodeBounds[i + 2]) < 0 || alignZero(nodeBounds[i + 3] - x) < 0
+                    || alignZero(nodeBounds[i + 4] - y) < 0 || alignZero(nodeBounds[i + 5] - z) < 0)
+                continue;
+            int first = nodeData[2 * node], count = nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int face = first; face < first + count; ++face) {
+                    if (normals[3 * face] == 0 && normals[3 * face + 1] == 0 && normals[3 * face + 2] == 0)
+                        continue; // degenerate face
+                    Vector normal = normal(face);
+                    if (isZero(findDistance(face, p.add(normal), normal.scale(-1)) - 1)) return face;
+                }
+            } else {
+                stack[top++] = first;
+                stack[top++] = node + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the normal of a face
+     *
+     * @param face the index of the face
+     * @return the unit normal of the face
+     */
+    private Vector normal(int face) {
+        return new Vector(normals[3 * face], normals[3 * face + 1], normals[3 * face + 2]);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> intersections = new ArrayList<>();
+        findHits(ray, Double.POSITIVE_INFINITY, false, intersections);
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    @Override
+    public boolean findClosestHit(Ray ray, Hit hit, IntersectionCounters counters) {
+        Point head = ray.getHead();
+        Point inv = ray.getInverseDirection();
+        Vector dir = ray.getDirection();
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        int closest = -1;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!intersects(node, head, inv, hit.t)) continue;
+            int first = nodeData[2 * node], count = nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int face = first; face < first + count; ++face) {
+                    double t = findDistance(face, head, dir);
+                    if (t != 0 && t < hit.t) {
+                        hit.t = t;
+                        closest = face;
+                    }
+                }
+            } else {
+                // The child on the side the ray comes from is pushed last, so it is visited first
+                int axis = -count - 1;
+                double d = axis == 0 ? dir.getX() : axis == 1 ? dir.getY() : dir.getZ();
+                stack[top++] = d >= 0 ? first : node + 1;
+                stack[top++] = d >= 0 ? node + 1 : first;
+            }
+        }
+        if (closest < 0) return false;
+        hit.set(this, hit.t, closest);
+        return true;
+    }
+
+    @Override
+    public boolean isOccluded(Ray ray, double maxDistance, IntersectionCounters counters) {
+        return findHits(ray, maxDistance, true, null) > 0;
+    }
+
+    @Override
+    protected int countHits(Ray ray, double maxDistance) {
+        return findHits(ray, maxDistance, false, null);
+    }
+
+    /**
+     * Finds the intersections of a ray with the faces of the mesh before a maximal distance.
+     *
+     * @param ray           the ray to intersect with
+     * @param maxDistance   the distance along the ray beyond which intersections are ignored
+     * @param any           true to stop at the first intersection found
+     * @param intersections list to add the intersection points to, may be null
+     * @return the amount of intersections found
+     */
+    private int findHits(Ray ray, double maxDistance, boolean any, List<GeoPoint> intersections) {
+        Point head = ray.getHead();
+        Point inv = ray.getInverseDirection();
+        Vector dir = ray.getDirection();
+        int[] stack = new int[depth + 1];
+        int top = 0;
+        stack[top++] = 0;
+        int hits = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!intersects(node, head, inv, maxDistance)) continue;
+            int first = nodeData[2 * node], count = nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int face = first; face < first + count; ++face) {
+                    double t = findDistance(face, head, dir);
+                    if (t == 0 || t >= maxDistance) continue;
+                    ++hits;
+                    if (any) return hits;
+                    if (intersections != null) intersections.add(new GeoPoint(this, ray.getPoint(t), face));
+                }
+            } else {
+                stack[top++] = first;
+                stack[top++] = node + 1;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Checks whether a ray enters the box of a node of the hierarchy before a maximal distance
+     *
+     * @param node        the index of the node
+     * @param head        the head of the ray
+     * @param inv         the reciprocals of the ray's direction coordinates
+     * @param maxDistance the distance along the ray beyond which the box is ignored
+     * @return true if the ray passes through the box of the node
+     */
+    private boolean intersects(int node, Point head, Point inv, double maxDistance) {
+        int i = 6 * node;
+        return BoundingBox.intersects(nodeBounds[i], nodeBounds[i + 1], nodeBounds[i + 2],
+                nodeBounds[i + 3], nodeBounds[i + 4], nodeBounds[i + 5], head, inv, maxDistance);
+    }
+
+    /**
+     * Intersects a ray with a face by the M&ouml;ller&ndash;Trumbore algorithm, the same way as
+     * {@link Triangle} does - intersections on the edges and vertices are not counted.
+     *
+     * @param face the index of the face
+     * @param head the head of the ray
+     * @param dir  the direction of the ray
+     * @return the distance of the intersection from the ray's head, or 0 if there is no intersection
+     */
+    private double findDistance(int face, Point head, Vector dir) {
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        // The cosine between the ray and the normal - the ray is parallel to the face (or the face is degenerate)
+        if (isZero(dx * normals[3 * face] + dy * normals[3 * face + 1] + dz * normals[3 * face + 2])) return 0;
+
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double invDet = 1 / (e1x * px + e1y * py + e1z * pz);
+
+        double sx = head.getX() - ax, sy = head.getY() - ay, sz = head.getZ() - az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * invDet);
+        if (u <= 0 || u >= 1) return 0;
+
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * invDet);
+        if (v <= 0 || alignZero(u + v - 1) >= 0) return 0;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        return t > 0 ? t : 0;
+    }
+
+    /**
+     * Calculates the unit normal of a face, (b - a) x (c - a) normalized, or zero for a degenerate face.
+     *
+     * @param face the index of the face
+     */
+    private void calcNormal(int face) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        VectorMath.cross(e1x, e1y, e1z, e2x, e2y, e2z, normals, 3 * face);
+        // a degenerate face keeps a zero normal
+        if (isZero(VectorMath.normalize(normals, 3 * face))) Arrays.fill(normals, 3 * face, 3 * face + 3, 0);
+    }
+
+    /**
+     * Recursively builds the subtree of a range of faces. The centers of the faces are sorted into bins
+     * along each axis, and the range is split between the bins where the surface area heuristic cost is
+     * minimal, or kept as a leaf if it is small and splitting doesn't pay off.
+     *
+     * @param order      the faces, reordered in place
+     * @param from       the first index of the range (inclusive)
+     * @param to         the last index of the range (exclusive)
+     * @param faceBounds the boxes of the faces, 6 coordinates per face
+     * @param centers    the centers of the boxes of the faces, 3 coordinates per face
+     * @param level      the depth of the subtree root in the hierarchy
+     * @return the index of the subtree root
+     */
+    private int build(int[] order, int from, int to, double[] faceBounds, double[] centers, int level) {
+        depth = Math.max(depth, level);
+        int node = nodeCount++;
+        if (6 * nodeCount > nodeBounds.length) {
+            nodeBounds = Arrays.copyOf(nodeBounds, 2 * nodeBounds.length);
+            nodeData = Arrays.copyOf(nodeData, 2 * nodeData.length);
+        }
+
+        // The box of the node and the bounds of the face centers
+        double[] box = emptyBounds();
+        double[] centerBounds = emptyBounds();
+        for (int i = from; i < to; ++i) {
+            int f = order[i];
+            for (int axis = 0; axis < 3; ++axis) {
+                box[axis] = Math.min(box[axis], faceBounds[6 * f + axis]);
+                box[axis + 3] = Math.max(box[axis + 3], faceBounds[6 * f + 3 + axis]);
+                centerBounds[axis] = Math.min(centerBounds[axis], centers[3 * f + axis]);
+                centerBounds[axis + 3] = Math.max(centerBounds[axis + 3], centers[3 * f + axis]);
+            }
+        }
+        System.arraycopy(box, 0, nodeBounds, 6 * node, 6);
+
+        int count = to - from;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+        int[] binCounts = new int[BINS];
+        double[] binBounds = new double[6 * BINS];
+        double[] rightAreas = new double[BINS];
+        for (int axis = 0; axis < 3 && count > 1; ++axis) {
+            double extent = centerBounds[axis + 3] - centerBounds[axis];
+            if (!(extent > 0)) continue;
+            Arrays.fill(binCounts, 0);
+            for (int b = 0; b < BINS; ++b) System.arraycopy(emptyBounds(), 0, binBounds, 6 * b, 6);
+            for (int i = from; i < to; ++i) {
+                int f = order[i];
+                int b = bin(centers[3 * f + axis], centerBounds[axis], extent);
+                ++binCounts[b];
+                for (int k = 0; k < 3; ++k) {
+                    binBounds[6 * b + k] = Math.min(binBounds[6 * b + k], faceBounds[6 * f + k]);
+                    binBounds[6 * b + 3 + k] = Math.max(binBounds[6 * b + 3 + k], faceBounds[6 * f + 3 + k]);
+                }
+            }
+            // Sweep from the right, then from the left evaluating the split after each bin
+            double[] right = emptyBounds();
+            for (int b = BINS - 1; b > 0; --b) {
+                union(right, binBounds, 6 * b);
+                rightAreas[b] = surfaceArea(right);
+            }
+            double[] left = emptyBounds();
+            int leftCount = 0;
+            for (int b = 0; b < BINS - 1; ++b) {
+                union(left, binBounds, 6 * b);
+                leftCount += binCounts[b];
+                if (leftCount == 0 || leftCount == count) continue;
+                double cost = TRAVERSAL_COST * surfaceArea(box)
+                        + surfaceArea(left) * leftCount + rightAreas[b + 1] * (count - leftCount);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = b;
+                }
+            }
+        }
+
+        if (count == 1 || count <= MAX_LEAF_SIZE && (bestAxis < 0 || count * surfaceArea(box) <= bestCost)) {
+            nodeData[2 * node] = from;
+            nodeData[2 * node + 1] = count;
+            return node;
+        }
+
+        int middle;
+        if (bestAxis < 0) {
+            // All the centers are the same, any split is as good as another
+            middle = (from + to) >>> 1;
+            bestAxis = 0;
+        } else {
+            // Partition the faces of the range by the bin of their centers
+            double extent = centerBounds[bestAxis + 3] - centerBounds[bestAxis];
+            middle = from;
+            for (int i = from; i < to; ++i) {
+                int f = order[i];
+                if (bin(centers[3 * f + bestAxis], centerBounds[bestAxis], extent) <= bestBin) {
+                    order[i] = order[middle];
+                    order[middle++] = f;
+                }
+            }
+        }
+        build(order, from, middle, faceBounds, centers, level + 1);
+        // The node arrays may grow while building the children, so they are accessed only afterwards
+        int right = build(order, middle, to, faceBounds, centers, level + 1);
+        nodeData[2 * node] = right;
+        nodeData[2 * node + 1] = -(bestAxis + 1);
+        return node;
+    }
+
+    /**
+     * Finds the bin of a face center along an axis
+     *
+     * @param center the coordinate of the center along the axis
+     * @param min    the lowest coordinate of the centers along the axis
+     * @param extent the extent of the centers along the axis
+     * @return the index of the bin
+     */
+    private static int bin(double center, double min, double extent) {
+        return Math.min(BINS - 1, (int) ((center - min) / extent * BINS));
+    }
+
+    /**
+     * @return bounds (lower corner and then upper corner) which contain nothing
+     */
+    private static double[] emptyBounds() {
+        double inf = Double.POSITIVE_INFINITY;
+        return new double[]{inf, inf, inf, -inf, -inf, -inf};
+    }
+
+    /**
+     * Extends bounds to contain other bounds
+     *
+     * @param bounds the bounds to extend
+     * @param other  array of the other bounds
+     * @param offset the index of the other bounds in their array
+     */
+    private static void union(double[] bounds, double[] other, int offset) {
+        for (int k = 0; k < 3; ++k) {
+            bounds[k] = Math.min(bounds[k], other[offset + k]);
+            bounds[k + 3] = Math.max(bounds[k + 3], other[offset + 3 + k]);
+        }
+    }
+
+    /**
+     * Calculates the surface area of bounds, zero for empty bounds
+     *
+     * @param bounds the bounds
+     * @return the surface area
+     */
+    private static double surfaceArea(double[] bounds) {
+        double dx = bounds[3] - bounds[0], dy = bounds[4] - bounds[1], dz = bounds[5] - bounds[2];
+        return dx < 0 ? 0 : 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
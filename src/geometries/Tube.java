@@ -70,9 +70,63 @@ public class Tube extends RadialGeometry {
         return point.subtract(axis.getPoint(t)).normalize();
     }
 
+    /**
+     * A tube is infinite along its axis, so it has no bounding box -
+     * its finite case is the {@link Cylinder}.
+     *
+     * @return null, the tube is unbounded
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return null;
+    }
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        double[] distances = findSideDistances(ray);
+        if (distances == null) return null;
+        double t1 = alignZero(distances[0]);
+        double t2 = alignZero(distances[1]);
+        if (t1 > 0) return List.of(new GeoPoint(this, ray.getPoint(t1)), new GeoPoint(this, ray.getPoint(t2)));
+        if (t2 > 0) return List.of(new GeoPoint(this, ray.getPoint(t2)));
         return null;
     }
+
+    /**
+     * Calculates the distances along a ray (from its head, possibly negative) to its intersections with
+     * the infinite round surface of the tube.<br/>
+     * The components of the ray's head and direction orthogonal to the axis are
+     * e = (p0 - pa) - ((p0 - pa)&middot;va)va and d = v - (v&middot;va)va, and the intersections solve
+     * the quadratic equation |e + td|<sup>2</sup> = r<sup>2</sup>. It is calculated on the coordinates,
+     * without creating vectors.
+     *
+     * @param ray the ray to intersect with the tube
+     * @return the two distances in ascending order, or null if the ray is parallel to the axis,
+     * tangent to the tube or doesn't reach it
+     */
+    protected double[] findSideDistances(Ray ray) {
+        Point p0 = ray.getHead();
+        Vector v = ray.getDirection();
+        Point pa = axis.getHead();
+        Vector va = axis.getDirection();
+        double vax = va.getX(), vay = va.getY(), vaz = va.getZ();
+
+        double vva = v.getX() * vax + v.getY() * vay + v.getZ() * vaz;
+        double dx = v.getX() - vva * vax, dy = v.getY() - vva * vay, dz = v.getZ() - vva * vaz;
+        double a = alignZero(dx * dx + dy * dy + dz * dz);
+        // The ray is parallel to the axis
+        if (a == 0) return null;
+
+        double px = p0.getX() - pa.getX(), py = p0.getY() - pa.getY(), pz = p0.getZ() - pa.getZ();
+        double pva = px * vax + py * vay + pz * vaz;
+        double ex = px - pva * vax, ey = py - pva * vay, ez = pz - pva * vaz;
+        double halfB = dx * ex + dy * ey + dz * ez;
+        double c = ex * ex + ey * ey + ez * ez - radius * radius;
+
+        double discriminant = alignZero(halfB * halfB - a * c);
+        // The ray misses the tube or is tangent to it
+        if (discriminant <= 0) return null;
+        double root = Math.sqrt(discriminant);
+        return new double[]{(-halfB - root) / a, (-halfB + root) / a};
+    }
 }
@@ -0,0 +1,220 @@
+package lighting;
+
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The lights of a scene organized by their range of influence, so the lights which may illuminate a point
+ * are found without going over all the lights.
+ * <p>
+ * A point light (and a spotlight) whose intensity drops below a minimal intensity is bounded by a sphere
+ * around it, of the radius of {@link PointLight#getRange(double)}, and the spheres are kept in a binary tree
+ * of axis-aligned boxes. The other lights (directional lights, and all the lights when the minimal intensity
+ * is 0) may illuminate any point, and are returned for every point. The lights are returned in the order of
+ * the scene, so the colors are summed in the same order as without the hierarchy.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class LightHierarchy {
+    /**
+     * Maximum amount of lights in a leaf of the tree
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+
+    /**
+     * The list of lights the hierarchy was built from
+     */
+    private final List<LightSource> source;
+    /**
+     * The lights, in the order of the scene
+     */
+    private final LightSource[] lights;
+    /**
+     * The indices of the lights which are not bounded, ascending
+     */
+    private final int[] unbounded;
+    /**
+     * The root of the tree of the bounded lights, null if there are none
+     */
+    private final Node root;
+
+    /**
+     * A bounded light while building the tree
+     *
+     * @param index  the index of the light in the scene
+     * @param center the position of the light
+     * @param radius the range of the light
+     */
+    private record Item(int index, Point center, double radius) {
+        /**
+         * @param axis 0, 1 or 2 for x, y or z
+         * @return the coordinate of the center along the axis
+         */
+        double center(int axis) {
+            return axis == 0 ? center.getX() : axis == 1 ? center.getY() : center.getZ();
+        }
+    }
+
+    /**
+     * A node of the tree. Inner nodes have two children, leaves have the bounded lights.
+     */
+    private static class Node {
+        /**
+         * The box of the spheres of all the lights under the node - min x, y, z and max x, y, z
+         */
+        final double[] box = {
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        /**
+         * The children of an inner node, null in a leaf
+         */
+        Node left, right;
+        /**
+         * The lights of a leaf, null in an inner node
+         */
+        Item[] items;
+
+        /**
+         * Checks whether a point is in the box of the node
+         *
+         * @param x the x coordinate of the point
+         * @param y the y coordinate of the point
+         * @param z the z coordinate of the point
+         * @return true if the point is in the box
+         */
+        boolean contains(double x, double y, double z) {
+            return x >= box[0] && y >= box[1] && z >= box[2] && x <= box[3] && y <= box[4] && z <= box[5];
+        }
+    }
+
+    /**
+     * Builds the hierarchy of a list of lights
+     *
+     * @param lights       the lights
+     * @param minIntensity the intensity of a light (in color units, 255 is white) below which it is not
+     *                     considered, 0 for considering all the lights at all the points
+     * @throws IllegalArgumentException if the minimal intensity is negative
+     */
+    public LightHierarchy(List<LightSource> lights, double minIntensity) {
+        if (minIntensity < 0) throw new IllegalArgumentException("Minimal intensity cannot be negative");
+        this.source = lights;
+        this.lights = lights.toArray(new LightSource[0]);
+        List<Item> items = new ArrayList<>();
+        int[] unbounded = new int[this.lights.length];
+        int count = 0;
+        for (int i = 0; i < this.lights.length; ++i) {
+            double range = this.lights[i] instanceof PointLight light
+                    ? light.getRange(minIntensity) : Double.POSITIVE_INFINITY;
+            if (range == Double.POSITIVE_INFINITY) unbounded[count++] = i;
+            else items.add(new Item(i, ((PointLight) this.lights[i]).position, range));
+        }
+        this.unbounded = Arrays.copyOf(unbounded, count);
+        this.root = items.isEmpty() ? null : build(items.toArray(new Item[0]), 0, items.size());
+    }
+
+    /**
+     * Builds a subtree of the bounded lights, splitting them by the median of their positions along the
+     * longest axis of their box
+     *
+     * @param items the lights
+     * @param from  the first light of the subtree
+     * @param to    the end of the lights of the subtree (exclusive)
+     * @return the root of the subtree
+     */
+    private static Node build(Item[] items, int from, int to) {
+        Node node = new Node();
+        for (int i = from; i < to; ++i) {
+            Item item = items[i];
+            for (int axis = 0; axis < 3; ++axis) {
+                node.box[axis] = Math.min(node.box[axis], item.center(axis) - item.radius);
+                node.box[axis + 3] = Math.max(node.box[axis + 3], item.center(axis) + item.radius);
+            }
+        }
+        if (to - from <= MAX_LEAF_SIZE) {
+            node.items = Arrays.copyOfRange(items, from, to);
+            return node;
+        }
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (node.box[a + 3] - node.box[a] > node.box[axis + 3] - node.box[axis]) axis = a;
+        final int longest = axis;
+        Arrays.sort(items, from, to, Comparator.comparingDouble(item -> item.center(longest)));
+        int middle = (from + to) / 2;
+        node.left = build(items, from, middle);
+        node.right = build(items, middle, to);
+        return node;
+    }
+
+    /**
+     * Checks whether the hierarchy was built from a list of lights, as it is now
+     *
+     * @param lights the list of lights
+     * @return true if the hierarchy was built from the list and the amount of lights didn't change
+     */
+    public boolean isBuiltFrom(List<LightSource> lights) {
+        return source == lights && this.lights.length == lights.size();
+    }
+
+    /**
+     * @return the amount of lights
+     */
+    public int size() {
+        return lights.length;
+    }
+
+    /**
+     * Returns a light by its index in the scene
+     *
+     * @param index the index
+     * @return the light
+     */
+    public LightSource get(int index) {
+        return lights[index];
+    }
+
+    /**
+     * Finds the lights which may illuminate a point - the unbounded lights and the bounded lights whose range
+     * contains the point, without the lights which don't illuminate it at all (see
+     * {@link LightSource#illuminates(Point)}).
+     *
+     * @param point   the point
+     * @param indices the array the indices of the lights are stored to, in ascending order; at least
+     *                {@link #size()} long
+     * @return the amount of lights found
+     */
+    public int findLights(Point point, int[] indices) {
+        int count = 0;
+        for (int index : unbounded)
+            if (lights[index].illuminates(point)) indices[count++] = index;
+        if (root == null) return count;
+        int bounded = count;
+        count = findLights(root, point, indices, count);
+        // The bounded lights are sorted into the order of the scene
+        if (count > bounded) Arrays.sort(indices, 0, count);
+        return count;
+    }
+
+    /**
+     * Adds the lights under a node which may illuminate a point
+     *
+     * @param node    the node
+     * @param point   the point
+     * @param indices the array the indices of the lights are stored to
+     * @param count   the amount of lights found so far
+     * @return the amount of lights found
+     */
+    private int findLights(Node node, Point point, int[] indices, int count) {
+        if (!node.contains(point.getX(), point.getY(), point.getZ())) return count;
+        if (node.items == null)
+            return findLights(node.right, point, indices, findLights(node.left, point, indices, count));
+        for (Item item : node.items)
+            if (item.center.distanceSquared(point) <= item.radius * item.radius
+                    && lights[item.index].illuminates(point))
+                indices[count++] = item.index;
+        return count;
+    }
+}
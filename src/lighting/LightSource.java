@@ -35,4 +35,15 @@ public interface LightSource {
      */
     double getDistance(Point point);
 
+    /**
+     * Quick test whether the light may illuminate a point at all, before its intensity at the point and
+     * the shadow of the point are calculated. The default implementation assumes it may.
+     *
+     * @param point the point
+     * @return false only if the intensity of the light at the point is zero
+     */
+    default boolean illuminates(Point point) {
+        return true;
+    }
+
 }
@@ -78,11 +78,29 @@ public class PointLight extends Light implements LightSource {
      */
     @Override
     public Vector getL(Point p) {
-        return p.subtract(position).normalize();
+        return p.directionFrom(position);
     }
 
     @Override
     public double getDistance(Point point) {
         return position.distance(point);
     }
+
+    /**
+     * Calculates the distance from the light beyond which the intensity of the light is below a minimal
+     * intensity in all the color components, by the attenuation factors.
+     *
+     * @param minIntensity the minimal intensity (in color units, 255 is white)
+     * @return the distance, {@link Double#POSITIVE_INFINITY} if the intensity doesn't drop below the minimal
+     * intensity (e.g. there is no attenuation by the distance)
+     */
+    public double getRange(double minIntensity) {
+        if (minIntensity <= 0) return Double.POSITIVE_INFINITY;
+        double max = Math.max(intensity.getRed(), Math.max(intensity.getGreen(), intensity.getBlue()));
+        // The intensity is below the minimal intensity where the attenuation is bigger than their ratio
+        double attenuation = max / minIntensity;
+        if (kC >= attenuation) return 0;
+        if (kQ > 0) return (-kL + Math.sqrt(kL * kL + 4 * kQ * (attenuation - kC))) / (2 * kQ);
+        return kL > 0 ? (attenuation - kC) / kL : Double.POSITIVE_INFINITY;
+    }
 }
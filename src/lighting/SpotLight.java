@@ -74,7 +74,19 @@ public class SpotLight extends PointLight {
     @Override
     public Color getIntensity(Point p) {
         double a = alignZero(direction.dotProduct(getL(p)));
-        return super.getIntensity(p).scale(Math.max(0, Math.pow(a, narrowBeam)));
+        return super.getIntensity(p).scale(a <= 0 ? 0 : Math.pow(a, narrowBeam));
+    }
+
+    /**
+     * Checks whether a point is in front of the spotlight - the spotlight doesn't illuminate the points
+     * behind it
+     *
+     * @param point the point
+     * @return true if the point is in front of the spotlight
+     */
+    @Override
+    public boolean illuminates(Point point) {
+        return alignZero(direction.dotProduct(getL(point))) > 0;
     }
 
     @Override
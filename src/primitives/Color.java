@@ -76,6 +76,46 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Red component getter
+     *
+     * @return the red component of this Color, without upper limit
+     */
+    public double getRed() {
+        return rgb.d1;
+    }
+
+    /**
+     * Green component getter
+     *
+     * @return the green component of this Color, without upper limit
+     */
+    public double getGreen() {
+        return rgb.d2;
+    }
+
+    /**
+     * Blue component getter
+     *
+     * @return the blue component of this Color, without upper limit
+     */
+    public double getBlue() {
+        return rgb.d3;
+    }
+
+    /**
+     * Returns the color packed into an int of 8 bits per component (0xRRGGBB), the way the pixels of RGB
+     * images are stored. As in {@link #getColor()}, any component bigger than 255 is set to 255.
+     *
+     * @return the packed RGB components of this Color
+     */
+    public int getRGB() {
+        int ir = (int) rgb.d1;
+        int ig = (int) rgb.d2;
+        int ib = (int) rgb.d3;
+        return (ir > 255 ? 255 : ir) << 16 | (ig > 255 ? 255 : ig) << 8 | (ib > 255 ? 255 : ib);
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
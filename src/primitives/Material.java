@@ -42,6 +42,13 @@ public class Material {
      */
     public Double3 kS = Double3.ZERO;
 
+    /**
+     * The maximal depth of the reflected and refracted rays which continue from the material's surface.
+     * A ray which hits the surface at a greater depth (the primary ray is at depth 0) is not continued.
+     * The default value is {@link Integer#MAX_VALUE}, which means the depth is limited by the ray tracer only.
+     */
+    public int maxDepth = Integer.MAX_VALUE;
+
     /**
      * Sets the transparency coefficient of the material.
      *
@@ -138,4 +145,18 @@ public class Material {
         this.shininess = shininess;
         return this;
     }
+
+    /**
+     * Sets the maximal depth of the reflected and refracted rays which continue from the material's surface.
+     *
+     * @param maxDepth the maximal depth, 0 for a surface whose reflection and refraction are not traced
+     * @return the updated Material object
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public Material setMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Maximal depth cannot be negative");
+        this.maxDepth = maxDepth;
+        return this;
+    }
 }
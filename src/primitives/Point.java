@@ -123,4 +123,22 @@ public class Point {
         return new Vector(xyz.subtract(point.xyz));
 
     }
+
+    /**
+     * Computes the unit vector from another point to this point. It is the same as
+     * {@code subtract(point).normalize()}, but the intermediate vector is not created.
+     *
+     * @param point The point to compute the direction from.
+     * @return The normalized direction from the given point to this point.
+     * @throws IllegalArgumentException if the points are the same (the direction is the zero vector).
+     */
+    public Vector directionFrom(Point point) {
+        double x = xyz.d1 - point.xyz.d1;
+        double y = xyz.d2 - point.xyz.d2;
+        double z = xyz.d3 - point.xyz.d3;
+        if (Util.isZero(x) && Util.isZero(y) && Util.isZero(z))
+            throw new IllegalArgumentException("Cannot create the zero vector.");
+        double len = VectorMath.length(x, y, z);
+        return new Vector(x / len, y / len, z / len);
+    }
 }
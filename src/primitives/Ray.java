@@ -21,6 +21,11 @@ public class Ray {
      * field of the direction(vector) of the ray
      */
     private Vector direction;
+    /**
+     * The reciprocals of the direction coordinates, used by ray-box (slab) tests.
+     * Calculated on first use, may contain infinities
+     */
+    private Point inverseDirection = null;
 
     /**
      * ray constructor gets point and vector
@@ -44,7 +49,10 @@ public class Ray {
     public Ray(Point p1, Vector v1, Vector normal) {
         direction = v1.normalize();
         double offset = normal.dotProduct(v1) > 0 ? DELTA : -DELTA;
-        head = p1.add(normal.scale(offset));
+        // The head is moved along the normal without creating the intermediate scaled vector
+        head = new Point(p1.getX() + normal.getX() * offset,
+                p1.getY() + normal.getY() * offset,
+                p1.getZ() + normal.getZ() * offset);
     }
 
     /**
@@ -65,6 +73,18 @@ public class Ray {
         return direction;
     }
 
+    /**
+     * Returns the reciprocals of the direction coordinates (1/x, 1/y, 1/z), calculating them once per ray.
+     * A zero coordinate has an infinite reciprocal.
+     *
+     * @return the reciprocals of the direction coordinates
+     */
+    public Point getInverseDirection() {
+        if (inverseDirection == null)
+            inverseDirection = new Point(1 / direction.getX(), 1 / direction.getY(), 1 / direction.getZ());
+        return inverseDirection;
+    }
+
     @Override
     public boolean equals(Object ob) {
         if (this == ob) return true;
@@ -90,7 +110,10 @@ public class Ray {
         if (isZero(t)) {
             return head;
         }
-        return head.add(direction.scale(t));
+        // Calculated on the coordinates, without creating the intermediate scaled vector
+        return new Point(head.getX() + direction.getX() * t,
+                head.getY() + direction.getY() * t,
+                head.getZ() + direction.getZ() * t);
     }
 
 
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * This class represents a three-dimensional vector in Euclidean space.
  * It inherits from the Point class to leverage its properties.
@@ -19,7 +21,7 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (this.xyz.equals(Double3.ZERO))
+        if (isZero(x) && isZero(y) && isZero(z))
             throw new IllegalArgumentException("Cannot create the zero vector.");
     }
 
@@ -31,7 +33,7 @@ public class Vector extends Point {
      */
     public Vector(Double3 xyz) {
         super(xyz);
-        if (this.xyz.equals(Double3.ZERO))
+        if (isZero(xyz.d1) && isZero(xyz.d2) && isZero(xyz.d3))
             throw new IllegalArgumentException("Cannot create the zero vector.");
     }
 
@@ -80,9 +82,7 @@ public class Vector extends Point {
      * @return The dot product of this vector with the given vector.
      */
     public double dotProduct(Vector v) {
-        return (xyz.d1 * v.xyz.d1) +
-                (xyz.d2 * v.xyz.d2) +
-                (xyz.d3 * v.xyz.d3);
+        return VectorMath.dot(xyz.d1, xyz.d2, xyz.d3, v.xyz.d1, v.xyz.d2, v.xyz.d3);
     }
 
     /**
@@ -101,11 +101,13 @@ public class Vector extends Point {
     /**
      * Normalizes this vector, i.e., changes its length to 1.
      *
-     * @return A new vector representing this vector normalized to unit length.
+     * @return A vector representing this vector normalized to unit length - this vector itself if it
+     * is already of unit length (vectors are immutable, so no copy is needed).
      */
     public Vector normalize() {
-        double len = this.length();
-        return new Vector(this.xyz.reduce(len));
+        double len = VectorMath.length(xyz.d1, xyz.d2, xyz.d3);
+        if (len == 1) return this;
+        return new Vector(xyz.d1 / len, xyz.d2 / len, xyz.d3 / len);
     }
 
 
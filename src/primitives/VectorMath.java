@@ -0,0 +1,82 @@
+package primitives;
+
+/**
+ * Vector math on raw coordinates, for the hot paths of rendering which must not create a temporary
+ * {@link Vector} (and its {@link Double3}) for every intermediate result. Vectors are passed as three
+ * doubles, or as three consecutive slots of an array.
+ * <p>
+ * The kernels compute in the same order as the methods of {@link Vector}, so their results are identical.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public final class VectorMath {
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private VectorMath() {
+    }
+
+    /**
+     * Calculates the dot product of two vectors.
+     *
+     * @param x1 the x coordinate of the first vector
+     * @param y1 the y coordinate of the first vector
+     * @param z1 the z coordinate of the first vector
+     * @param x2 the x coordinate of the second vector
+     * @param y2 the y coordinate of the second vector
+     * @param z2 the z coordinate of the second vector
+     * @return the dot product of the vectors
+     */
+    public static double dot(double x1, double y1, double z1, double x2, double y2, double z2) {
+        return x1 * x2 + y1 * y2 + z1 * z2;
+    }
+
+    /**
+     * Calculates the length of a vector. The length of a vector whose squared length is exactly 1 is exactly 1,
+     * so dividing by it leaves a unit vector as it is.
+     *
+     * @param x the x coordinate of the vector
+     * @param y the y coordinate of the vector
+     * @param z the z coordinate of the vector
+     * @return the length of the vector
+     */
+    public static double length(double x, double y, double z) {
+        double lengthSquared = dot(x, y, z, x, y, z);
+        return lengthSquared == 1 ? 1 : Math.sqrt(lengthSquared);
+    }
+
+    /**
+     * Calculates the cross product of two vectors into three slots of an array.
+     *
+     * @param x1     the x coordinate of the first vector
+     * @param y1     the y coordinate of the first vector
+     * @param z1     the z coordinate of the first vector
+     * @param x2     the x coordinate of the second vector
+     * @param y2     the y coordinate of the second vector
+     * @param z2     the z coordinate of the second vector
+     * @param result the array the cross product is stored to
+     * @param offset the index of the x coordinate of the cross product in the array
+     */
+    public static void cross(double x1, double y1, double z1, double x2, double y2, double z2,
+                             double[] result, int offset) {
+        result[offset] = y1 * z2 - z1 * y2;
+        result[offset + 1] = z1 * x2 - x1 * z2;
+        result[offset + 2] = x1 * y2 - y1 * x2;
+    }
+
+    /**
+     * Normalizes the vector in three slots of an array, in place. A zero vector is left as it is.
+     *
+     * @param vector the array of the vector
+     * @param offset the index of the x coordinate of the vector in the array
+     * @return the length of the vector before it was normalized
+     */
+    public static double normalize(double[] vector, int offset) {
+        double length = length(vector[offset], vector[offset + 1], vector[offset + 2]);
+        if (length == 0) return 0;
+        vector[offset] /= length;
+        vector[offset + 1] /= length;
+        vector[offset + 2] /= length;
+        return length;
+    }
+}
@@ -0,0 +1,148 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Arrays;
+
+/**
+ * A high dynamic range buffer of the pixels of an image, which the color samples of the pixels are
+ * added into in place. The sums are kept as doubles without upper limit, together with the amount of
+ * samples of every pixel, and the averages are tone mapped only when the buffer is written to an image.
+ * Samples may be added over several renderings (e.g. progressively), and the image can be written at
+ * any moment without rendering again.
+ * <p>
+ * Threads may add samples concurrently as long as they add them to different pixels (e.g. to different
+ * tiles of the image).
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class AccumulationBuffer {
+    /**
+     * Horizontal resolution - number of pixels in row
+     */
+    private final int nX;
+    /**
+     * Vertical resolution - number of pixels in column
+     */
+    private final int nY;
+    /**
+     * The sums of the samples of the pixels, row by row, 3 components per pixel
+     */
+    private final double[] sums;
+    /**
+     * The amounts of samples of the pixels, row by row
+     */
+    private final int[] samples;
+
+    /**
+     * Constructs an empty buffer
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     * @throws IllegalArgumentException if a resolution is not positive
+     */
+    public AccumulationBuffer(int nX, int nY) {
+        if (nX <= 0 || nY <= 0) throw new IllegalArgumentException("Resolution must be positive");
+        this.nX = nX;
+        this.nY = nY;
+        sums = new double[3 * nX * nY];
+        samples = new int[nX * nY];
+    }
+
+    /**
+     * @return the amount of horizontal pixels
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * @return the amount of vertical pixels
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Adds a sample to a pixel
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  the color of the sample
+     */
+    public void add(int xIndex, int yIndex, Color color) {
+        int p = yIndex * nX + xIndex;
+        sums[3 * p] += color.getRed();
+        sums[3 * p + 1] += color.getGreen();
+        sums[3 * p + 2] += color.getBlue();
+        ++samples[p];
+    }
+
+    /**
+     * Adds a sample to every pixel of a rectangle (e.g. a row or a tile of the image)
+     *
+     * @param xIndex X axis index of the first pixel of the rectangle
+     * @param yIndex Y axis index of the first pixel of the rectangle
+     * @param width  amount of pixels in a row of the rectangle
+     * @param height amount of rows of the rectangle
+     * @param colors the colors of the samples, row by row
+     */
+    public void add(int xIndex, int yIndex, int width, int height, Color[] colors) {
+        for (int row = 0, c = 0; row < height; ++row)
+            for (int col = 0; col < width; ++col, ++c) add(xIndex + col, yIndex + row, colors[c]);
+    }
+
+    /**
+     * Returns the amount of samples of a pixel
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the amount of samples
+     */
+    public int getSamples(int xIndex, int yIndex) {
+        return samples[yIndex * nX + xIndex];
+    }
+
+    /**
+     * Returns the average of the samples of a pixel
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the average color, black if the pixel has no samples
+     */
+    public Color getColor(int xIndex, int yIndex) {
+        int p = yIndex * nX + xIndex;
+        int count = samples[p];
+        if (count == 0) return Color.BLACK;
+        return new Color(sums[3 * p] / count, sums[3 * p + 1] / count, sums[3 * p + 2] / count);
+    }
+
+    /**
+     * Removes all the samples
+     */
+    public void clear() {
+        Arrays.fill(sums, 0);
+        Arrays.fill(samples, 0);
+    }
+
+    /**
+     * Writes the tone mapped averages of the pixels to an image of the same resolution.
+     * Pixels without samples are not written.
+     *
+     * @param imageWriter the image
+     * @param toneMapper  the tone mapping operator
+     * @throws IllegalArgumentException if the resolution of the image is different
+     */
+    public void writeTo(ImageWriter imageWriter, ToneMapper toneMapper) {
+        if (imageWriter.getNx() != nX || imageWriter.getNy() != nY)
+            throw new IllegalArgumentException("Image resolution is different from the buffer resolution");
+        for (int y = 0, p = 0; y < nY; ++y) {
+            for (int x = 0; x < nX; ++x, ++p) {
+                int count = samples[p];
+                if (count == 0) continue;
+                imageWriter.writeRGB(x, y,
+                        toneMapper.toRGB(sums[3 * p] / count, sums[3 * p + 1] / count, sums[3 * p + 2] / count));
+            }
+        }
+    }
+}
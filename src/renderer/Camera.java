@@ -4,12 +4,16 @@ import primitives.Color;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import primitives.VectorMath;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import java.util.ArrayList;
@@ -34,6 +38,7 @@ public class Camera implements Cloneable {
     private Vector vTo; // Forward direction
     private Vector vRight; // Right direction
     private Point centerPoint;
+    private volatile ViewPlane viewPlane = null; // Pixel offsets of the last resolution rays were constructed for
     private double height = 0;
     private double width = 0;
     private double distance = 0;
@@ -51,6 +56,28 @@ public class Camera implements Cloneable {
     private int threadsCount = 0; // -2 auto, -1 range/stream, 0 no threads, 1+ number of threads
     private boolean antiAliasing = false; // Disable anti-aliasing by default
     private boolean adaptiveSupersampling = true; // Default value
+    private int tileSize = 16; // Width and height in pixels of the tiles rendered by the threads
+    private RenderStatistics statistics = null; // Statistics of the rendering, null if not collected
+    private ToneMapper toneMapper = null; // Tone mapping of the accumulation buffer, null for writing pixels directly
+    private AccumulationBuffer accumulation = null; // HDR samples of the pixels, null for writing pixels directly
+    private int progressiveSamples = 16; // Samples of every pixel in progressive rendering
+    private double timeBudget = 0; // Wall time limit of progressive rendering in seconds, 0 for no limit
+    private double previewInterval = 0; // Seconds between the previews of progressive rendering, 0 for none
+    /**
+     * Lattice units along a side of a pixel in adaptive supersampling: a pixel is split into quarters twice,
+     * and the smallest squares (2 lattice units wide) are sampled at their centers
+     */
+    private static final int ADAPTIVE_GRID = 8;
+    /**
+     * Width and height in pixels of the blocks of the first pass of progressive rendering, which traces
+     * a single pixel of every block
+     */
+    private static final int PROGRESSIVE_BLOCK = 8;
+    /**
+     * Amount of consecutive pixels a thread claims at once from the pixel manager when rendering with all
+     * the available threads
+     */
+    private static final int PIXEL_RUN = 64;
 
 
 
@@ -128,6 +155,24 @@ public class Camera implements Cloneable {
         return width;
     }
 
+    /**
+     * Getter for the accumulation buffer the samples of the pixels are added to.
+     *
+     * @return the accumulation buffer, null if the pixels are written directly to the image
+     */
+    public AccumulationBuffer getAccumulationBuffer() {
+        return accumulation;
+    }
+
+    /**
+     * Getter for the statistics of the rendering.
+     *
+     * @return the statistics, null if they are not collected
+     */
+    public RenderStatistics getStatistics() {
+        return statistics;
+    }
+
     @Override
     public Camera clone() {
         try {
@@ -150,33 +195,87 @@ public class Camera implements Cloneable {
      * @return a Ray object that starts at the camera position and goes through the specified pixel
      */
     public Ray constructRay(int nx, int ny, int j, int i) {
-        // Calculate the center point of the view plane
-        centerPoint = p0.add(vTo.scale(distance));
-
-        // Calculate the height and width of a single pixel
-        double Ry = alignZero(height / ny);
-        double Rx = alignZero(width / nx);
-
-        // Calculate the x and y coordinates of the pixel relative to the center of the view plane
-        double xj = alignZero((j - (nx - 1) / 2.0) * Rx);
-        double yi = alignZero(-(i - (ny - 1) / 2.0) * Ry);
-
-        // Initialize the point pij to the center point of the view plane
-        Point pij = centerPoint;
+        ViewPlane plane = viewPlane(nx, ny);
+        // The pixel point is the offset of its column (which includes the center of the view plane) plus
+        // the offset of its row, and the direction is calculated on the coordinates without creating it
+        double x = plane.columns[3 * j] + plane.rows[3 * i] - p0.getX();
+        double y = plane.columns[3 * j + 1] + plane.rows[3 * i + 1] - p0.getY();
+        double z = plane.columns[3 * j + 2] + plane.rows[3 * i + 2] - p0.getZ();
+        double len = VectorMath.length(x, y, z);
+        return new Ray(p0, new Vector(x / len, y / len, z / len));
+    }
 
-        // Adjust pij by the horizontal offset
-        if (!isZero(xj))
-            pij = pij.add(vRight.scale(xj));
+    /**
+     * Calculates the directions of the rays through a rectangle of pixels in the view plane, row by row, into
+     * an array - 3 coordinates per ray. The directions are the same as the directions of the rays of
+     * {@link #constructRay(int, int, int, int)}.
+     *
+     * @param nx         the number of horizontal pixels in the view plane
+     * @param ny         the number of vertical pixels in the view plane
+     * @param j0         the horizontal index of the first pixel of the rectangle
+     * @param i0         the vertical index of the first pixel of the rectangle
+     * @param width      the number of pixels in a row of the rectangle
+     * @param height     the number of rows of the rectangle
+     * @param directions the array the directions are stored to, at least 3 * width * height long
+     */
+    public void constructRayDirections(int nx, int ny, int j0, int i0, int width, int height, double[] directions) {
+        ViewPlane plane = viewPlane(nx, ny);
+        double[] columns = plane.columns, rows = plane.rows;
+        double px = p0.getX(), py = p0.getY(), pz = p0.getZ();
+        int d = 0;
+        for (int i = i0; i < i0 + height; ++i) {
+            double rx = rows[3 * i], ry = rows[3 * i + 1], rz = rows[3 * i + 2];
+            for (int j = j0; j < j0 + width; ++j, d += 3) {
+                directions[d] = columns[3 * j] + rx - px;
+                directions[d + 1] = columns[3 * j + 1] + ry - py;
+                directions[d + 2] = columns[3 * j + 2] + rz - pz;
+                VectorMath.normalize(directions, d);
+            }
+        }
+    }
 
-        // Adjust pij by the vertical offset
-        if (!isZero(yi))
-            pij = pij.add(vUp.scale(yi));
+    /**
+     * The pixel offsets of a resolution of the view plane. Immutable, so the threads can share it.
+     *
+     * @param nx      the number of horizontal pixels in the view plane
+     * @param ny      the number of vertical pixels in the view plane
+     * @param columns the center of the view plane moved to the center of every column, 3 coordinates per column
+     * @param rows    the offset of the center of every row, 3 coordinates per row
+     */
+    private record ViewPlane(int nx, int ny, double[] columns, double[] rows) {
+    }
 
-        // Create the direction vector from the camera position to the pixel point and normalize it
-        Vector vij = pij.subtract(p0).normalize();
+    /**
+     * Returns the pixel offsets of a resolution of the view plane, calculating them if the last rays were
+     * constructed for another resolution
+     *
+     * @param nx the number of horizontal pixels in the view plane
+     * @param ny the number of vertical pixels in the view plane
+     * @return the pixel offsets
+     */
+    private ViewPlane viewPlane(int nx, int ny) {
+        ViewPlane plane = viewPlane;
+        if (plane != null && plane.nx == nx && plane.ny == ny) return plane;
 
-        // Return a new Ray from the camera position in the direction of the pixel point
-        return new Ray(p0, vij);
+        // Calculate the height and width of a single pixel
+        double Ry = alignZero(height / ny);
+        double Rx = alignZero(width / nx);
+        double[] columns = new double[3 * nx];
+        for (int j = 0; j < nx; ++j) {
+            double xj = alignZero((j - (nx - 1) / 2.0) * Rx);
+            columns[3 * j] = centerPoint.getX() + vRight.getX() * xj;
+            columns[3 * j + 1] = centerPoint.getY() + vRight.getY() * xj;
+            columns[3 * j + 2] = centerPoint.getZ() + vRight.getZ() * xj;
+        }
+        double[] rows = new double[3 * ny];
+        for (int i = 0; i < ny; ++i) {
+            double yi = alignZero(-(i - (ny - 1) / 2.0) * Ry);
+            rows[3 * i] = vUp.getX() * yi;
+            rows[3 * i + 1] = vUp.getY() * yi;
+            rows[3 * i + 2] = vUp.getZ() * yi;
+        }
+        // Threads which calculate the offsets at the same time store equal objects, so the race is harmless
+        return viewPlane = new ViewPlane(nx, ny, columns, rows);
     }
 
     /**
@@ -192,25 +291,15 @@ public class Camera implements Cloneable {
     public List<Ray> constructRays(int nx, int ny, int j, int i) {
         List<Ray> rays = new ArrayList<>();
 
-        // Calculate the center point of the view plane
-        Point centerPoint = p0.add(vTo.scale(distance));
-
         // Calculate the height and width of a single pixel
         double Ry = alignZero(height / ny);
         double Rx = alignZero(width / nx);
 
-        // Calculate the x and y coordinates of the pixel relative to the center of the view plane
-        double xj = alignZero((j - (nx - 1) / 2.0) * Rx);
-        double yi = alignZero(-(i - (ny - 1) / 2.0) * Ry);
-
-        // Initialize the point pij to the center point of the view plane
-        Point pij = centerPoint;
-
-        // Adjust pij by the horizontal offset
-        if (!isZero(xj)) pij = pij.add(vRight.scale(xj));
-
-        // Adjust pij by the vertical offset
-        if (!isZero(yi)) pij = pij.add(vUp.scale(yi));
+        // The center of the pixel is the offset of its column plus the offset of its row
+        ViewPlane plane = viewPlane(nx, ny);
+        Point pij = new Point(plane.columns[3 * j] + plane.rows[3 * i],
+                plane.columns[3 * j + 1] + plane.rows[3 * i + 1],
+                plane.columns[3 * j + 2] + plane.rows[3 * i + 2]);
 
         // Calculate the sub-pixel dimensions
         double subPixelRx = Rx / numRaysX;
@@ -244,6 +333,7 @@ public class Camera implements Cloneable {
      */
     public Camera renderImage() {
         //throw new UnsupportedOperationException();
+        long start = System.nanoTime();
         int nx = imageWriter.getNx();
         int ny = imageWriter.getNy();
         for (int i = 0; i < ny; i++) {
@@ -252,7 +342,8 @@ public class Camera implements Cloneable {
 
             }
         }
-        imageWriter.writeToImage();
+        finishRendering(start);
+        writeToImage();
         return this;
     }
 
@@ -272,6 +363,7 @@ public class Camera implements Cloneable {
 
 
     public Camera renderImageWithSupersampling() {
+        long start = System.nanoTime();
         int nx = imageWriter.getNx();
         int ny = imageWriter.getNy();
 
@@ -281,7 +373,8 @@ public class Camera implements Cloneable {
             }
         }
 
-        imageWriter.writeToImage();
+        finishRendering(start);
+        writeToImage();
         return this;
     }
 
@@ -291,7 +384,20 @@ public class Camera implements Cloneable {
      * This method delegates the writing process to the ImageWriter instance.
      */
     public void writeToImage() {
+        long start = System.nanoTime();
         this.imageWriter.writeToImage();
+        if (statistics != null) statistics.addPhase("write", System.nanoTime() - start);
+    }
+
+    /**
+     * Tone maps the accumulation buffer into the image if the camera has one, and adds the time of a
+     * rendering to its statistics if they are collected
+     *
+     * @param start the start time of the rendering in nanoseconds
+     */
+    private void finishRendering(long start) {
+        if (accumulation != null) accumulation.writeTo(imageWriter, toneMapper);
+        if (statistics != null) statistics.addPhase("render", System.nanoTime() - start);
     }
 
     /**
@@ -307,20 +413,28 @@ public class Camera implements Cloneable {
     private void castRay(int Nx, int Ny, int column, int row) {
         Ray ray = constructRay(Nx, Ny, column, row);
         Color color = rayTracer.traceRay(ray); // Calculate the color of the body the ray intersects
-        imageWriter.writePixel(column, row, color);
+        writePixel(column, row, color);
     }
 
     /**
-     * Casts a ray from the camera through a specific pixel in the image grid and updates the PixelManager.
+     * Renders runs of {@value #PIXEL_RUN} consecutive pixels (row by row) claimed from the pixel manager,
+     * until all the pixels of the image are claimed, and updates the progress after every run.
      *
-     * @param nX  the number of columns in the image grid.
-     * @param nY  the number of rows in the image grid.
-     * @param col the column index of the pixel.
-     * @param row the row index of the pixel.
+     * @param nX the number of columns in the image grid.
+     * @param nY the number of rows in the image grid.
      */
-    private void castRayPixel(int nX, int nY, int col, int row) {
-        imageWriter.writePixel(col, row, rayTracer.traceRay(constructRay(nX, nY, col, row)));
-        pixelManager.pixelDone();
+    private void castClaimedPixels(int nX, int nY) {
+        long total = (long) nX * nY;
+        for (long first = pixelManager.nextPixels(PIXEL_RUN); first >= 0; first = pixelManager.nextPixels(PIXEL_RUN)) {
+            long end = Math.min(first + PIXEL_RUN, total);
+            for (long index = first; index < end; ++index) {
+                int row = (int) (index / nX);
+                int col = (int) (index % nX);
+                if (antiAliasing) castRays(nX, nY, col, row); // Anti-aliasing
+                else writePixel(col, row, rayTracer.traceRay(constructRay(nX, nY, col, row))); // Regular rendering
+            }
+            pixelManager.pixelsDone((int) (end - first));
+        }
     }
 
     /**
@@ -339,6 +453,11 @@ public class Camera implements Cloneable {
         if (rays == null || rays.isEmpty()) {
             throw new IllegalArgumentException("Rays list cannot be null or empty");
         }
+        // With an accumulation buffer every sample is added to the pixel in place
+        if (accumulation != null) {
+            for (Ray ray : rays) accumulation.add(column, row, rayTracer.traceRay(ray));
+            return;
+        }
         // Get the average color for the pixel by tracing the rays
         Color color = rayTracer.traceRays(rays);
 
@@ -346,6 +465,19 @@ public class Camera implements Cloneable {
         imageWriter.writePixel(column, row, color);
     }
 
+    /**
+     * Writes the color of a pixel to the image, or adds it as a sample to the accumulation buffer if the
+     * camera has one
+     *
+     * @param column the column index of the pixel
+     * @param row    the row index of the pixel
+     * @param color  the color of the pixel
+     */
+    private void writePixel(int column, int row, Color color) {
+        if (accumulation != null) accumulation.add(column, row, color);
+        else imageWriter.writePixel(column, row, color);
+    }
+
 
     /**
      * Prints a grid on the image with the specified color and interval.
@@ -369,75 +501,480 @@ public class Camera implements Cloneable {
 
 
 
-    private void castRaysWithAdaptiveSupersampling(int nX, int nY, int j, int i) {
-        // יצירת קרן לפי המיקום הנוכחי של הפיקסל
-        Ray ray = constructRay(nX, nY, j, i);
-        Vector direction = ray.getDirection();
+    /**
+     * Renders a rectangle of pixels with adaptive supersampling. A square (first the whole pixel) is sampled
+     * at its corners, and if their colors differ it is split into quarters which are sampled the same way,
+     * down to the smallest squares which are sampled at their centers.
+     * The samples lie on a lattice of {@link #ADAPTIVE_GRID} points per pixel side, and the colors of the
+     * lattice points are cached for the whole rectangle, so the corners which neighbouring pixels and
+     * neighbouring squares share are traced once.
+     *
+     * @param nX     the number of columns in the image grid
+     * @param nY     the number of rows in the image grid
+     * @param j0     the column of the first pixel of the rectangle
+     * @param i0     the row of the first pixel of the rectangle
+     * @param width  the number of pixels in a row of the rectangle
+     * @param height the number of rows of the rectangle
+     */
+    private void castRaysWithAdaptiveSupersampling(int nX, int nY, int j0, int i0, int width, int height) {
+        CornerCache corners = new CornerCache(nX, nY, j0, i0, width, height);
+        for (int i = i0; i < i0 + height; ++i) {
+            for (int j = j0; j < j0 + width; ++j)
+                writePixel(j, i, corners.sample(j * ADAPTIVE_GRID, i * ADAPTIVE_GRID, ADAPTIVE_GRID));
+            pixelManager.pixelsDone(width);
+        }
+    }
 
-        // טיפול במקרה של וקטור אפס
-        if (direction.equals(Vector.ZERO)) {
-            System.err.println("Error: Zero vector encountered. Skipping this ray.");
-            return;
+    /**
+     * The colors of the lattice points of a rectangle of pixels in adaptive supersampling, traced on demand.
+     * A lattice point is identified by its integer indexes - the column and the row of the lattice in the
+     * whole image, {@link #ADAPTIVE_GRID} per pixel - so shared corners are found without comparing points.
+     */
+    private class CornerCache {
+        /**
+         * The resolution of the image
+         */
+        private final int nX, nY;
+        /**
+         * The lattice indexes of the first point of the rectangle
+         */
+        private final int u0, v0;
+        /**
+         * The amount of lattice points in a row of the rectangle
+         */
+        private final int stride;
+        /**
+         * The colors of the lattice points row by row, null if not traced yet
+         */
+        private final Color[] colors;
+        /**
+         * The counters of the samples of the current thread, null if they aren't counted
+         */
+        private final RenderStatistics.Counters counters;
+
+        /**
+         * Constructs an empty cache of a rectangle of pixels
+         *
+         * @param nX     the number of columns in the image grid
+         * @param nY     the number of rows in the image grid
+         * @param j0     the column of the first pixel of the rectangle
+         * @param i0     the row of the first pixel of the rectangle
+         * @param width  the number of pixels in a row of the rectangle
+         * @param height the number of rows of the rectangle
+         */
+        CornerCache(int nX, int nY, int j0, int i0, int width, int height) {
+            this.nX = nX;
+            this.nY = nY;
+            u0 = j0 * ADAPTIVE_GRID;
+            v0 = i0 * ADAPTIVE_GRID;
+            stride = width * ADAPTIVE_GRID + 1;
+            colors = new Color[stride * (height * ADAPTIVE_GRID + 1)];
+            counters = statistics == null ? null : statistics.counters();
         }
 
-        double pixelWidth = width / nX;
-        double pixelHeight = height / nY;
-        Point centerP = p0.add(direction.scale(pixelWidth / 2))
-                .add(vRight.scale((j - nX / 2.0) * pixelWidth))
-                .add(vUp.scale((i - nY / 2.0) * pixelHeight));
+        /**
+         * Samples a square of the lattice adaptively
+         *
+         * @param u    the lattice column of the top left corner of the square
+         * @param v    the lattice row of the top left corner of the square
+         * @param size the side of the square in lattice units
+         * @return the average color of the square
+         */
+        Color sample(int u, int v, int size) {
+            int half = size / 2;
+            if (half == 1) return color(u + 1, v + 1);
+
+            Color topLeft = color(u, v);
+            Color topRight = color(u + size, v);
+            Color bottomLeft = color(u, v + size);
+            Color bottomRight = color(u + size, v + size);
+            if (topLeft.isAlmostEquals(topRight) && topLeft.isAlmostEquals(bottomLeft)
+                    && topLeft.isAlmostEquals(bottomRight))
+                return topLeft.add(topRight, bottomLeft, bottomRight).reduce(4);
+
+            if (counters != null) ++counters.subdivisions;
+            return sample(u, v, half).add(sample(u + half, v, half), sample(u, v + half, half),
+                    sample(u + half, v + half, half)).reduce(4);
+        }
 
-        // חישוב החלקת עקומות (אם נדרש)
-        double minWidth = pixelWidth / 4;
-        double minHeight = pixelHeight / 4;
+        /**
+         * Returns the color of a lattice point, tracing it the first time
+         *
+         * @param u the lattice column of the point
+         * @param v the lattice row of the point
+         * @return the color the ray through the point produces
+         */
+        private Color color(int u, int v) {
+            int index = (v - v0) * stride + u - u0;
+            Color color = colors[index];
+            if (color == null) {
+                colors[index] = color = rayTracer.traceRay(constructLatticeRay(u, v));
+                if (counters != null) ++counters.samples;
+            }
+            return color;
+        }
 
-        // קריאה לפונקציה עם פרמטרים נכונים
-        Color color = rayTracer.AdaptiveSuperSamplingRec(centerP, pixelWidth, pixelHeight, minWidth, minHeight, p0, vRight, vUp, new ArrayList<>());
+        /**
+         * Constructs the ray through a lattice point of the view plane
+         *
+         * @param u the lattice column of the point
+         * @param v the lattice row of the point
+         * @return the ray
+         */
+        private Ray constructLatticeRay(int u, int v) {
+            double xj = ((double) u / ADAPTIVE_GRID - nX / 2.0) * (width / nX);
+            double yi = -((double) v / ADAPTIVE_GRID - nY / 2.0) * (height / nY);
+            return new Ray(p0, new Vector(
+                    centerPoint.getX() + vRight.getX() * xj + vUp.getX() * yi - p0.getX(),
+                    centerPoint.getY() + vRight.getY() * xj + vUp.getY() * yi - p0.getY(),
+                    centerPoint.getZ() + vRight.getZ() * xj + vUp.getZ() * yi - p0.getZ()));
+        }
+    }
 
-        // כתיבה לפיקסל
-        imageWriter.writePixel(j, i, color);
+    /**
+     * Renders a single pixel according to the sampling method of the camera, unless it is adaptive
+     * supersampling which renders whole rectangles of pixels.
+     *
+     * @param nX  the number of columns in the image grid.
+     * @param nY  the number of rows in the image grid.
+     * @param col the column index of the pixel.
+     * @param row the row index of the pixel.
+     */
+    private void renderPixel(int nX, int nY, int col, int row) {
+        if (antiAliasing) {
+            castRays(nX, nY, col, row); // Anti-aliasing
+        } else {
+            castRay(nX, nY, col, row); // Regular rendering
+        }
+    }
+
+    /**
+     * Renders a tile of the image - the pixels of the columns [col0, colEnd) in the rows [row0, rowEnd)
+     */
+    @FunctionalInterface
+    private interface TileRenderer {
+        /**
+         * Renders a tile of the image
+         *
+         * @param col0   the first column of the tile
+         * @param row0   the first row of the tile
+         * @param colEnd the column after the last column of the tile
+         * @param rowEnd the row after the last row of the tile
+         */
+        void render(int col0, int row0, int colEnd, int rowEnd);
+    }
+
+    /**
+     * Renders a pixel of the image
+     */
+    @FunctionalInterface
+    private interface PixelRenderer {
+        /**
+         * Renders a pixel of the image
+         *
+         * @param j the column of the pixel
+         * @param i the row of the pixel
+         */
+        void render(int j, int i);
+    }
+
+    /**
+     * A range of tiles of the image rendered as a fork/join task. A range of several tiles is split
+     * in two halves, so idle threads steal the halves that the busy ones haven't started yet and
+     * the threads stay busy even when some parts of the scene are much slower to render than others.
+     * A single tile is rendered by the tile renderer of the task.
+     */
+    private class TileTask extends RecursiveAction {
+        /**
+         * Serialization version - tasks aren't serialized, but RecursiveAction is Serializable
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The resolution of the image
+         */
+        private final int nX, nY;
+        /**
+         * The amount of tiles in a row of tiles
+         */
+        private final int tilesX;
+        /**
+         * The range of the tiles (numbered row by row) - from inclusive, to exclusive
+         */
+        private final int from, to;
+        /**
+         * Renders every single tile of the range
+         */
+        private final TileRenderer renderer;
+
+        /**
+         * Constructs a task for rendering a range of tiles
+         *
+         * @param nX       the number of columns in the image grid
+         * @param nY       the number of rows in the image grid
+         * @param tilesX   the amount of tiles in a row of tiles
+         * @param from     the first tile of the range (inclusive)
+         * @param to       the last tile of the range (exclusive)
+         * @param renderer renders a single tile
+         */
+        TileTask(int nX, int nY, int tilesX, int from, int to, TileRenderer renderer) {
+            this.nX = nX;
+            this.nY = nY;
+            this.tilesX = tilesX;
+            this.from = from;
+            this.to = to;
+            this.renderer = renderer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TileTask(nX, nY, tilesX, from, middle, renderer),
+                        new TileTask(nX, nY, tilesX, middle, to, renderer));
+                return;
+            }
+            int row0 = from / tilesX * tileSize, col0 = from % tilesX * tileSize;
+            renderer.render(col0, row0, Math.min(col0 + tileSize, nX), Math.min(row0 + tileSize, nY));
+        }
+    }
+
+    /**
+     * Renders all the tiles of the image by a fork/join pool
+     *
+     * @param nX       the number of columns in the image grid
+     * @param nY       the number of rows in the image grid
+     * @param pool     the pool of the threads which render the tiles
+     * @param renderer renders a single tile
+     */
+    private void renderTiles(int nX, int nY, ForkJoinPool pool, TileRenderer renderer) {
+        int tilesX = (nX + tileSize - 1) / tileSize;
+        int tilesY = (nY + tileSize - 1) / tileSize;
+        pool.invoke(new TileTask(nX, nY, tilesX, 0, tilesX * tilesY, renderer));
+    }
+
+    /**
+     * Renders a tile of the image. A tile is rendered row by row, so a thread works on neighbouring pixels.
+     * With regular rendering, the primary rays of the tile are traced as a batch
+     * ({@link RayTracerBase#traceBatch}).
+     *
+     * @param nX     the number of columns in the image grid
+     * @param nY     the number of rows in the image grid
+     * @param col0   the first column of the tile
+     * @param row0   the first row of the tile
+     * @param colEnd the column after the last column of the tile
+     * @param rowEnd the row after the last row of the tile
+     */
+    private void renderTile(int nX, int nY, int col0, int row0, int colEnd, int rowEnd) {
+        if (adaptiveSupersampling) {
+            castRaysWithAdaptiveSupersampling(nX, nY, col0, row0, colEnd - col0, rowEnd - row0);
+            return;
+        }
+        if (!antiAliasing) {
+            // Regular rendering traces the primary rays of the whole tile as a single batch
+            int width = colEnd - col0, count = width * (rowEnd - row0);
+            double[] directions = new double[3 * count];
+            constructRayDirections(nX, nY, col0, row0, width, rowEnd - row0, directions);
+            Ray[] rays = new Ray[count];
+            for (int p = 0; p < count; ++p)
+                rays[p] = new Ray(p0, new Vector(directions[3 * p], directions[3 * p + 1], directions[3 * p + 2]));
+            Color[] colors = new Color[count];
+            rayTracer.traceBatch(rays, count, colors);
+            if (accumulation != null) accumulation.add(col0, row0, width, rowEnd - row0, colors);
+            else imageWriter.writePixels(col0, row0, width, rowEnd - row0, colors);
+            pixelManager.pixelsDone(count);
+            return;
+        }
+        for (int i = row0; i < rowEnd; ++i) {
+            for (int j = col0; j < colEnd; ++j)
+                renderPixel(nX, nY, j, i);
+            pixelManager.pixelsDone(colEnd - col0);
+        }
     }
 
     /**
      * Renders the image using multithreading. If the number of threads is set to 0,
      * the rendering is done in a single thread. If the number of threads is set to -1,
-     * the rendering is done using the maximum available threads.
+     * the rendering is done using the maximum available threads. If the number of threads is
+     * positive, the image is split into square tiles which are rendered by a fork/join pool with
+     * the given amount of threads.
      *
      * @return the Camera object, allowing method chaining.
      */
     public Camera renderImageMultyThreading() {
         final int nX = imageWriter.getNx();
         final int nY = imageWriter.getNy();
+        long start = System.nanoTime();
         pixelManager = new PixelManager(nY, nX, printInterval);
 
         if (threadsCount == 0) {
             for (int i = 0; i < nY; ++i) {
+                if (adaptiveSupersampling) {
+                    castRaysWithAdaptiveSupersampling(nX, nY, 0, i, nX, 1); // Adaptive Supersampling, row by row
+                    continue;
+                }
                 for (int j = 0; j < nX; ++j) {
-                    if (adaptiveSupersampling) {
-                        castRaysWithAdaptiveSupersampling(nX, nY, j, i); // Adaptive Supersampling
-                    } else if (antiAliasing) {
+                    if (antiAliasing) {
                         castRays(nX, nY, j, i); // Anti-aliasing
                     } else {
                         castRay(nX, nY, j, i); // Regular rendering
                     }
                 }
             }
+        } else if (threadsCount == -1 && adaptiveSupersampling) {
+            // Adaptive Supersampling shares the corners of the pixels of a row
+            IntStream.range(0, nY).parallel().forEach(i -> castRaysWithAdaptiveSupersampling(nX, nY, 0, i, nX, 1));
         } else if (threadsCount == -1) {
-            IntStream.range(0, nY).parallel()
-                    .forEach(i -> IntStream.range(0, nX).parallel()
-                            .forEach(j -> {
-                                if (adaptiveSupersampling) {
-                                    castRaysWithAdaptiveSupersampling(nX, nY, j, i); // Adaptive Supersampling
-                                } else if (antiAliasing) {
-                                    castRays(nX, nY, j, i); // Anti-aliasing
-                                } else {
-                                    castRayPixel(nX, nY, j, i); // Regular rendering
-                                }
-                            }));
+            // Every thread claims runs of consecutive pixels from the pixel manager until all are claimed
+            IntStream.range(0, Runtime.getRuntime().availableProcessors()).parallel()
+                    .forEach(thread -> castClaimedPixels(nX, nY));
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(threadsCount);
+            try {
+                renderTiles(nX, nY, pool,
+                        (col0, row0, colEnd, rowEnd) -> renderTile(nX, nY, col0, row0, colEnd, rowEnd));
+            } finally {
+                pool.shutdown();
+            }
         }
 
+        finishRendering(start);
         return this;
 }
 
+    /**
+     * Renders the image progressively, so a useful image is available at any moment of a long rendering.
+     * The first passes are of low resolution: the center ray of a single pixel of every block of
+     * {@value #PROGRESSIVE_BLOCK}x{@value #PROGRESSIVE_BLOCK} pixels is traced, and then of every block of
+     * half the size, until every pixel has a sample. The image is then refined by passes of a jittered
+     * sample of every pixel, until every pixel has the samples set by
+     * {@link Builder#setProgressive(int, double)} or the time budget is over.
+     * <p>
+     * The samples are accumulated in the accumulation buffer of the camera (or in a buffer of the rendering,
+     * tone mapped by clamping, if the camera has no tone mapping), and pixels without samples yet show the
+     * traced pixel of their block. A preview is written to the image file after a pass when the interval of
+     * {@link Builder#setPreviewInterval(double)} has passed since the last preview. The image holds the
+     * result of all the passes at the end, and should be written by {@link #writeToImage()}.
+     * <p>
+     * The time budget is checked before every row of a tile of a pass, except in the first pass, which is
+     * always done completely. The passes are rendered tile by tile by a fork/join pool like in
+     * {@link #renderImageMultyThreading()} - a pool of the threads set by {@link Builder#setMultithreading(int)},
+     * or the common pool for the maximum available threads - and row by row when the camera renders without
+     * threads.
+     *
+     * @return the Camera object, allowing method chaining.
+     */
+    public Camera renderImageProgressive() {
+        final int nX = imageWriter.getNx();
+        final int nY = imageWriter.getNy();
+        long start = System.nanoTime();
+        long deadline = timeBudget == 0 ? Long.MAX_VALUE : start + (long) (timeBudget * 1e9);
+        AccumulationBuffer buffer = accumulation != null ? accumulation : new AccumulationBuffer(nX, nY);
+        ToneMapper mapper = toneMapper != null ? toneMapper : ToneMapper.CLAMP;
+        long lastPreview = start;
+        ForkJoinPool pool = threadsCount == 0 ? null
+                : threadsCount == -1 ? ForkJoinPool.commonPool() : new ForkJoinPool(threadsCount);
+        try {
+            // Low resolution passes - the pixels of the previous passes are not traced again
+            for (int step = PROGRESSIVE_BLOCK; step >= 1; step /= 2) {
+                final int size = step;
+                final boolean first = step == PROGRESSIVE_BLOCK;
+                renderPass(nX, nY, pool, first ? Long.MAX_VALUE : deadline, (j, i) -> {
+                    if (i % size == 0 && j % size == 0 && (first || j % (2 * size) != 0 || i % (2 * size) != 0))
+                        buffer.add(j, i, rayTracer.traceRay(constructRay(nX, nY, j, i)));
+                });
+                lastPreview = preview(buffer, mapper, lastPreview);
+            }
+            // Refinement passes
+            for (int pass = 1; pass < progressiveSamples && System.nanoTime() < deadline; ++pass) {
+                renderPass(nX, nY, pool, deadline,
+                        (j, i) -> buffer.add(j, i, rayTracer.traceRay(constructJitteredRay(nX, nY, j, i))));
+                lastPreview = preview(buffer, mapper, lastPreview);
+            }
+        } finally {
+            if (pool != null && pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+
+        // The image is written from the buffer here, so finishRendering doesn't tone map it again
+        writeProgress(buffer, mapper);
+        if (statistics != null) statistics.addPhase("render", System.nanoTime() - start);
+        return this;
+    }
+
+    /**
+     * Renders a pass of progressive rendering, tile by tile by a fork/join pool, or row by row without one.
+     * Rows which weren't started before the deadline are skipped.
+     *
+     * @param nX       the number of columns of the image
+     * @param nY       the number of rows of the image
+     * @param pool     the pool of the threads which render the tiles, null for rendering in the calling thread
+     * @param deadline the time in nanoseconds (of {@link System#nanoTime()}) after which no rows are started
+     * @param pixel    renders a pixel of the pass
+     */
+    private void renderPass(int nX, int nY, ForkJoinPool pool, long deadline, PixelRenderer pixel) {
+        TileRenderer tile = (col0, row0, colEnd, rowEnd) -> {
+            for (int i = row0; i < rowEnd && System.nanoTime() < deadline; ++i)
+                for (int j = col0; j < colEnd; ++j)
+                    pixel.render(j, i);
+        };
+        if (pool == null) tile.render(0, 0, nX, nY);
+        else renderTiles(nX, nY, pool, tile);
+    }
+
+    /**
+     * Writes a preview of progressive rendering to the image file, if the preview interval has passed
+     *
+     * @param buffer      the samples of the rendering
+     * @param mapper      the tone mapping of the samples
+     * @param lastPreview the time of the last preview in nanoseconds
+     * @return the time of the last preview after this one
+     */
+    private long preview(AccumulationBuffer buffer, ToneMapper mapper, long lastPreview) {
+        long now = System.nanoTime();
+        if (previewInterval == 0 || now - lastPreview < previewInterval * 1e9) return lastPreview;
+        writeProgress(buffer, mapper);
+        writeToImage();
+        return now;
+    }
+
+    /**
+     * Writes the samples of progressive rendering to the image. A pixel without samples is written with
+     * the pixel of the smallest block around it which has samples - at least the pixel of the first pass
+     * has them.
+     *
+     * @param buffer the samples of the rendering
+     * @param mapper the tone mapping of the samples
+     */
+    private void writeProgress(AccumulationBuffer buffer, ToneMapper mapper) {
+        buffer.writeTo(imageWriter, mapper);
+        for (int i = 0; i < buffer.getNy(); ++i)
+            for (int j = 0; j < buffer.getNx(); ++j) {
+                if (buffer.getSamples(j, i) != 0) continue;
+                int size = 2;
+                while (buffer.getSamples(j - j % size, i - i % size) == 0) size *= 2;
+                imageWriter.writeRGB(j, i, imageWriter.readPixel(j - j % size, i - i % size));
+            }
+    }
+
+    /**
+     * Constructs a ray through a random point of a pixel
+     *
+     * @param nx the number of horizontal pixels in the view plane
+     * @param ny the number of vertical pixels in the view plane
+     * @param j  the horizontal index of the pixel
+     * @param i  the vertical index of the pixel
+     * @return the ray
+     */
+    private Ray constructJitteredRay(int nx, int ny, int j, int i) {
+        ViewPlane plane = viewPlane(nx, ny);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double xOffset = (random.nextDouble() - 0.5) * width / nx;
+        double yOffset = (0.5 - random.nextDouble()) * height / ny;
+        double x = plane.columns[3 * j] + plane.rows[3 * i] + vRight.getX() * xOffset + vUp.getX() * yOffset;
+        double y = plane.columns[3 * j + 1] + plane.rows[3 * i + 1] + vRight.getY() * xOffset + vUp.getY() * yOffset;
+        double z = plane.columns[3 * j + 2] + plane.rows[3 * i + 2] + vRight.getZ() * xOffset + vUp.getZ() * yOffset;
+        return new Ray(p0, new Vector(x - p0.getX(), y - p0.getY(), z - p0.getZ()).normalize());
+    }
+
 
             /**
              * Builder class for constructing camera objects.
@@ -541,7 +1078,9 @@ public class Camera implements Cloneable {
          *
          * @param threads the number of threads to use.
          *                If threads is -2, the number of threads is set to the number of available processors minus the spare threads.
-         *                If threads is -1 or higher, it sets the exact number of threads.
+         *                If threads is -1, the pixels are rendered by a parallel stream.
+         *                If threads is 0, the image is rendered without threads.
+         *                If threads is positive, the image is rendered in tiles by the exact number of threads.
          *                If threads is less than -2, an {@link IllegalArgumentException} is thrown.
          * @return the current Builder instance for method chaining.
          * @throws IllegalArgumentException if threads is less than -2.
@@ -556,6 +1095,74 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Sets the size of the square tiles the image is split into when rendering with threads.
+         *
+         * @param tileSize the width and height of a tile in pixels.
+         * @return the current Builder instance for method chaining.
+         * @throws IllegalArgumentException if tileSize is not positive.
+         */
+        public Builder setTileSize(int tileSize) {
+            if (tileSize <= 0) throw new IllegalArgumentException("Tile size must be positive");
+            camera.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * Sets the statistics the rendering is measured in. They are passed to the ray tracer too, when the
+         * camera is built.
+         *
+         * @param statistics the statistics, null for not collecting statistics.
+         * @return the current Builder instance for method chaining.
+         */
+        public Builder setStatistics(RenderStatistics statistics) {
+            camera.statistics = statistics;
+            return this;
+        }
+
+        /**
+         * Sets the tone mapping of the camera. With tone mapping, the samples of the pixels are added into
+         * a high dynamic range accumulation buffer, which is tone mapped into the image at the end of every
+         * rendering. Without it, the pixels are written to the image directly, clamped.
+         *
+         * @param toneMapper the tone mapping operator (e.g. {@link ToneMapper#REINHARD}), null for writing the
+         *                   pixels directly.
+         * @return the current Builder instance for method chaining.
+         */
+        public Builder setToneMapper(ToneMapper toneMapper) {
+            camera.toneMapper = toneMapper;
+            return this;
+        }
+
+        /**
+         * Sets the samples and the time budget of {@link Camera#renderImageProgressive()}.
+         *
+         * @param samples    the samples of every pixel when the rendering is done.
+         * @param timeBudget the wall time in seconds after which the rendering stops, 0 for no limit.
+         * @return the current Builder instance for method chaining.
+         * @throws IllegalArgumentException if samples is not positive or timeBudget is negative.
+         */
+        public Builder setProgressive(int samples, double timeBudget) {
+            if (samples <= 0) throw new IllegalArgumentException("Samples must be positive");
+            if (timeBudget < 0) throw new IllegalArgumentException("Time budget must not be negative");
+            camera.progressiveSamples = samples;
+            camera.timeBudget = timeBudget;
+            return this;
+        }
+
+        /**
+         * Sets the interval between the previews {@link Camera#renderImageProgressive()} writes to the image file.
+         *
+         * @param interval the interval in seconds, 0 for no previews.
+         * @return the current Builder instance for method chaining.
+         * @throws IllegalArgumentException if interval is negative.
+         */
+        public Builder setPreviewInterval(double interval) {
+            if (interval < 0) throw new IllegalArgumentException("Preview interval must not be negative");
+            camera.previewInterval = interval;
+            return this;
+        }
+
         /**
          * Sets the interval for debug print statements.
          *
@@ -632,6 +1239,10 @@ public class Camera implements Cloneable {
                 throw new MissingResourceException(miss, cs, "rayTracer");
             camera.vRight = camera.vTo.crossProduct(camera.vUp).normalize();
             camera.centerPoint = camera.p0.add(camera.vTo.scale(camera.distance));
+            camera.viewPlane = null;
+            if (camera.statistics != null) camera.rayTracer.setStatistics(camera.statistics);
+            camera.accumulation = camera.toneMapper == null ? null
+                    : new AccumulationBuffer(camera.imageWriter.getNx(), camera.imageWriter.getNy());
             // Cloning and returning the camera
             return (Camera) camera.clone();
         }
@@ -4,6 +4,7 @@ import primitives.Color;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -35,6 +36,12 @@ public class ImageWriter {
      * Image generation buffer (the matrix of the pixels)
      */
     private BufferedImage image;
+    /**
+     * The pixels of the image buffer, row by row, packed as 0xRRGGBB. They are written directly, without the
+     * color model conversion and the locking of {@link BufferedImage#setRGB}, so threads which write
+     * different pixels don't contend
+     */
+    private final int[] pixels;
     /**
      * image file name, not including the file extension '.png'
      */
@@ -59,6 +66,7 @@ public class ImageWriter {
         this.nY = nY;
 
         image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
     }
 
     // ***************** Getters/Setters ********************** //
@@ -107,7 +115,46 @@ public class ImageWriter {
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        pixels[yIndex * nX + xIndex] = color.getRGB();
+    }
+
+    /**
+     * The function writeRGB writes a packed color of a specific pixel into pixel color matrix
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param rgb    final color of the pixel, packed as 0xRRGGBB
+     */
+    public void writeRGB(int xIndex, int yIndex, int rgb) {
+        pixels[yIndex * nX + xIndex] = rgb;
+    }
+
+    /**
+     * The function writePixels writes the colors of a rectangle of pixels (e.g. a row or a tile of the
+     * image) into pixel color matrix
+     *
+     * @param xIndex X axis index of the first pixel of the rectangle
+     * @param yIndex Y axis index of the first pixel of the rectangle
+     * @param width  amount of pixels in a row of the rectangle
+     * @param height amount of rows of the rectangle
+     * @param colors final colors of the pixels, row by row
+     */
+    public void writePixels(int xIndex, int yIndex, int width, int height, Color[] colors) {
+        for (int row = 0, c = 0; row < height; ++row) {
+            int p = (yIndex + row) * nX + xIndex;
+            for (int end = p + width; p < end; ++p, ++c) pixels[p] = colors[c].getRGB();
+        }
+    }
+
+    /**
+     * The function readPixel reads the color of a specific pixel from pixel color matrix
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the color of the pixel, packed as 0xRRGGBB
+     */
+    public int readPixel(int xIndex, int yIndex) {
+        return pixels[yIndex * nX + xIndex];
     }
 
 }
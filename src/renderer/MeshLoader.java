@@ -0,0 +1,553 @@
+package renderer;
+
+import geometries.TriangleMesh;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The MeshLoader class reads triangle meshes from Wavefront OBJ and PLY files into a {@link TriangleMesh}.
+ * <p>
+ * The files are read as a stream, and the vertices and faces go directly into growing arrays of
+ * primitives - no object is created per vertex or per face, so large models load fast and take
+ * little memory. Faces with more than 3 vertices are split into triangle fans.
+ * <p>
+ * OBJ files are read for their {@code v} and {@code f} lines (texture coordinates, normals, groups
+ * and materials are ignored). PLY files may be binary (either byte order) or ASCII; the x, y and z
+ * properties of the {@code vertex} element and the vertex index list of the {@code face} element
+ * are read, and every other element and property is skipped.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class MeshLoader {
+    /**
+     * Coordinates of the vertices read so far, 3 per vertex
+     */
+    private double[] vertices = new double[3 * 1024];
+    /**
+     * Amount of coordinates in the vertices array
+     */
+    private int vertexSize = 0;
+    /**
+     * Vertex indexes of the faces read so far, 3 per face
+     */
+    private int[] faces = new int[3 * 1024];
+    /**
+     * Amount of indexes in the faces array
+     */
+    private int faceSize = 0;
+
+    /**
+     * A loader is used for a single file only
+     */
+    private MeshLoader() {
+    }
+
+    /**
+     * Loads a mesh from a file, whose format is chosen by its extension (.obj or .ply)
+     *
+     * @param file the mesh file
+     * @return the loaded mesh
+     * @throws IOException              if the file cannot be read or is malformed
+     * @throws IllegalArgumentException if the extension is not supported or the mesh is invalid
+     */
+    public static TriangleMesh load(File file) throws IOException {
+        return read(file).toMesh();
+    }
+
+    /**
+     * Reads the vertices and faces of a mesh file, whose format is chosen by its extension (.obj or .ply)
+     *
+     * @param file the mesh file
+     * @return the loader, with the vertices and faces of the file
+     * @throws IOException              if the file cannot be read or is malformed
+     * @throws IllegalArgumentException if the extension is not supported
+     */
+    static MeshLoader read(File file) throws IOException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        try (InputStream in = new FileInputStream(file)) {
+            if (name.endsWith(".obj")) return readObj(in);
+            if (name.endsWith(".ply")) return readPly(in);
+        }
+        throw new IllegalArgumentException("Unsupported mesh file format: " + file.getName());
+    }
+
+    /**
+     * Loads a mesh from a Wavefront OBJ stream
+     *
+     * @param in the stream (it is not closed)
+     * @return the loaded mesh
+     * @throws IOException              if the stream cannot be read or is malformed
+     * @throws IllegalArgumentException if the mesh is invalid (e.g. has no faces)
+     */
+    public static TriangleMesh loadObj(InputStream in) throws IOException {
+        return readObj(in).toMesh();
+    }
+
+    /**
+     * Reads the vertices and faces of a Wavefront OBJ stream
+     *
+     * @param in the stream (it is not closed)
+     * @return the loader, with the vertices and faces of the stream
+     * @throws IOException if the stream cannot be read or is malformed
+     */
+    private static MeshLoader readObj(InputStream in) throws IOException {
+        MeshLoader loader = new MeshLoader();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII), 1 << 16);
+        int[] polygon = new int[16];
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            ++lineNumber;
+            int length = line.length();
+            int start = skipSpaces(line, 0);
+            if (start + 1 >= length || line.charAt(start + 1) != ' ' && line.charAt(start + 1) != '\t') continue;
+            char kind = line.charAt(start);
+            try {
+                if (kind == 'v') {
+                    int end = start + 1;
+                    for (int i = 0; i < 3; ++i) {
+                        int begin = skipSpaces(line, end);
+                        end = tokenEnd(line, begin);
+                        if (begin == end) throw new IOException("Vertex with less than 3 coordinates");
+                        loader.addVertex(Double.parseDouble(line.substring(begin, end)));
+                    }
+                } else if (kind == 'f') {
+                    int count = 0;
+                    int end = start + 1;
+                    for (int begin = skipSpaces(line, end); begin < length; begin = skipSpaces(line, end)) {
+                        end = tokenEnd(line, begin);
+                        int index = parseIndex(line, begin, end);
+                        // OBJ indexes start at 1, negative ones are relative to the last vertex
+                        index = index > 0 ? index - 1 : loader.vertexSize / 3 + index;
+                        if (count == polygon.length) polygon = Arrays.copyOf(polygon, 2 * count);
+                        polygon[count++] = index;
+                    }
+                    loader.addPolygon(polygon, count);
+                }
+            } catch (NumberFormatException | IOException e) {
+                throw new IOException("Malformed OBJ line " + lineNumber + ": " + line, e);
+            }
+        }
+        return loader;
+    }
+
+    /**
+     * Loads a mesh from a PLY stream, binary or ASCII
+     *
+     * @param in the stream (it is not closed)
+     * @return the loaded mesh
+     * @throws IOException              if the stream cannot be read or is malformed
+     * @throws IllegalArgumentException if the mesh is invalid (e.g. has no faces)
+     */
+    public static TriangleMesh loadPly(InputStream in) throws IOException {
+        return readPly(in).toMesh();
+    }
+
+    /**
+     * Reads the vertices and faces of a PLY stream, binary or ASCII
+     *
+     * @param in the stream (it is not closed)
+     * @return the loader, with the vertices and faces of the stream
+     * @throws IOException if the stream cannot be read or is malformed
+     */
+    private static MeshLoader readPly(InputStream in) throws IOException {
+        MeshLoader loader = new MeshLoader();
+        PlyReader reader = new PlyReader(new DataInputStream(new BufferedInputStream(in, 1 << 16)));
+        List<PlyElement> elements = reader.readHeader();
+        int[] polygon = new int[16];
+        for (PlyElement element : elements) {
+            boolean isVertex = element.name.equals("vertex");
+            boolean isFace = element.name.equals("face");
+            int x = -1, y = -1, z = -1, indexes = -1;
+            for (int p = 0; p < element.properties.size(); ++p) {
+                PlyProperty property = element.properties.get(p);
+                if (isVertex && property.countType == null) {
+                    switch (property.name) {
+                        case "x" -> x = p;
+                        case "y" -> y = p;
+                        case "z" -> z = p;
+                        default -> {
+                        }
+                    }
+                } else if (isFace && property.countType != null
+                        && (property.name.equals("vertex_indices") || property.name.equals("vertex_index")))
+                    indexes = p;
+            }
+            if (isVertex && (x < 0 || y < 0 || z < 0))
+                throw new IOException("PLY vertex element without x, y and z properties");
+            if (isFace && indexes < 0)
+                throw new IOException("PLY face element without a vertex index list");
+
+            double[] coordinates = new double[3];
+            for (long i = 0; i < element.count; ++i) {
+                for (int p = 0; p < element.properties.size(); ++p) {
+                    PlyProperty property = element.properties.get(p);
+                    if (property.countType == null) {
+                        double value = reader.read(property.type);
+                        if (p == x) coordinates[0] = value;
+                        else if (p == y) coordinates[1] = value;
+                        else if (p == z) coordinates[2] = value;
+                    } else {
+                        int count = (int) reader.read(property.countType);
+                        if (count < 0) throw new IOException("Negative PLY list length");
+                        if (p != indexes) {
+                            for (int k = 0; k < count; ++k) reader.read(property.type);
+                            continue;
+                        }
+                        if (count > polygon.length) polygon = new int[count];
+                        for (int k = 0; k < count; ++k) polygon[k] = (int) reader.read(property.type);
+                        loader.addPolygon(polygon, count);
+                    }
+                }
+                if (isVertex) {
+                    loader.addVertex(coordinates[0]);
+                    loader.addVertex(coordinates[1]);
+                    loader.addVertex(coordinates[2]);
+                }
+            }
+        }
+        return loader;
+    }
+
+    /**
+     * Adds a coordinate of a vertex
+     *
+     * @param coordinate the coordinate
+     */
+    private void addVertex(double coordinate) {
+        if (vertexSize == vertices.length) vertices = Arrays.copyOf(vertices, 2 * vertexSize);
+        vertices[vertexSize++] = coordinate;
+    }
+
+    /**
+     * Adds a polygon as a fan of triangles around its first vertex
+     *
+     * @param polygon the vertex indexes of the polygon
+     * @param count   the amount of vertices of the polygon
+     * @throws IOException if the polygon has less than 3 vertices
+     */
+    private void addPolygon(int[] polygon, int count) throws IOException {
+        if (count < 3) throw new IOException("Face with less than 3 vertices");
+        for (int k = 2; k < count; ++k) {
+            if (faceSize + 3 > faces.length) faces = Arrays.copyOf(faces, 2 * faces.length);
+            faces[faceSize++] = polygon[0];
+            faces[faceSize++] = polygon[k - 1];
+            faces[faceSize++] = polygon[k];
+        }
+    }
+
+    /**
+     * Builds the mesh of the vertices and faces read
+     *
+     * @return the mesh
+     */
+    private TriangleMesh toMesh() {
+        return new TriangleMesh(getVertices(), getFaces());
+    }
+
+    /**
+     * @return the coordinates of the vertices read, 3 per vertex
+     */
+    double[] getVertices() {
+        return vertices.length == vertexSize ? vertices : Arrays.copyOf(vertices, vertexSize);
+    }
+
+    /**
+     * @return the vertex indexes of the faces read, 3 per face
+     */
+    int[] getFaces() {
+        return faces.length == faceSize ? faces : Arrays.copyOf(faces, faceSize);
+    }
+
+    /**
+     * Skips spaces and tabs in a line
+     *
+     * @param line  the line
+     * @param index the index to start at
+     * @return the index of the first other character, or the length of the line
+     */
+    private static int skipSpaces(String line, int index) {
+        while (index < line.length() && (line.charAt(index) == ' ' || line.charAt(index) == '\t')) ++index;
+        return index;
+    }
+
+    /**
+     * Finds the end of a token in a line
+     *
+     * @param line  the line
+     * @param index the index of the beginning of the token
+     * @return the index after the last character of the token
+     */
+    private static int tokenEnd(String line, int index) {
+        while (index < line.length() && line.charAt(index) != ' ' && line.charAt(index) != '\t') ++index;
+        return index;
+    }
+
+    /**
+     * Parses the vertex index of an OBJ face token (of the forms v, v/vt, v//vn or v/vt/vn)
+     *
+     * @param line  the line
+     * @param begin the index of the beginning of the token
+     * @param end   the index after the end of the token
+     * @return the vertex index, as written in the file
+     * @throws IOException if the token doesn't start with a non zero integer
+     */
+    private static int parseIndex(String line, int begin, int end) throws IOException {
+        boolean negative = begin < end && line.charAt(begin) == '-';
+        int i = negative ? begin + 1 : begin;
+        int value = 0;
+        int digits = 0;
+        for (; i < end && line.charAt(i) != '/'; ++i, ++digits) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') throw new IOException("Invalid vertex index");
+            value = value * 10 + (c - '0');
+        }
+        if (digits == 0 || value == 0) throw new IOException("Invalid vertex index");
+        return negative ? -value : value;
+    }
+
+    /**
+     * Scalar types of PLY properties
+     */
+    private enum PlyType {
+        /** Signed byte */
+        CHAR(1),
+        /** Unsigned byte */
+        UCHAR(1),
+        /** Signed 16 bit integer */
+        SHORT(2),
+        /** Unsigned 16 bit integer */
+        USHORT(2),
+        /** Signed 32 bit integer */
+        INT(4),
+        /** Unsigned 32 bit integer */
+        UINT(4),
+        /** 32 bit floating point */
+        FLOAT(4),
+        /** 64 bit floating point */
+        DOUBLE(8);
+
+        /**
+         * Size of a value in bytes
+         */
+        private final int size;
+
+        /**
+         * Constructor of a type
+         *
+         * @param size the size of a value in bytes
+         */
+        PlyType(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Finds a type by its name in a PLY header
+         *
+         * @param name the name of the type
+         * @return the type
+         * @throws IOException if the name is unknown
+         */
+        private static PlyType of(String name) throws IOException {
+            return switch (name) {
+                case "char", "int8" -> CHAR;
+                case "uchar", "uint8" -> UCHAR;
+                case "short", "int16" -> SHORT;
+                case "ushort", "uint16" -> USHORT;
+                case "int", "int32" -> INT;
+                case "uint", "uint32" -> UINT;
+                case "float", "float32" -> FLOAT;
+                case "double", "float64" -> DOUBLE;
+                default -> throw new IOException("Unknown PLY type: " + name);
+            };
+        }
+    }
+
+    /**
+     * Property of a PLY element
+     *
+     * @param name      the name of the property
+     * @param type      the type of the value (of the items, for a list)
+     * @param countType the type of the length of a list, or null if the property is not a list
+     */
+    private record PlyProperty(String name, PlyType type, PlyType countType) {
+    }
+
+    /**
+     * Element of a PLY file
+     *
+     * @param name       the name of the element
+     * @param count      the amount of instances of the element in the file
+     * @param properties the properties of every instance
+     */
+    private record PlyElement(String name, long count, List<PlyProperty> properties) {
+    }
+
+    /**
+     * Reader of the header and the values of a PLY stream
+     */
+    private static class PlyReader {
+        /**
+         * The stream
+         */
+        private final DataInputStream in;
+        /**
+         * Buffer of a single binary value, which decodes it in the byte order of the file
+         */
+        private final ByteBuffer value = ByteBuffer.allocate(8);
+        /**
+         * Whether the values are written as text
+         */
+        private boolean ascii;
+        /**
+         * Buffer of a single ASCII token or header line
+         */
+        private final StringBuilder token = new StringBuilder();
+
+        /**
+         * Constructor of a reader
+         *
+         * @param in the stream
+         */
+        private PlyReader(DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the header, and leaves the stream at the beginning of the data
+         *
+         * @return the elements of the file, in their order in the file
+         * @throws IOException if the header is malformed
+         */
+        private List<PlyElement> readHeader() throws IOException {
+            if (!"ply".equals(readLine())) throw new IOException("Not a PLY file");
+            List<PlyElement> elements = new ArrayList<>();
+            boolean hasFormat = false;
+            for (String line = readLine(); !line.equals("end_header"); line = readLine()) {
+                String[] words = line.trim().split("\\s+");
+                switch (words[0]) {
+                    case "format" -> {
+                        if (words.length < 2) throw new IOException("Malformed PLY format: " + line);
+                        switch (words[1]) {
+                            case "ascii" -> ascii = true;
+                            case "binary_little_endian" -> value.order(ByteOrder.LITTLE_ENDIAN);
+                            case "binary_big_endian" -> value.order(ByteOrder.BIG_ENDIAN);
+                            default -> throw new IOException("Unknown PLY format: " + words[1]);
+                        }
+                        hasFormat = true;
+                    }
+                    case "element" -> {
+                        if (words.length != 3) throw new IOException("Malformed PLY element: " + line);
+                        elements.add(new PlyElement(words[1], parseCount(words[2]), new ArrayList<>()));
+                    }
+                    case "property" -> {
+                        if (elements.isEmpty()) throw new IOException("PLY property out of element: " + line);
+                        PlyProperty property;
+                        if (words.length == 5 && words[1].equals("list"))
+                            property = new PlyProperty(words[4], PlyType.of(words[3]), PlyType.of(words[2]));
+                        else if (words.length == 3)
+                            property = new PlyProperty(words[2], PlyType.of(words[1]), null);
+                        else
+                            throw new IOException("Malformed PLY property: " + line);
+                        elements.get(elements.size() - 1).properties.add(property);
+                    }
+                    default -> {
+                        // comments, obj_info and blank lines
+                    }
+                }
+            }
+            if (!hasFormat) throw new IOException("PLY file without format");
+            return elements;
+        }
+
+        /**
+         * Reads a value of the data
+         *
+         * @param type the type of the value
+         * @return the value
+         * @throws IOException if the stream ended or the value is malformed
+         */
+        private double read(PlyType type) throws IOException {
+            if (ascii) {
+                try {
+                    return Double.parseDouble(readToken());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed PLY value", e);
+                }
+            }
+            in.readFully(value.array(), 0, type.size);
+            return switch (type) {
+                case CHAR -> value.get(0);
+                case UCHAR -> value.get(0) & 0xFF;
+                case SHORT -> value.getShort(0);
+                case USHORT -> value.getShort(0) & 0xFFFF;
+                case INT -> value.getInt(0);
+                case UINT -> value.getInt(0) & 0xFFFFFFFFL;
+                case FLOAT -> value.getFloat(0);
+                case DOUBLE -> value.getDouble(0);
+            };
+        }
+
+        /**
+         * Reads a line of the header
+         *
+         * @return the line, without its end
+         * @throws IOException if the stream ended
+         */
+        private String readLine() throws IOException {
+            token.setLength(0);
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) throw new EOFException("PLY header ended unexpectedly");
+                if (c != '\r') token.append((char) c);
+            }
+            return token.toString();
+        }
+
+        /**
+         * Reads a whitespace separated token of ASCII data
+         *
+         * @return the token
+         * @throws IOException if the stream ended
+         */
+        private String readToken() throws IOException {
+            int c = in.read();
+            while (c >= 0 && Character.isWhitespace(c)) c = in.read();
+            if (c < 0) throw new EOFException("PLY data ended unexpectedly");
+            token.setLength(0);
+            for (; c >= 0 && !Character.isWhitespace(c); c = in.read()) token.append((char) c);
+            return token.toString();
+        }
+
+        /**
+         * Parses the amount of instances of an element
+         *
+         * @param count the amount as written in the header
+         * @return the amount
+         * @throws IOException if it is not a non negative number
+         */
+        private static long parseCount(String count) throws IOException {
+            try {
+                long value = Long.parseLong(count);
+                if (value < 0) throw new IOException("Negative PLY element count: " + count);
+                return value;
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed PLY element count: " + count, e);
+            }
+        }
+    }
+}
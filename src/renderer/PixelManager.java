@@ -1,82 +1,64 @@
 package renderer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 /** PixelManager is a helper class. It is used for multi-threading in the renderer and
 * for follow up its progress.<br/>
-* A Camera uses one pixel manager object and several Pixel objects - one in each thread.
+* A Camera uses one pixel manager object, shared by all the threads.<br/>
+* The manager is lock-free: ranges of pixels are allocated by an atomic counter of the next pixel index
+* (row by row), and the progress is counted by a striped counter, so threads don't contend
+* on a shared lock for every pixel.
 * @author Dan Zilberstein
 */
 class PixelManager {
- /** Immutable class for object containing allocated pixel (with its row and column numbers) */
- record Pixel(int col, int row) {}
- /** Maximum rows of pixels */
- private int maxRows = 0;
- /** Maximum columns of pixels */
- private int maxCols = 0;
  /** Total amount of pixels in the generated image */
- private long totalPixels = 0l;
- /** Currently processed row of pixels */
- private volatile int cRow = 0;
- /** Currently processed column of pixels */
- private volatile int cCol = -1;
+ private final long totalPixels;
+ /** Index of the next pixel to allocate (row * columns + column) */
+ private final AtomicLong nextIndex = new AtomicLong();
  /** Amount of pixels that have been processed */
- private volatile long pixels = 0l;
+ private final LongAdder pixels = new LongAdder();
  /** Last printed progress update percentage */
- private volatile int lastPrinted = 0;
+ private final AtomicInteger lastPrinted = new AtomicInteger();
  /** Flag of debug printing of progress percentage */
- private boolean print = false;
+ private final boolean print;
  /** Progress percentage printing interval */
- private long printInterval = 100l;
+ private final long printInterval;
  /** Printing format */
  private static final String PRINT_FORMAT = "%5.1f%%\r";
- /** Mutual exclusion object for synchronizing next pixel allocation between threads */
- private Object mutexNext = new Object();
- /** Mutual exclusion object for printing progress percentage in console window by different threads */
- private Object mutexPixels = new Object();
  /** Initialize pixel manager data for multi-threading
  * @param maxRows the amount of pixel rows
  * @param maxCols the amount of pixel columns
  * @param interval print time interval in seconds, 0 if printing is not required
  */
  PixelManager(int maxRows, int maxCols, double interval) {
- this.maxRows = maxRows;
- this.maxCols = maxCols;
  totalPixels = (long) maxRows * maxCols;
  printInterval = (int) (interval * 10);
  if (print = printInterval != 0) System.out.printf(PRINT_FORMAT, 0d);
  }
 
- /** Function for thread-safe manipulating of main follow up Pixel object - this
- * function is critical section for all the threads, and the pixel manager data
- * is the shared data of this critical section.<br/>
- * The function provides next available pixel number each call.
- * @return true if next pixel is allocated, false if there are no more pixels
+ /** Thread-safe allocation of a range of consecutive pixels (row by row), without creating
+ * an object per pixel. The pixel of index i is at row i / columns and column i % columns.
+ * @param count the maximal amount of pixels to allocate
+ * @return the index of the first pixel of the range, or -1 if there are no more pixels.
+ * The range ends at index min(first + count, rows * columns)
  */
- Pixel nextPixel() {
- synchronized (mutexNext) {
- if (cRow == maxRows) return null;
- ++cCol;
- if (cCol < maxCols)
- return new Pixel(cRow, cCol);
- cCol = 0;
- ++cRow;
- if (cRow < maxRows)
- return new Pixel(cRow, cCol);
- }
- return null;
- }
- /** Finish pixel processing by updating and printing of progress percentage */
- void pixelDone() {
- boolean flag = false;
- int percentage = 0;
- synchronized (mutexPixels) {
- ++pixels;
- if (print) {
- percentage = (int) (1000l * pixels / totalPixels);
- if (percentage - lastPrinted >= printInterval) {
- lastPrinted = percentage;
- flag = true;
- }
- }
- if (flag) System.out.printf(PRINT_FORMAT, percentage / 10d);
+ long nextPixels(int count) {
+ long first = nextIndex.getAndAdd(count);
+ return first < totalPixels ? first : -1;
  }
+
+ /** Finish processing of several pixels by updating and printing of progress percentage.
+ * The progress is printed by the thread which passes the printing interval.
+ * @param count the amount of pixels that have been processed
+ */
+ void pixelsDone(int count) {
+ pixels.add(count);
+ if (!print) return;
+ int percentage = (int) (1000L * pixels.sum() / totalPixels);
+ int last = lastPrinted.get();
+ if (percentage - last >= printInterval && lastPrinted.compareAndSet(last, percentage))
+ System.out.printf(PRINT_FORMAT, percentage / 10d);
  }
-}
\ No newline at end of file
+}
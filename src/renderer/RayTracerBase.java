@@ -1,9 +1,7 @@
 package renderer;
 
 import primitives.Color;
-import primitives.Point;
 import primitives.Ray;
-import primitives.Vector;
 import scene.Scene;
 
 import java.util.List;
@@ -14,6 +12,7 @@ import java.util.List;
  */
 public abstract class RayTracerBase {
     protected Scene scene; // The scene to trace rays through
+    protected RenderStatistics statistics = null; // The statistics the rays are counted in, null if not counted
 
     /**
      * Constructs a RayTracerBase with the given scene.
@@ -24,6 +23,17 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Sets the statistics the traced rays are counted in.
+     *
+     * @param statistics the statistics, null for not counting the rays
+     * @return the ray tracer
+     */
+    public RayTracerBase setStatistics(RenderStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
     /**
      * Traces a ray through the scene and computes the color it produces.
      * This method must be implemented by subclasses to provide specific ray tracing behavior.
@@ -44,7 +54,19 @@ public abstract class RayTracerBase {
      * @throws IllegalArgumentException if the rays list is empty.
      */
     public abstract Color traceRays(List<Ray> rays);
-    public abstract Color AdaptiveSuperSamplingRec(Point centerP, double Width, double Height, double minWidth, double minHeight, Point cameraLoc, Vector Vright, Vector Vup, List<Point> prePoints);
+
+    /**
+     * Traces a batch of independent rays (e.g. the primary rays of a tile of the image) and computes
+     * the color every ray produces. Tracers which process many rays together override it, the default
+     * implementation traces the rays one by one.
+     *
+     * @param rays   the rays to trace
+     * @param count  the amount of rays in the batch (from the beginning of the array)
+     * @param colors the array the colors of the rays are stored to, by the indexes of the rays
+     */
+    public void traceBatch(Ray[] rays, int count, Color[] colors) {
+        for (int i = 0; i < count; ++i) colors[i] = traceRay(rays[i]);
+    }
 
 
 }
\ No newline at end of file
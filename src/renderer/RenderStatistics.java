@@ -0,0 +1,185 @@
+package renderer;
+
+import geometries.IntersectionCounters;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Statistics of rendering: the rays cast by their types, the intersection tests of every class of
+ * geometries, the depth of the trees of reflected and refracted rays, the subdivisions of adaptive
+ * supersampling and the wall time of the phases of the rendering.
+ * <p>
+ * Every thread counts into its own {@link Counters} object, with plain fields and without
+ * synchronization, and the counters of all the threads are summed when the statistics are read.
+ * The statistics should therefore be read after the rendering is done.
+ * The intersection tests are counted by the collections of geometries into the {@link IntersectionCounters}
+ * of the counters, which the ray tracers pass to the queries of the geometries.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class RenderStatistics {
+    /**
+     * The counters of a single thread
+     */
+    static final class Counters {
+        /** Amount of primary rays */
+        long primaryRays;
+        /** Amount of shadow rays */
+        long shadowRays;
+        /** Amount of reflected rays */
+        long reflectedRays;
+        /** Amount of refracted rays */
+        long refractedRays;
+        /** Sum of the depths of the trees of the primary rays (0 for a primary ray without secondary rays) */
+        long depths;
+        /** Amount of squares which adaptive supersampling split into quarters */
+        long subdivisions;
+        /** Amount of lattice points which adaptive supersampling traced */
+        long samples;
+        /** Amount of intersection tests of every class of geometries */
+        final IntersectionCounters intersections = new IntersectionCounters();
+    }
+
+    /**
+     * The counters of all the threads which counted anything
+     */
+    private final List<Counters> threads = new ArrayList<>();
+    /**
+     * The counters of the current thread
+     */
+    private final ThreadLocal<Counters> counters = ThreadLocal.withInitial(() -> {
+        Counters counters = new Counters();
+        synchronized (threads) {
+            threads.add(counters);
+        }
+        return counters;
+    });
+    /**
+     * The wall time of every phase in nanoseconds, in the order the phases were first timed
+     */
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * Returns the counters of the current thread
+     *
+     * @return the counters
+     */
+    Counters counters() {
+        return counters.get();
+    }
+
+    /**
+     * Adds wall time to a phase of the rendering
+     *
+     * @param phase the name of the phase
+     * @param nanos the time in nanoseconds
+     */
+    public synchronized void addPhase(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Sums a field of the counters of all the threads
+     *
+     * @param field the field
+     * @return the sum
+     */
+    private long sum(ToLongFunction<Counters> field) {
+        synchronized (threads) {
+            long sum = 0;
+            for (Counters counters : threads) sum += field.applyAsLong(counters);
+            return sum;
+        }
+    }
+
+    /**
+     * @return the amount of primary rays
+     */
+    public long getPrimaryRays() {
+        return sum(c -> c.primaryRays);
+    }
+
+    /**
+     * @return the amount of shadow rays
+     */
+    public long getShadowRays() {
+        return sum(c -> c.shadowRays);
+    }
+
+    /**
+     * @return the amount of reflected rays
+     */
+    public long getReflectedRays() {
+        return sum(c -> c.reflectedRays);
+    }
+
+    /**
+     * @return the amount of refracted rays
+     */
+    public long getRefractedRays() {
+        return sum(c -> c.refractedRays);
+    }
+
+    /**
+     * @return the average depth of the trees of reflected and refracted rays of the primary rays
+     * (0 if no primary rays were traced)
+     */
+    public double getAverageDepth() {
+        long primaryRays = getPrimaryRays();
+        return primaryRays == 0 ? 0 : (double) sum(c -> c.depths) / primaryRays;
+    }
+
+    /**
+     * @return the amount of squares which adaptive supersampling split into quarters
+     */
+    public long getSubdivisions() {
+        return sum(c -> c.subdivisions);
+    }
+
+    /**
+     * @return the amount of lattice points which adaptive supersampling traced
+     */
+    public long getSamples() {
+        return sum(c -> c.samples);
+    }
+
+    /**
+     * @return the amount of intersection tests of every class of geometries, by the simple names of the classes
+     */
+    public Map<String, Long> getIntersectionTests() {
+        Map<String, Long> tests = new TreeMap<>();
+        synchronized (threads) {
+            for (Counters counters : threads) counters.intersections.addTo(tests);
+        }
+        return tests;
+    }
+
+    /**
+     * @return the wall time of every phase of the rendering in nanoseconds, by the names of the phases
+     */
+    public synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder()
+                .append("rays: primary=").append(getPrimaryRays())
+                .append(" shadow=").append(getShadowRays())
+                .append(" reflected=").append(getReflectedRays())
+                .append(" refracted=").append(getRefractedRays())
+                .append(String.format("\naverage depth: %.3f", getAverageDepth()))
+                .append("\nadaptive supersampling: subdivisions=").append(getSubdivisions())
+                .append(" samples=").append(getSamples())
+                .append("\nintersection tests:");
+        getIntersectionTests().forEach((type, count) -> text.append(' ').append(type).append('=').append(count));
+        text.append("\nphases:");
+        getPhases().forEach((phase, nanos) -> text.append(String.format(" %s=%.3fs", phase, nanos / 1e9)));
+        return text.toString();
+    }
+}
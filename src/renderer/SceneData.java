@@ -0,0 +1,496 @@
+package renderer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Compact description of a scene, in which all the geometries and lights of a kind are kept together
+ * in flat arrays of primitives. It is what the binary scene format stores: {@link SceneLoader} collects
+ * it from an XML file to save it as a binary file, and builds the objects of a scene from the records of
+ * a binary file by {@link #replay(SceneLoader.Target)}. XML files are built into objects directly, without it.
+ * <p>
+ * Every record of a kind has its numbers in the values array of the kind - a fixed amount of values
+ * per record (see {@link #SIZES}), except for polygons and meshes, whose sizes are in the indexes array
+ * of the kind. The emission and material of a geometry are given by the index of its style in the
+ * styles table, or -1 for the default (black emission and an empty material).
+ * <p>
+ * The binary format (version {@value #VERSION}) is little endian, and every array in it starts at an
+ * offset which is a multiple of 8, so a file mapped to memory is read by bulk copies of whole arrays:
+ * <pre>
+ * "RTSC" version name background[3] ambient[4] styleCount styles[8 * styleCount]
+ * hasCamera cameraImage camera[14] kindCount
+ * (kind count indexCount valueCount styles[count] indexes[indexCount] values[valueCount]) * kindCount
+ * </pre>
+ * Strings are written as their length and their UTF-8 bytes.
+ */
+class SceneData implements SceneLoader.Target {
+    /** Sphere record: center, radius */
+    static final int SPHERE = 0;
+    /** Triangle record: 3 vertices */
+    static final int TRIANGLE = 1;
+    /** Polygon record: vertices, their amount is in the indexes */
+    static final int POLYGON = 2;
+    /** Plane record: point, normal */
+    static final int PLANE = 3;
+    /** Tube record: radius, axis head, axis direction */
+    static final int TUBE = 4;
+    /** Cylinder record: radius, axis head, axis direction, height */
+    static final int CYLINDER = 5;
+    /**
+     * Mesh record: vertex coordinates. The indexes are the amount of coordinates, the amount of face
+     * indexes, and the face indexes
+     */
+    static final int MESH = 6;
+    /** Directional light record: intensity, direction */
+    static final int DIRECTIONAL_LIGHT = 7;
+    /** Point light record: intensity, position, kC, kL, kQ */
+    static final int POINT_LIGHT = 8;
+    /** Spot light record: intensity, position, direction, kC, kL, kQ, narrow beam */
+    static final int SPOT_LIGHT = 9;
+    /** Amount of values of a record of every kind, 0 for a kind with records of varying sizes */
+    static final int[] SIZES = {4, 9, 0, 6, 7, 8, 0, 6, 9, 13};
+    /** Amount of values of a style: emission, kD, kS, shininess, kT, kR */
+    static final int STYLE_SIZE = 8;
+    /** Amount of values of a camera: location, direction, up, view plane distance, width, height, resolution */
+    static final int CAMERA_SIZE = 14;
+
+    /** Identifier at the beginning of a binary scene file */
+    private static final byte[] MAGIC = "RTSC".getBytes(StandardCharsets.US_ASCII);
+    /** Version of the binary format */
+    static final int VERSION = 1;
+
+    /** Name of the scene */
+    String name = "";
+    /** Background color */
+    double[] background = new double[3];
+    /** Ambient light color and factor, or null if the scene has no ambient light */
+    double[] ambient = null;
+    /** Styles table, {@link #STYLE_SIZE} values per style */
+    double[] styles = new double[0];
+    /** Amount of styles */
+    int styleCount = 0;
+    /** Camera values, or null if the scene has no camera */
+    double[] camera = null;
+    /** Name of the image of the camera */
+    String cameraImage = "";
+    /** Records of every kind */
+    final Records[] records = new Records[SIZES.length];
+
+    /**
+     * All the records of a single kind
+     */
+    static class Records {
+        /** Amount of records */
+        int count = 0;
+        /** Style of every record */
+        int[] styles = new int[16];
+        /** Sizes of the records of varying sizes (and the faces of meshes) */
+        int[] indexes = new int[0];
+        /** Amount of items of the indexes array in use */
+        int indexCount = 0;
+        /** Values of all the records */
+        double[] values = new double[64];
+        /** Amount of items of the values array in use */
+        int valueCount = 0;
+    }
+
+    /**
+     * Constructs an empty scene description
+     */
+    SceneData() {
+        for (int kind = 0; kind < records.length; ++kind) records[kind] = new Records();
+    }
+
+    @Override
+    public void begin(String name, double[] background) {
+        this.name = name;
+        this.background = background;
+    }
+
+    @Override
+    public void setAmbient(double[] ambient) {
+        this.ambient = ambient;
+    }
+
+    @Override
+    public void setCamera(double[] camera, String image) {
+        this.camera = camera;
+        this.cameraImage = image;
+    }
+
+    @Override
+    public int addStyle(double[] style) {
+        if (STYLE_SIZE * (styleCount + 1) > styles.length)
+            styles = Arrays.copyOf(styles, Math.max(STYLE_SIZE * 4, 2 * styles.length));
+        System.arraycopy(style, 0, styles, STYLE_SIZE * styleCount, STYLE_SIZE);
+        return styleCount++;
+    }
+
+    @Override
+    public void add(int kind, int style, double[] values, int offset, int count) {
+        Records r = addRecord(kind, style, values, offset, count);
+        if (kind == POLYGON) addIndexes(r, new int[]{count / 3}, 1);
+    }
+
+    @Override
+    public void addMesh(int style, double[] vertices, int[] faces) {
+        Records r = addRecord(MESH, style, vertices, 0, vertices.length);
+        addIndexes(r, new int[]{vertices.length, faces.length}, 2);
+        addIndexes(r, faces, faces.length);
+    }
+
+    /**
+     * Adds a record with its values
+     *
+     * @param kind   the kind of the record
+     * @param style  the index of the style of the record, -1 for the default style
+     * @param values the array of the values of the record
+     * @param offset the index of the first value in the array
+     * @param count  the amount of values
+     * @return the records of the kind
+     */
+    private Records addRecord(int kind, int style, double[] values, int offset, int count) {
+        Records r = records[kind];
+        if (r.count == r.styles.length) r.styles = Arrays.copyOf(r.styles, Math.max(16, 2 * r.count));
+        r.styles[r.count++] = style;
+        if (r.valueCount + count > r.values.length)
+            r.values = Arrays.copyOf(r.values, Math.max(r.valueCount + count, 2 * r.values.length));
+        System.arraycopy(values, offset, r.values, r.valueCount, count);
+        r.valueCount += count;
+        return r;
+    }
+
+    /**
+     * Adds indexes to the records of a kind
+     *
+     * @param r       the records of the kind
+     * @param indexes the indexes
+     * @param count   the amount of indexes
+     */
+    private static void addIndexes(Records r, int[] indexes, int count) {
+        if (r.indexCount + count > r.indexes.length)
+            r.indexes = Arrays.copyOf(r.indexes, Math.max(r.indexCount + count, 2 * r.indexes.length));
+        System.arraycopy(indexes, 0, r.indexes, r.indexCount, count);
+        r.indexCount += count;
+    }
+
+    /**
+     * Passes the whole description to a target, in the order of the kinds of the records.
+     * The styles are added first, so their indexes in the target are the same.
+     *
+     * @param target the target
+     */
+    void replay(SceneLoader.Target target) {
+        target.begin(name, background);
+        if (ambient != null) target.setAmbient(ambient);
+        for (int i = 0; i < styleCount; ++i)
+            target.addStyle(Arrays.copyOfRange(styles, STYLE_SIZE * i, STYLE_SIZE * (i + 1)));
+        for (int kind = 0; kind < records.length; ++kind) {
+            Records r = records[kind];
+            int offset = 0;
+            int index = 0;
+            for (int i = 0; i < r.count; ++i) {
+                int size = SIZES[kind];
+                if (kind == POLYGON) size = 3 * r.indexes[index++];
+                if (kind == MESH) {
+                    size = r.indexes[index];
+                    int faces = r.indexes[index + 1];
+                    // A single mesh takes the whole values array, which is passed without copying
+                    double[] vertices = size == r.values.length ? r.values
+                            : Arrays.copyOfRange(r.values, offset, offset + size);
+                    target.addMesh(r.styles[i], vertices, Arrays.copyOfRange(r.indexes, index + 2, index + 2 + faces));
+                    index += 2 + faces;
+                } else target.add(kind, r.styles[i], r.values, offset, size);
+                offset += size;
+            }
+        }
+        if (camera != null) target.setCamera(camera, cameraImage);
+    }
+
+    /**
+     * Checks whether a file is a binary scene file
+     *
+     * @param path the file
+     * @return true if the file starts with the identifier of the binary format
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(MAGIC.length);
+            while (head.hasRemaining() && channel.read(head) >= 0) ;
+            return !head.hasRemaining() && Arrays.equals(head.array(), MAGIC);
+        }
+    }
+
+    /**
+     * Writes the scene description in the binary format
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.bytes(MAGIC);
+            out.putInt(VERSION);
+            out.string(name);
+            out.doubles(background, 3);
+            out.putInt(ambient == null ? 0 : 1);
+            out.doubles(ambient == null ? new double[4] : ambient, 4);
+            out.putInt(styleCount);
+            out.doubles(styles, STYLE_SIZE * styleCount);
+            out.putInt(camera == null ? 0 : 1);
+            out.string(cameraImage);
+            out.doubles(camera == null ? new double[CAMERA_SIZE] : camera, CAMERA_SIZE);
+            out.putInt(records.length);
+            for (int kind = 0; kind < records.length; ++kind) {
+                Records r = records[kind];
+                out.putInt(kind);
+                out.putInt(r.count);
+                out.putInt(r.indexCount);
+                out.putInt(r.valueCount);
+                out.ints(r.styles, r.count);
+                out.ints(r.indexes, r.indexCount);
+                out.doubles(r.values, r.valueCount);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads a scene description from a binary file, which is mapped to memory
+     *
+     * @param path the file to read
+     * @return the scene description
+     * @throws IOException if the file cannot be read, or is not a binary scene file of this version
+     */
+    static SceneData read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            Input in = new Input(buffer);
+            SceneData data = new SceneData();
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a binary scene file: " + path);
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported binary scene version " + version);
+            data.name = in.string();
+            data.background = in.doubles(3);
+            boolean hasAmbient = buffer.getInt() != 0;
+            double[] ambient = in.doubles(4);
+            data.ambient = hasAmbient ? ambient : null;
+            data.styleCount = buffer.getInt();
+            data.styles = in.doubles(STYLE_SIZE * data.styleCount);
+            boolean hasCamera = buffer.getInt() != 0;
+            data.cameraImage = in.string();
+            double[] camera = in.doubles(CAMERA_SIZE);
+            data.camera = hasCamera ? camera : null;
+            int kinds = buffer.getInt();
+            if (kinds != data.records.length) throw new IOException("Corrupted binary scene file: " + path);
+            for (int k = 0; k < kinds; ++k) {
+                int kind = buffer.getInt();
+                if (kind < 0 || kind >= data.records.length) throw new IOException("Corrupted binary scene file: " + path);
+                Records r = data.records[kind];
+                r.count = buffer.getInt();
+                r.indexCount = buffer.getInt();
+                r.valueCount = buffer.getInt();
+                r.styles = in.ints(r.count);
+                r.indexes = in.ints(r.indexCount);
+                r.values = in.doubles(r.valueCount);
+            }
+            return data;
+        } catch (RuntimeException e) {
+            // e.g. a truncated file or negative sizes
+            throw new IOException("Corrupted binary scene file: " + path, e);
+        }
+    }
+
+    /**
+     * Writer of the binary format through a direct buffer, which pads every array to start at a
+     * multiple of 8
+     */
+    private static class Output {
+        /** The file */
+        private final FileChannel channel;
+        /** The buffer of the data before it is written */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        /** Amount of bytes written to the file */
+        private long written = 0;
+
+        /**
+         * Constructs a writer
+         *
+         * @param channel the file
+         */
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Makes room in the buffer
+         *
+         * @param size the amount of bytes needed
+         * @throws IOException if the file cannot be written
+         */
+        private void ensure(int size) throws IOException {
+            if (buffer.remaining() < size) flush();
+        }
+
+        /**
+         * Writes the buffered data to the file
+         *
+         * @throws IOException if the file cannot be written
+         */
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) written += channel.write(buffer);
+            buffer.clear();
+        }
+
+        /**
+         * Pads the data with zeros to a multiple of 8 bytes
+         *
+         * @throws IOException if the file cannot be written
+         */
+        private void align() throws IOException {
+            ensure(8);
+            while ((written + buffer.position()) % 8 != 0) buffer.put((byte) 0);
+        }
+
+        /**
+         * Writes an int
+         *
+         * @param value the value
+         * @throws IOException if the file cannot be written
+         */
+        private void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Writes bytes
+         *
+         * @param bytes the bytes
+         * @throws IOException if the file cannot be written
+         */
+        private void bytes(byte[] bytes) throws IOException {
+            for (int i = 0; i < bytes.length; ) {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.put(bytes, i, n);
+                i += n;
+            }
+        }
+
+        /**
+         * Writes a string as its length and its UTF-8 bytes
+         *
+         * @param string the string
+         * @throws IOException if the file cannot be written
+         */
+        private void string(String string) throws IOException {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            bytes(bytes);
+        }
+
+        /**
+         * Writes an array of ints, aligned
+         *
+         * @param values the array
+         * @param count  the amount of values to write
+         * @throws IOException if the file cannot be written
+         */
+        private void ints(int[] values, int count) throws IOException {
+            align();
+            for (int i = 0; i < count; ) {
+                ensure(4);
+                int n = Math.min(buffer.remaining() / 4, count - i);
+                buffer.asIntBuffer().put(values, i, n);
+                buffer.position(buffer.position() + 4 * n);
+                i += n;
+            }
+        }
+
+        /**
+         * Writes an array of doubles, aligned
+         *
+         * @param values the array
+         * @param count  the amount of values to write
+         * @throws IOException if the file cannot be written
+         */
+        private void doubles(double[] values, int count) throws IOException {
+            align();
+            for (int i = 0; i < count; ) {
+                ensure(8);
+                int n = Math.min(buffer.remaining() / 8, count - i);
+                buffer.asDoubleBuffer().put(values, i, n);
+                buffer.position(buffer.position() + 8 * n);
+                i += n;
+            }
+        }
+    }
+
+    /**
+     * Reader of the binary format from a mapped buffer, which copies whole arrays at once
+     *
+     * @param buffer the mapped file
+     */
+    private record Input(ByteBuffer buffer) {
+        /**
+         * Skips the padding to a multiple of 8 bytes
+         */
+        private void align() {
+            buffer.position((buffer.position() + 7) & ~7);
+        }
+
+        /**
+         * Reads a string written as its length and its UTF-8 bytes
+         *
+         * @return the string
+         */
+        private String string() {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads an aligned array of ints
+         *
+         * @param count the amount of values
+         * @return the array
+         */
+        private int[] ints(int count) {
+            align();
+            int[] values = new int[count];
+            buffer.asIntBuffer().get(values);
+            buffer.position(buffer.position() + 4 * count);
+            return values;
+        }
+
+        /**
+         * Reads an aligned array of doubles
+         *
+         * @param count the amount of values
+         * @return the array
+         */
+        private double[] doubles(int count) {
+            align();
+            double[] values = new double[count];
+            buffer.asDoubleBuffer().get(values);
+            buffer.position(buffer.position() + 8 * count);
+            return values;
+        }
+    }
+}
@@ -1,115 +1,642 @@
 package renderer;
 
-import geometries.Geometries;
-import geometries.Sphere;
-import geometries.Triangle;
+import geometries.*;
 import lighting.AmbientLight;
-import org.w3c.dom.*;
-import primitives.Color;
-import primitives.Double3;
-import primitives.Point;
+import lighting.DirectionLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.*;
 import scene.Scene;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The SceneLoader class is responsible for loading a scene from an XML file.
+ * <p>
+ * The file is read as a stream (StAX) and every element is built into its object as soon as it is
+ * read, so no document tree of the whole file is kept in memory and generated scenes with hundreds of
+ * thousands of geometries load quickly. The geometries are collected in a
+ * {@link BoundingVolumeHierarchy}.
+ * <p>
+ * The elements may also be collected into a compact {@link SceneData} and saved in a binary scene file
+ * ({@link #saveBinary(String, String)}), which later loads are read from by mapping it to memory and
+ * copying whole arrays out of it - without any parsing. An XML scene file looks like:
+ * <pre>{@code
+ * <scene name="Example" background-color="0 0 0">
+ *     <ambientLight color="255 255 255" k="0.1"/>
+ *     <camera location="0 0 1000" direction="0 0 -1" up="0 1 0" vp-distance="1000" vp-size="200 200"
+ *             resolution="500 500" image="example"/>
+ *     <materials>
+ *         <material name="shiny" kd="0.5" ks="0.5" shininess="100" kt="0" kr="0"/>
+ *     </materials>
+ *     <geometries>
+ *         <sphere center="0 0 -100" radius="50" emission="100 20 20" material="shiny"/>
+ *         <triangle p0="-100 0 -100" p1="0 100 -100" p2="-100 100 -100"/>
+ *         <polygon vertices="0 0 0, 1 0 0, 1 1 0, 0 1 0"/>
+ *         <plane point="0 -50 0" normal="0 1 0"/>
+ *         <tube radius="10" head="0 0 0" direction="0 1 0"/>
+ *         <cylinder radius="10" head="0 0 0" direction="0 1 0" height="20"/>
+ *         <mesh file="bunny.ply"/>
+ *     </geometries>
+ *     <lights>
+ *         <directionalLight intensity="100 100 100" direction="0 -1 -1"/>
+ *         <pointLight intensity="500 500 500" position="0 100 0" kl="0.0005" kq="0.0005"/>
+ *         <spotLight intensity="500 500 500" position="0 100 0" direction="0 -1 0" narrow-beam="10"/>
+ *     </lights>
+ * </scene>
+ * }</pre>
+ * Every geometry may have an emission and a material, which must be defined before it. A mesh file
+ * is read by {@link MeshLoader}, relative to the directory of the scene file. All the attenuation
+ * factors of the lights are optional. After the scene is loaded, its camera (if the file has one)
+ * is available by {@link #getCameraBuilder()}, and the amount of its records and the time of its load by
+ * {@link #getLoadedRecords()} and {@link #getLoadTime()}.
  */
 public class SceneLoader {
+    /**
+     * The factory of the stream readers
+     */
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
 
     /**
-     * Loads a scene from an XML file.
+     * The materials defined so far in the XML file, by their names: kD, kS, shininess, kT and kR
+     */
+    private final Map<String, double[]> materials = new HashMap<>();
+    /**
+     * The styles used so far in the XML file, by their emission and material name
+     */
+    private final Map<String, Integer> styles = new HashMap<>();
+    /**
+     * The values of the current element of the XML file
+     */
+    private final double[] values = new double[SceneData.CAMERA_SIZE];
+    /**
+     * The camera of the last loaded scene, or null if it had none
+     */
+    private Camera.Builder cameraBuilder = null;
+    /**
+     * The amount of records (geometries and lights) of the last loaded scene
+     */
+    private long loadedRecords = 0;
+    /**
+     * The time the last scene took to load, in seconds
+     */
+    private double loadTime = 0;
+
+    /**
+     * Receiver of the elements of a scene, in the order they are read from a scene file
+     */
+    interface Target {
+        /**
+         * Starts the scene
+         *
+         * @param name       the name of the scene
+         * @param background the background color
+         */
+        void begin(String name, double[] background);
+
+        /**
+         * Sets the ambient light
+         *
+         * @param ambient the color and the factor of the ambient light
+         */
+        void setAmbient(double[] ambient);
+
+        /**
+         * Sets the camera
+         *
+         * @param camera the values of the camera (see {@link SceneData#CAMERA_SIZE})
+         * @param image  the name of the image of the camera
+         */
+        void setCamera(double[] camera, String image);
+
+        /**
+         * Adds a style
+         *
+         * @param style the values of the style (see {@link SceneData#STYLE_SIZE})
+         * @return the index of the style, by the order of the styles added
+         */
+        int addStyle(double[] style);
+
+        /**
+         * Adds a geometry or a light, other than a mesh
+         *
+         * @param kind   the kind of the record
+         * @param style  the index of the style of the record, -1 for the default style
+         * @param values the array of the values of the record
+         * @param offset the index of the first value in the array
+         * @param count  the amount of values (3 per vertex for a polygon)
+         */
+        void add(int kind, int style, double[] values, int offset, int count);
+
+        /**
+         * Adds a mesh. The arrays are kept by the target and must not be changed afterwards.
+         *
+         * @param style    the index of the style of the mesh, -1 for the default style
+         * @param vertices the coordinates of the vertices, 3 per vertex
+         * @param faces    the vertex indexes of the faces, 3 per face
+         */
+        void addMesh(int style, double[] vertices, int[] faces);
+    }
+
+    /**
+     * Loads a scene from a file - an XML file, or a binary scene file written by
+     * {@link #saveBinary(String, String)}, which is mapped to memory and loaded without any parsing.
      *
-     * @param filePath the path to the XML file
+     * @param filePath the path to the XML or binary file
      * @return the loaded Scene object, or null if an error occurs
      */
     public Scene loadSceneFromFile(String filePath) {
+        cameraBuilder = null;
+        loadedRecords = 0;
+        loadTime = 0;
+        File file = new File(filePath);
+        long start = System.nanoTime();
         try {
-            File xmlFile = new File(filePath);
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(xmlFile);
-            doc.getDocumentElement().normalize();
-
-            // Read scene name
-            Element sceneElement = (Element) doc.getElementsByTagName("scene").item(0);
-            String sceneName = sceneElement.getAttribute("name");
-
-            Scene scene = new Scene(sceneName);
-
-            // Read background color
-            String backgroundColorStr = sceneElement.getAttribute("background-color");
-            Color backgroundColor = parseColor(backgroundColorStr);
-            scene.setBackground(backgroundColor);
-
-            // Read ambient light
-            NodeList ambientLightNodeList = doc.getElementsByTagName("ambientLight");
-            if (ambientLightNodeList.getLength() > 0) {
-                Element ambientLightElement = (Element) ambientLightNodeList.item(0);
-                String ambientColorStr = ambientLightElement.getAttribute("color");
-                Color ambientColor = parseColor(ambientColorStr);
-                double k = Double.parseDouble(ambientLightElement.getAttribute("k"));
-                scene.setAmbientLight(new AmbientLight(ambientColor, new Double3(k)));
-            } else {
-                System.out.println("Ambient light element not found.");
-            }
+            boolean binary = SceneData.isBinary(file.toPath());
+            SceneBuilder builder = new SceneBuilder();
+            if (binary) SceneData.read(file.toPath()).replay(builder);
+            else readXml(file, builder);
+            Scene scene = builder.finish();
+            loadedRecords = builder.records;
+            loadTime = (System.nanoTime() - start) / 1e9;
+            return scene;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Converts an XML scene file to the binary scene format, so that later loads of the scene
+     * (by {@link #loadSceneFromFile(String)}) skip the parsing of the XML. The meshes of the scene are
+     * stored in the binary file as well.
+     *
+     * @param xmlPath    the path to the XML file
+     * @param binaryPath the path to the binary file to write
+     * @return true if the binary file was written, false if an error occurs
+     */
+    public boolean saveBinary(String xmlPath, String binaryPath) {
+        try {
+            SceneData data = new SceneData();
+            readXml(new File(xmlPath), data);
+            data.write(Path.of(binaryPath));
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Returns a camera builder of the camera element of the last loaded scene.
+     * Its ray tracer is a simple ray tracer of the scene and its image writer has the resolution and
+     * the image name of the element, and more settings may be added before it is built.
+     *
+     * @return the camera builder, or null if the last loaded scene has no camera
+     */
+    public Camera.Builder getCameraBuilder() {
+        return cameraBuilder;
+    }
 
-            // Read geometries
-            NodeList geometryNodes = doc.getElementsByTagName("geometries").item(0).getChildNodes();
-            Geometries geometries = new Geometries();
-
-            for (int i = 0; i < geometryNodes.getLength(); i++) {
-                Node node = geometryNodes.item(i);
-                if (node.getNodeType() == Node.ELEMENT_NODE) {
-                    Element element = (Element) node;
-                    switch (element.getTagName()) {
-                        case "sphere":
-                            Point center = parsePoint(element.getAttribute("center"));
-                            double radius = Double.parseDouble(element.getAttribute("radius"));
-                            geometries.add(new Sphere(center, radius));
-                            break;
-                        case "triangle":
-                            Point p0 = parsePoint(element.getAttribute("p0"));
-                            Point p1 = parsePoint(element.getAttribute("p1"));
-                            Point p2 = parsePoint(element.getAttribute("p2"));
-                            geometries.add(new Triangle(p0, p1, p2));
-                            break;
-                        default:
-                            System.out.println("Unknown geometry type: " + element.getTagName());
-                            break;
+    /**
+     * Returns the amount of records (geometries and lights) of the last loaded scene,
+     * for measuring the throughput of loading scenes together with {@link #getLoadTime()}.
+     *
+     * @return the amount of records, 0 if the last load failed
+     */
+    public long getLoadedRecords() {
+        return loadedRecords;
+    }
+
+    /**
+     * Returns the time the last scene took to load.
+     *
+     * @return the time in seconds, 0 if the last load failed
+     */
+    public double getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * Reads an XML scene file as a stream, passing every element to the target as soon as it is read
+     *
+     * @param xmlFile the XML file
+     * @param target  the target of the elements
+     * @throws Exception if the file cannot be read or is malformed
+     */
+    private void readXml(File xmlFile, Target target) throws Exception {
+        materials.clear();
+        styles.clear();
+        String sceneName = null;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(xmlFile), 1 << 16)) {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+                String tag = reader.getLocalName();
+                if (tag.equals("scene")) {
+                    // Read scene name and background color
+                    String name = reader.getAttributeValue(null, "name");
+                    sceneName = name == null ? "" : name;
+                    target.begin(sceneName, numbers(reader, "background-color", 3, new double[3], 0));
+                    continue;
+                }
+                if (sceneName == null) throw new XMLStreamException("The root element must be a scene", reader.getLocation());
+                switch (tag) {
+                    case "ambientLight" -> {
+                        double[] ambient = numbers(reader, "color", 3, new double[4], 0);
+                        target.setAmbient(numbers(reader, "k", 1, ambient, 3));
+                    }
+                    case "camera" -> readCamera(reader, target, sceneName);
+                    case "material" -> materials.put(required(reader, "name"), new double[]{
+                            optional(reader, "kd", 0), optional(reader, "ks", 0), optional(reader, "shininess", 0),
+                            optional(reader, "kt", 0), optional(reader, "kr", 0)});
+                    case "directionalLight" -> {
+                        numbers(reader, "intensity", 3, values, 0);
+                        numbers(reader, "direction", 3, values, 3);
+                        target.add(SceneData.DIRECTIONAL_LIGHT, -1, values, 0, 6);
+                    }
+                    case "pointLight" -> {
+                        readPointLight(reader);
+                        target.add(SceneData.POINT_LIGHT, -1, values, 0, 9);
+                    }
+                    case "spotLight" -> {
+                        readPointLight(reader);
+                        System.arraycopy(values, 6, values, 9, 3);
+                        numbers(reader, "direction", 3, values, 6);
+                        values[12] = optional(reader, "narrow-beam", 1);
+                        target.add(SceneData.SPOT_LIGHT, -1, values, 0, 13);
+                    }
+                    case "geometries", "lights", "materials" -> {
+                        // containers of the elements
+                    }
+                    default -> {
+                        if (!readGeometry(reader, target, xmlFile))
+                            System.out.println("Unknown element type: " + tag);
                     }
                 }
             }
+            reader.close();
+        }
+        if (sceneName == null) throw new XMLStreamException("The file has no scene");
+    }
 
+    /**
+     * Reads a geometry element with its emission and material
+     *
+     * @param reader  the reader, at the start of the element
+     * @param target  the target of the elements, to which the geometry is added
+     * @param xmlFile the scene file, to which the mesh files are relative
+     * @return true if the element is a geometry, false if it is unknown
+     * @throws Exception if the element is malformed or a mesh file cannot be read
+     */
+    private boolean readGeometry(XMLStreamReader reader, Target target, File xmlFile) throws Exception {
+        switch (reader.getLocalName()) {
+            case "sphere" -> {
+                numbers(reader, "center", 3, values, 0);
+                numbers(reader, "radius", 1, values, 3);
+                target.add(SceneData.SPHERE, readStyle(reader, target), values, 0, 4);
+            }
+            case "triangle" -> {
+                numbers(reader, "p0", 3, values, 0);
+                numbers(reader, "p1", 3, values, 3);
+                numbers(reader, "p2", 3, values, 6);
+                target.add(SceneData.TRIANGLE, readStyle(reader, target), values, 0, 9);
+            }
+            case "polygon" -> {
+                String[] vertices = required(reader, "vertices").split(",");
+                double[] coordinates = new double[3 * vertices.length];
+                for (int i = 0; i < vertices.length; ++i) parseNumbers(vertices[i], 3, coordinates, 3 * i);
+                target.add(SceneData.POLYGON, readStyle(reader, target), coordinates, 0, coordinates.length);
+            }
+            case "plane" -> {
+                numbers(reader, "point", 3, values, 0);
+                numbers(reader, "normal", 3, values, 3);
+                target.add(SceneData.PLANE, readStyle(reader, target), values, 0, 6);
+            }
+            case "tube", "cylinder" -> {
+                numbers(reader, "radius", 1, values, 0);
+                numbers(reader, "head", 3, values, 1);
+                numbers(reader, "direction", 3, values, 4);
+                if (reader.getLocalName().equals("tube"))
+                    target.add(SceneData.TUBE, readStyle(reader, target), values, 0, 7);
+                else {
+                    numbers(reader, "height", 1, values, 7);
+                    target.add(SceneData.CYLINDER, readStyle(reader, target), values, 0, 8);
+                }
+            }
+            case "mesh" -> {
+                // The mesh file is relative to the directory of the scene file
+                File meshFile = new File(required(reader, "file"));
+                if (!meshFile.isAbsolute())
+                    meshFile = new File(xmlFile.getAbsoluteFile().getParentFile(), meshFile.getPath());
+                MeshLoader mesh = MeshLoader.read(meshFile);
+                target.addMesh(readStyle(reader, target), mesh.getVertices(), mesh.getFaces());
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the emission and the material of a geometry element, and finds their style
+     *
+     * @param reader the reader, at the start of the element
+     * @param target the target of the elements, to which a new style is added
+     * @return the index of the style, or -1 for a geometry without emission and material
+     * @throws XMLStreamException if the material was not defined
+     */
+    private int readStyle(XMLStreamReader reader, Target target) throws XMLStreamException {
+        String emission = reader.getAttributeValue(null, "emission");
+        String materialName = reader.getAttributeValue(null, "material");
+        if (emission == null && materialName == null) return -1;
+        String key = emission + "|" + materialName;
+        Integer style = styles.get(key);
+        if (style != null) return style;
+
+        double[] styleValues = new double[SceneData.STYLE_SIZE];
+        if (emission != null) parseNumbers(emission, 3, styleValues, 0);
+        if (materialName != null) {
+            double[] material = materials.get(materialName);
+            if (material == null)
+                throw new XMLStreamException("Undefined material: " + materialName, reader.getLocation());
+            System.arraycopy(material, 0, styleValues, 3, material.length);
+        }
+        style = target.addStyle(styleValues);
+        styles.put(key, style);
+        return style;
+    }
+
+    /**
+     * Reads the intensity, position and attenuation factors of a point light (or a spot light)
+     * element into the values of the element
+     *
+     * @param reader the reader, at the start of the element
+     * @throws XMLStreamException if a required attribute is missing
+     */
+    private void readPointLight(XMLStreamReader reader) throws XMLStreamException {
+        numbers(reader, "intensity", 3, values, 0);
+        numbers(reader, "position", 3, values, 3);
+        values[6] = optional(reader, "kc", 1);
+        values[7] = optional(reader, "kl", 0);
+        values[8] = optional(reader, "kq", 0);
+    }
+
+    /**
+     * Reads a camera element
+     *
+     * @param reader    the reader, at the start of the element
+     * @param target    the target of the elements
+     * @param sceneName the name of the scene, which is the default name of the image
+     * @throws XMLStreamException if a required attribute is missing
+     */
+    private void readCamera(XMLStreamReader reader, Target target, String sceneName) throws XMLStreamException {
+        double[] camera = new double[SceneData.CAMERA_SIZE];
+        numbers(reader, "location", 3, camera, 0);
+        numbers(reader, "direction", 3, camera, 3);
+        numbers(reader, "up", 3, camera, 6);
+        numbers(reader, "vp-distance", 1, camera, 9);
+        numbers(reader, "vp-size", 2, camera, 10);
+        numbers(reader, "resolution", 2, camera, 12);
+        String image = reader.getAttributeValue(null, "image");
+        target.setCamera(camera, image == null ? sceneName : image);
+    }
+
+    /**
+     * Builds the objects of a scene from its elements as they are read. The geometries are collected in a
+     * bounding volume hierarchy.
+     */
+    private class SceneBuilder implements Target {
+        /**
+         * The scene
+         */
+        private Scene scene;
+        /**
+         * The geometries of the scene
+         */
+        private final BoundingVolumeHierarchy geometries = new BoundingVolumeHierarchy();
+        /**
+         * The emissions of the styles, by their indexes. Every style is made once and shared by its geometries.
+         */
+        private final List<Color> emissions = new ArrayList<>();
+        /**
+         * The materials of the styles, by their indexes
+         */
+        private final List<Material> styleMaterials = new ArrayList<>();
+        /**
+         * The values of the camera, null if the scene has no camera
+         */
+        private double[] camera = null;
+        /**
+         * The name of the image of the camera
+         */
+        private String cameraImage;
+        /**
+         * Amount of geometries and lights built
+         */
+        private int records = 0;
+
+        @Override
+        public void begin(String name, double[] background) {
+            scene = new Scene(name).setBackground(color(background, 0));
+        }
+
+        @Override
+        public void setAmbient(double[] ambient) {
+            scene.setAmbientLight(new AmbientLight(color(ambient, 0), new Double3(ambient[3])));
+        }
+
+        @Override
+        public void setCamera(double[] camera, String image) {
+            this.camera = camera;
+            this.cameraImage = image;
+        }
+
+        @Override
+        public int addStyle(double[] style) {
+            emissions.add(color(style, 0));
+            styleMaterials.add(new Material().setKD(style[3]).setKS(style[4]).setShininess((int) style[5])
+                    .setkT(style[6]).setkR(style[7]));
+            return emissions.size() - 1;
+        }
+
+        @Override
+        public void add(int kind, int style, double[] v, int offset, int count) {
+            ++records;
+            Geometry body;
+            switch (kind) {
+                case SceneData.SPHERE -> body = new Sphere(point(v, offset), v[offset + 3]);
+                case SceneData.TRIANGLE -> body = new Triangle(point(v, offset), point(v, offset + 3),
+                        point(v, offset + 6));
+                case SceneData.POLYGON -> {
+                    Point[] vertices = new Point[count / 3];
+                    for (int k = 0; k < vertices.length; ++k) vertices[k] = point(v, offset + 3 * k);
+                    body = new Polygon(vertices);
+                }
+                case SceneData.PLANE -> body = new Plane(point(v, offset), vector(v, offset + 3));
+                case SceneData.TUBE -> body = new Tube(v[offset],
+                        new Ray(point(v, offset + 1), vector(v, offset + 4)));
+                case SceneData.CYLINDER -> body = new Cylinder(v[offset],
+                        new Ray(point(v, offset + 1), vector(v, offset + 4)), v[offset + 7]);
+                case SceneData.DIRECTIONAL_LIGHT -> {
+                    scene.lights.add(new DirectionLight(color(v, offset), vector(v, offset + 3)));
+                    return;
+                }
+                case SceneData.POINT_LIGHT -> {
+                    scene.lights.add(new PointLight(color(v, offset), point(v, offset + 3))
+                            .setKC(v[offset + 6]).setKL(v[offset + 7]).setKQ(v[offset + 8]));
+                    return;
+                }
+                case SceneData.SPOT_LIGHT -> {
+                    scene.lights.add(new SpotLight(color(v, offset), point(v, offset + 3), vector(v, offset + 6))
+                            .setKC(v[offset + 9]).setKL(v[offset + 10]).setKQ(v[offset + 11])
+                            .setNarrowBeam(v[offset + 12]));
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown record kind " + kind);
+            }
+            addGeometry(body, style);
+        }
+
+        @Override
+        public void addMesh(int style, double[] vertices, int[] faces) {
+            ++records;
+            addGeometry(new TriangleMesh(vertices, faces), style);
+        }
+
+        /**
+         * Adds a geometry to the scene with its style
+         *
+         * @param geometry the geometry
+         * @param style    the index of the style, -1 for the default style
+         */
+        private void addGeometry(Geometry geometry, int style) {
+            if (style >= 0) geometry.setEmission(emissions.get(style)).setMaterial(styleMaterials.get(style));
+            geometries.add(geometry);
+        }
+
+        /**
+         * Completes the scene, and makes the camera builder of its camera (if it has one)
+         *
+         * @return the scene
+         */
+        private Scene finish() {
             scene.setGeometries(geometries);
+            if (camera != null)
+                cameraBuilder = Camera.getBuilder()
+                        .setRayTracer(new SimpleRayTracer(scene))
+                        .setLocation(point(camera, 0))
+                        .setDirection(vector(camera, 3), vector(camera, 6))
+                        .setVpDistance((int) camera[9])
+                        .setVpSize(camera[10], camera[11])
+                        .setImageWriter(new ImageWriter(cameraImage, (int) camera[12], (int) camera[13]));
             return scene;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
         }
     }
 
     /**
-     * Parses a color from a string.
+     * Returns a required attribute of the current element
+     *
+     * @param reader the reader, at the start of an element
+     * @param name   the name of the attribute
+     * @return the value of the attribute
+     * @throws XMLStreamException if the element has no such attribute
+     */
+    private String required(XMLStreamReader reader, String name) throws XMLStreamException {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null)
+            throw new XMLStreamException("Missing attribute " + name + " of " + reader.getLocalName(), reader.getLocation());
+        return value;
+    }
+
+    /**
+     * Returns an optional numeric attribute of the current element
+     *
+     * @param reader       the reader, at the start of an element
+     * @param name         the name of the attribute
+     * @param defaultValue the value if the element has no such attribute
+     * @return the value of the attribute
+     */
+    private double optional(XMLStreamReader reader, String name, double defaultValue) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * Parses the numbers of a required attribute of the current element
+     *
+     * @param reader the reader, at the start of an element
+     * @param name   the name of the attribute
+     * @param count  the amount of numbers in the attribute
+     * @param target the array the numbers are stored to
+     * @param offset the index of the first number in the target
+     * @return the target
+     * @throws XMLStreamException if the element has no such attribute
+     */
+    private double[] numbers(XMLStreamReader reader, String name, int count, double[] target, int offset)
+            throws XMLStreamException {
+        parseNumbers(required(reader, name), count, target, offset);
+        return target;
+    }
+
+    /**
+     * Parses numbers separated by spaces from a string.
+     *
+     * @param numbers the string of the numbers, e.g. "x y z"
+     * @param count   the amount of numbers in the string
+     * @param target  the array the numbers are stored to
+     * @param offset  the index of the first number in the target
+     */
+    private void parseNumbers(String numbers, int count, double[] target, int offset) {
+        String[] parts = numbers.trim().split(" ");
+        if (parts.length != count)
+            throw new IllegalArgumentException("Expected " + count + " numbers in \"" + numbers + "\"");
+        for (int i = 0; i < count; ++i) target[offset + i] = Double.parseDouble(parts[i]);
+    }
+
+    /**
+     * Makes a point of 3 numbers in an array
+     *
+     * @param values the array
+     * @param offset the index of the x coordinate
+     * @return the point
+     */
+    private static Point point(double[] values, int offset) {
+        return new Point(values[offset], values[offset + 1], values[offset + 2]);
+    }
+
+    /**
+     * Makes a vector of 3 numbers in an array
      *
-     * @param colorStr the string representing the color in the format "r g b"
-     * @return the parsed Color object
+     * @param values the array
+     * @param offset the index of the x coordinate
+     * @return the vector
      */
-    private Color parseColor(String colorStr) {
-        String[] rgb = colorStr.split(" ");
-        return new Color(Integer.parseInt(rgb[0]), Integer.parseInt(rgb[1]), Integer.parseInt(rgb[2]));
+    private static Vector vector(double[] values, int offset) {
+        return new Vector(values[offset], values[offset + 1], values[offset + 2]);
     }
 
     /**
-     * Parses a point from a string.
+     * Makes a color of 3 numbers in an array
      *
-     * @param pointStr the string representing the point in the format "x y z"
-     * @return the parsed Point object
+     * @param values the array
+     * @param offset the index of the red component
+     * @return the color
      */
-    private Point parsePoint(String pointStr) {
-        String[] coords = pointStr.split(" ");
-        return new Point(Double.parseDouble(coords[0]), Double.parseDouble(coords[1]), Double.parseDouble(coords[2]));
+    private static Color color(double[] values, int offset) {
+        return new Color(values[offset], values[offset + 1], values[offset + 2]);
     }
 }
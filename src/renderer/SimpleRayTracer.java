@@ -1,8 +1,12 @@
 package renderer;
 
 import geometries.Geometries;
+import geometries.Geometry;
 import geometries.Intersectable;
 import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import geometries.IntersectionCounters;
+import lighting.LightHierarchy;
 import lighting.LightSource;
 import primitives.*;
 import primitives.Vector;
@@ -25,13 +29,13 @@ public class SimpleRayTracer extends RayTracerBase {
      * Maximum recursion depth for calculating color effects in ray tracing.
      * Controls the maximum number of global lighting reflections/refractions.
      */
-    private static final int MAX_CALC_COLOR_LEVEL = 10;
+    protected static final int MAX_CALC_COLOR_LEVEL = 10;
 
     /**
      * Minimum attenuation coefficient `k` value for terminating recursion in ray tracing.
      * Controls the minimum contribution of global lighting effects.
      */
-    private static final double MIN_CALC_COLOR_K = 0.001;
+    protected static final double MIN_CALC_COLOR_K = 0.001;
 
 
     /**
@@ -61,16 +65,45 @@ public class SimpleRayTracer extends RayTracerBase {
         Point point = gp.point.add(epsVector);
         // Create a ray from the geometric point in the direction of the light source
         Ray ray = new Ray(point, lightDirection, n);
-        // Find intersections of the ray with objects in the scene
-        List<Point> intersections = scene.geometries.findIntersections(ray);
-        // If there are no intersections, the point is unshaded
-        if (intersections == null) return true;
-        for (Point intersection : intersections) {
-            if (light.getDistance(intersection) > intersection.distance(ray.getHead())) return false;
-        }
-        return true;
+        // The point is unshaded if nothing blocks the ray before it reaches the light source
+        return !scene.geometries.isOccluded(ray, light.getDistance(gp.point), null);
     }
 
+    /**
+     * The maximal amount of reflected and refracted rays traced for a single primary ray.
+     * The default value is {@link Integer#MAX_VALUE}, which means the rays are limited only by
+     * {@link #MAX_CALC_COLOR_LEVEL}, {@link #MIN_CALC_COLOR_K} and the maximal depth of the materials.
+     */
+    protected int rayBudget = Integer.MAX_VALUE;
+
+    /**
+     * The buffers of the ray trees of every thread, reused from one primary ray to the next
+     */
+    private final ThreadLocal<RayTree> trees = ThreadLocal.withInitial(RayTree::new);
+
+    /**
+     * The geometry which blocked the last blocked shadow ray of every thread to every light, by the index of
+     * the light in the scene. It is tested before the whole scene, as the shadow rays of neighboring points
+     * are mostly blocked by the same geometry.
+     */
+    private final ThreadLocal<Geometry[]> occluders = ThreadLocal.withInitial(() -> new Geometry[0]);
+
+    /**
+     * The intensity of a light (in color units, 255 is white) below which it is not considered at a point.
+     * The default value is 0, which means all the lights are considered at all the points.
+     */
+    protected double minLightIntensity = 0;
+
+    /**
+     * The lights of the scene organized by their range, null until the first point is shaded
+     */
+    private volatile LightHierarchy lightHierarchy = null;
+
+    /**
+     * The buffers of the indices of the lights of a point of every thread
+     */
+    private final ThreadLocal<int[]> lightIndices = ThreadLocal.withInitial(() -> new int[0]);
+
     /**
      * Constructs a SimpleRayTracer with the given scene.
      *
@@ -88,12 +121,71 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
-        GeoPoint closestPoint = findClosestIntersection(ray);
-        return closestPoint == null ? scene.background :
-                calcColor(closestPoint, ray);
+        return trees.get().trace(ray);
     }
-    public Color traceRayWithAdaptiveSupersampling(Point centerP, double width, double Height, double minWidth, double minHeight, Point cameraLoc, Vector Vright, Vector Vup, List<Point> prePoints) {
-        return AdaptiveSuperSamplingRec(centerP,width,Height,minWidth,minHeight,cameraLoc,Vright,Vup,prePoints);
+    /**
+     * Sets the maximal amount of reflected and refracted rays traced for a single primary ray, so the pixels
+     * which see many mirrors and transparent surfaces don't stall the rendering.
+     * The rays nearest to the primary ray are traced first, and the rays left when the budget runs out
+     * add nothing to the color.
+     *
+     * @param rayBudget the maximal amount of secondary rays, 0 for tracing the primary rays only
+     * @return the ray tracer
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public SimpleRayTracer setRayBudget(int rayBudget) {
+        if (rayBudget < 0)
+            throw new IllegalArgumentException("Ray budget cannot be negative");
+        this.rayBudget = rayBudget;
+        return this;
+    }
+
+    /**
+     * Sets the intensity of a light below which it is not considered at a point, so a point is shaded only by
+     * the lights near enough to it. A point light with attenuation by the distance (kL or kQ) is not
+     * considered beyond the distance where its intensity drops below the minimal intensity, and the lights
+     * are found by a {@link LightHierarchy} of their ranges, so scenes of many small lights are shaded in
+     * nearly constant time per point.
+     *
+     * @param minIntensity the minimal intensity in color units (e.g. 0.5 for half a level of the image),
+     *                     0 for considering all the lights at all the points
+     * @return the ray tracer
+     * @throws IllegalArgumentException if the minimal intensity is negative
+     */
+    public SimpleRayTracer setMinLightIntensity(double minIntensity) {
+        if (minIntensity < 0)
+            throw new IllegalArgumentException("Minimal light intensity cannot be negative");
+        this.minLightIntensity = minIntensity;
+        lightHierarchy = null;
+        return this;
+    }
+
+    /**
+     * Returns the hierarchy of the lights of the scene, building it again if the lights of the scene changed
+     *
+     * @return the hierarchy
+     */
+    protected LightHierarchy lights() {
+        LightHierarchy hierarchy = lightHierarchy;
+        // Threads which build the hierarchy at the same time store equal objects, so the race is harmless
+        if (hierarchy == null || !hierarchy.isBuiltFrom(scene.lights))
+            lightHierarchy = hierarchy = new LightHierarchy(scene.lights, minLightIntensity);
+        return hierarchy;
+    }
+
+    /**
+     * Returns the buffer of the indices of the lights of a point of the current thread
+     *
+     * @param size the amount of lights of the scene
+     * @return the buffer, at least size long
+     */
+    protected int[] lightIndices(int size) {
+        int[] indices = lightIndices.get();
+        if (indices.length < size) {
+            indices = new int[size];
+            lightIndices.set(indices);
+        }
+        return indices;
     }
 
     /**
@@ -124,77 +216,159 @@ public class SimpleRayTracer extends RayTracerBase {
 
 
     /**
-     * Calculates the global effect (reflection/refraction) of a ray.
-     *
-     * @param ray   the ray to trace
-     * @param level the recursion level for reflection/refraction
-     * @param k     the attenuation factor
-     * @param kx    the specific attenuation for the current effect (reflection/refraction)
-     * @return the color resulting from the global effect
+     * The reflected and refracted rays which a primary ray spawns, traced without recursion.
+     * <p>
+     * The rays of the tree are kept in arrays (a column per field) which serve as the explicit work list:
+     * a ray spawns its reflected and refracted rays at the end of the list, and the list is processed in
+     * order, so the rays of a level are all traced before the rays of the next level. When the ray budget
+     * runs out the rays which are left untraced are therefore the deepest, most attenuated ones.
+     * Finally the colors of the rays are summed into their parents, from the end of the list back to the
+     * primary ray, in the same order the recursive calculation adds them.
      */
-    private Color calcGlobalEffect(Ray ray, int level, Double3 k, Double3 kx) {
-        Double3 kkx = k.product(kx);
-        if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
-
-        GeoPoint gp = findClosestIntersection(ray);
-        if (gp == null) return scene.background.scale(kx);
-
-        return isZero(gp.geometry.getNormal(gp.point).dotProduct(ray.getDirection()))
-                ? Color.BLACK : calcColor(gp, ray, level - 1, kkx);
-
-    }
+    private class RayTree {
+        /**
+         * Marks a missing reflected or refracted ray
+         */
+        private static final int NONE = -1;
+
+        /** Amount of rays in the tree */
+        private int size = 0;
+        /** Amount of secondary rays which may still be traced */
+        private int budget = 0;
+        /** The counters of the rays of the current thread, null if the rays aren't counted */
+        private RenderStatistics.Counters counters = null;
+        /** The rays */
+        private Ray[] rays = new Ray[16];
+        /** Recursion level of every ray, 1 is the last level */
+        private int[] levels = new int[16];
+        /** Attenuation factor of every ray */
+        private Double3[] k = new Double3[16];
+        /** The factor the background is scaled by if the ray misses, null for the primary ray */
+        private Double3[] kx = new Double3[16];
+        /** The hit point of every ray, null if the ray missed or is grazing */
+        private GeoPoint[] points = new GeoPoint[16];
+        /** The color of every ray - the local color, and after the colors are summed the total color */
+        private Color[] colors = new Color[16];
+        /** The reflected and the refracted rays of every ray, 2 per ray, {@link #NONE} if missing */
+        private int[] children = new int[32];
+
+        /**
+         * Traces a primary ray with all its reflected and refracted rays
+         *
+         * @param ray the primary ray
+         * @return the color of the ray
+         */
+        private Color trace(Ray ray) {
+            size = 0;
+            budget = rayBudget;
+            counters = statistics == null ? null : statistics.counters();
+            add(ray, MAX_CALC_COLOR_LEVEL, INITIAL_K, null);
+            for (int i = 0; i < size; ++i) {
+                GeoPoint gp = findClosestIntersection(rays[i], counters == null ? null : counters.intersections);
+                if (gp == null) {
+                    colors[i] = kx[i] == null ? scene.background : scene.background.scale(kx[i]);
+                    continue;
+                }
+                Vector v = rays[i].getDirection();
+                Vector n = gp.getNormal();
+                // A secondary ray which grazes the surface adds nothing
+                if (kx[i] != null && isZero(n.dotProduct(v))) {
+                    colors[i] = Color.BLACK;
+                    continue;
+                }
+                points[i] = gp;
+                colors[i] = calcLocalEffects(gp, rays[i], k[i], counters);
+
+                Material material = gp.geometry.getMaterial();
+                if (levels[i] == 1 || MAX_CALC_COLOR_LEVEL - levels[i] >= material.maxDepth) continue;
+                // Spawning may reallocate the arrays, so the children are stored only afterwards
+                int reflected = spawn(i, material.kR, gp, v, n, true);
+                int refracted = spawn(i, material.kT, gp, v, n, false);
+                children[2 * i] = reflected;
+                children[2 * i + 1] = refracted;
+            }
 
+            for (int i = size - 1; i >= 0; --i) {
+                int reflected = children[2 * i], refracted = children[2 * i + 1];
+                if (reflected == NONE && refracted == NONE) continue;
+                colors[i] = colors[i].add((reflected == NONE ? Color.BLACK : colors[reflected])
+                        .add(refracted == NONE ? Color.BLACK : colors[refracted]));
+            }
+            Color color = points[0] == null ? colors[0] : colors[0].add(scene.ambientLight.getIntensity());
+            if (counters != null) {
+                ++counters.primaryRays;
+                // The rays are traced level by level, so the last ray is the deepest
+                counters.depths += MAX_CALC_COLOR_LEVEL - levels[size - 1];
+            }
 
-    /**
-     * Calculates the combined global effects (reflection and refraction) at a given intersection point.
-     *
-     * @param gp    the intersection point
-     * @param ray   the ray that intersects the point
-     * @param level the recursion level for reflection/refraction
-     * @param k     the attenuation factor
-     * @return the combined color resulting from reflection and refraction
-     */
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray,
-                                    int level, Double3 k) {
-
-        Color color = Color.BLACK;
-        Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
-        Material material = gp.geometry.getMaterial();
-        return calcGlobalEffect(constructReflectedRay(gp, v, n),
-                level, k, material.kR).
-                add(calcGlobalEffect(constructRefractedRay(gp, v, n),
-                        level, k, material.kT));
-    }
+            // Release the scene objects of the tree
+            Arrays.fill(rays, 0, size, null);
+            Arrays.fill(k, 0, size, null);
+            Arrays.fill(kx, 0, size, null);
+            Arrays.fill(points, 0, size, null);
+            Arrays.fill(colors, 0, size, null);
+            return color;
+        }
 
+        /**
+         * Adds a ray to the tree
+         *
+         * @param ray   the ray
+         * @param level the recursion level of the ray
+         * @param k     the attenuation factor of the ray
+         * @param kx    the factor of the background if the ray misses, null for the primary ray
+         * @return the index of the ray
+         */
+        private int add(Ray ray, int level, Double3 k, Double3 kx) {
+            if (size == rays.length) grow(2 * size);
+            rays[size] = ray;
+            levels[size] = level;
+            this.k[size] = k;
+            this.kx[size] = kx;
+            children[2 * size] = NONE;
+            children[2 * size + 1] = NONE;
+            return size++;
+        }
 
-    /**
-     * Calculates the color at a given intersection point `gp` on a surface for a ray `ray`.
-     * Includes both local and global lighting effects recursively up to `level` depth.
-     *
-     * @param gp    The intersection point on the surface.
-     * @param ray   The ray being traced.
-     * @param level The current recursion level for global effects.
-     * @param k     The attenuation factors for ambient, diffuse, and specular light.
-     * @return The calculated color at the intersection point.
-     */
-    private Color calcColor(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Color color = calcLocalEffects(gp, ray, k);
-        return 1 == level ? color : color.add(calcGlobalEffects(gp, ray, level, k));
-    }
+        /**
+         * Adds a reflected or refracted ray of a hit, unless it is too attenuated to matter or the ray
+         * budget ran out
+         *
+         * @param parent     the ray of the hit
+         * @param kx         the reflection or transparency factor of the material
+         * @param gp         the hit point
+         * @param v          the direction of the ray of the hit
+         * @param n          the normal at the hit point
+         * @param reflection true for the reflected ray, false for the refracted ray
+         * @return the index of the new ray, or {@link #NONE} if it isn't traced
+         */
+        private int spawn(int parent, Double3 kx, GeoPoint gp, Vector v, Vector n, boolean reflection) {
+            Double3 kkx = k[parent].product(kx);
+            if (kkx.lowerThan(MIN_CALC_COLOR_K)) return NONE;
+            Ray ray = reflection ? constructReflectedRay(gp, v, n) : constructRefractedRay(gp, v, n);
+            if (ray == null || budget == 0) return NONE;
+            --budget;
+            if (counters != null) {
+                if (reflection) ++counters.reflectedRays;
+                else ++counters.refractedRays;
+            }
+            return add(ray, levels[parent] - 1, kkx, kx);
+        }
 
-    /**
-     * Calculates the color at a given intersection point `gp` on a surface for a ray `ray`.
-     * Uses maximum calculation depth for global effects and initial attenuation factors.
-     * Adds ambient light intensity from the scene.
-     *
-     * @param gp  The intersection point on the surface.
-     * @param ray The ray being traced.
-     * @return The final calculated color at the intersection point including ambient light.
-     */
-    private Color calcColor(GeoPoint gp, Ray ray) {
-        return calcColor(gp, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
-                .add(scene.ambientLight.getIntensity());
+        /**
+         * Enlarges the arrays of the rays
+         *
+         * @param capacity the new capacity
+         */
+        private void grow(int capacity) {
+            rays = Arrays.copyOf(rays, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            k = Arrays.copyOf(k, capacity);
+            kx = Arrays.copyOf(kx, capacity);
+            points = Arrays.copyOf(points, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            children = Arrays.copyOf(children, 2 * capacity);
+        }
     }
 
     /**
@@ -205,7 +379,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param n  the normal vector at the intersection point
      * @return the reflected ray
      */
-    private Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
+    protected Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
         // r = v - 2 * (v . n) * n
         double vn = v.dotProduct(n);
         if (isZero(vn)) {
@@ -223,19 +397,21 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param n  the normal vector at the intersection point
      * @return the refracted ray
      */
-    private Ray constructRefractedRay(GeoPoint gp, Vector v, Vector n) {
+    protected Ray constructRefractedRay(GeoPoint gp, Vector v, Vector n) {
         return new Ray(gp.point, v, n); // Refracted ray simply continues in the same direction
     }
 
     /**
      * Finds the closest intersection point between the given ray and any object in the geometries collection.
-     * Returns the intersection point as a GeoPoint object.
+     * Uses the closest-hit query, so only the closest intersection point is created.
      *
-     * @param ray The ray for which to find the closest intersection.
+     * @param ray           The ray for which to find the closest intersection.
+     * @param intersections The counters the intersection tests are counted in, null if they aren't counted.
      * @return The closest intersection point with any object in the geometries collection, or null if no intersection found.
      */
-    private GeoPoint findClosestIntersection(Ray ray) {
-        return ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+    private GeoPoint findClosestIntersection(Ray ray, IntersectionCounters intersections) {
+        Hit hit = scene.geometries.findClosestHit(ray, Double.POSITIVE_INFINITY, intersections);
+        return hit == null ? null : hit.toGeoPoint(ray);
     }
 
     /**
@@ -246,7 +422,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param intensity the intensity of the light
      * @return the color of the diffusive reflection
      */
-    private Color calcDiffusive(Material material, double nl, Color intensity) {
+    protected Color calcDiffusive(Material material, double nl, Color intensity) {
         return intensity.scale(material.kD.scale(Math.abs(nl)));
     }
 
@@ -262,9 +438,14 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param intensity the intensity of the light
      * @return the color of the specular reflection
      */
-    private Color calcSpecular(Material material, Vector n, int shininess, double nl, Vector v, Vector l, Color intensity) {
-        Vector r = l.subtract(n.scale(2 * nl)).normalize();
-        double vr = Math.max(0, -v.dotProduct(r));
+    protected Color calcSpecular(Material material, Vector n, int shininess, double nl, Vector v, Vector l, Color intensity) {
+        // r = l - 2 * nl * n, calculated on the coordinates without creating the intermediate vectors
+        double scale = 2 * nl;
+        double rx = l.getX() - n.getX() * scale;
+        double ry = l.getY() - n.getY() * scale;
+        double rz = l.getZ() - n.getZ() * scale;
+        double len = VectorMath.length(rx, ry, rz);
+        double vr = Math.max(0, -VectorMath.dot(v.getX(), v.getY(), v.getZ(), rx / len, ry / len, rz / len));
         return intensity.scale(material.kS.scale(Math.pow(vr, material.shininess)));
     }
 
@@ -272,16 +453,18 @@ public class SimpleRayTracer extends RayTracerBase {
     /**
      * Calculates the local effects (diffusive and specular) of lighting at a given geometry point.
      *
-     * @param gp  The geometry point where the effects are being calculated.
-     * @param ray The ray that intersects the geometry point.
-     * @param k   The transparency coefficient.
+     * @param gp       The geometry point where the effects are being calculated.
+     * @param ray      The ray that intersects the geometry point.
+     * @param k        The transparency coefficient.
+     * @param counters The counters the shadow rays and their intersection tests are counted in, null if they
+     *                 aren't counted.
      * @return The color resulting from the local lighting effects.
      */
-    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
+    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k, RenderStatistics.Counters counters) {
         if (gp == null || gp.geometry == null) {
             return Color.BLACK; // Return black color or handle the error as needed
         }
-        Vector n = gp.geometry.getNormal(gp.point); // Normal vector at the geometry point
+        Vector n = gp.getNormal(); // Normal vector at the geometry point
         Vector v = ray.getDirection().normalize();  // Direction vector of the ray, normalized
         double nv = alignZero(n.dotProduct(v));     // Dot product of the normal vector and direction vector
 
@@ -291,22 +474,22 @@ public class SimpleRayTracer extends RayTracerBase {
         Material material = gp.geometry.getMaterial(); // Material of the geometry at the point
         Color color = gp.geometry.getEmission();       // Emission color of the geometry
 
-        // Loop over all light sources in the scene
-        for (LightSource lightSource : scene.lights) {
+        // Loop over the light sources which may illuminate the point
+        LightHierarchy lights = lights();
+        int[] indices = lightIndices(lights.size());
+        int count = lights.findLights(gp.point, indices);
+        for (int c = 0; c < count; ++c) {
+            int index = indices[c];
+            LightSource lightSource = lights.get(index);
             Vector l = lightSource.getL(gp.point).normalize(); // Vector from the point to the light source, normalized
             double nl = alignZero(n.dotProduct(l));            // Dot product of the normal vector and the light vector
 
             // If the signs of the dot products are the same, calculate the lighting effects
             if ((nl * nv > 0)) {  // sign(nl) == sign(nv)
-                Double3 ktr = transparency(gp, lightSource, l, n, nv); // Transparency coefficient
-                if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
-                    // Scale the light intensity by the transparency coefficient
-                    Color iL = lightSource.getIntensity(gp.point).scale(ktr);
-
-                    // Add the diffusive and specular components to the color
-                    color = color.add(calcDiffusive(material, nl, iL))
-                            .add(calcSpecular(material, n, material.shininess, nl, v, l, iL));
-                }
+                // Transparency coefficient along the ray from the point to the light source
+                Double3 ktr = transparency(gp.point, n, l, index, counters == null ? null : counters.intersections);
+                if (counters != null) ++counters.shadowRays;
+                color = addLight(color, material, lightSource, gp.point, n, v, l, nl, ktr, k);
             }
         }
 
@@ -315,100 +498,77 @@ public class SimpleRayTracer extends RayTracerBase {
 
 
     /**
-     * Calculates the transparency factor between a geometry point and a light source.
+     * Adds the light which a light source adds to a point through the transparency of the scene - the
+     * diffusive and the specular reflections of the light - to the color of the point. Both ray tracers
+     * shade the lights of a point by this method.
      *
-     * @param gp    The geometry point.
-     * @param light The light source.
-     * @param l     The vector from the point to the light source.
-     * @param n     The normal vector at the geometry point.
-     * @param nv    The dot product of the normal vector and the vector to the light source.
-     * @return The transparency factor as a Double3 object.
+     * @param color    the color of the point so far
+     * @param material the material of the geometry at the point
+     * @param light    the light source
+     * @param point    the point
+     * @param n        the normal vector at the point
+     * @param v        the direction vector of the ray, normalized
+     * @param l        the direction vector of the light, normalized
+     * @param nl       the dot product of the normal and light direction vectors
+     * @param ktr      the transparency of the scene between the point and the light source
+     * @param k        the attenuation of the ray which hit the point
+     * @return the color with the light, or the color itself if the light is blocked or too weak to matter
      */
-    private Double3 transparency(GeoPoint gp, LightSource light, Vector l, Vector n, double nv) {
-        // Find all intersections between the ray and the scene geometries
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(new Ray(gp.point, l.scale(-1), n));
-
-        // If there are no intersections, the ray is unobstructed and not shaded
-        if (intersections == null) return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
-
-        // Loop over all intersection points
-        for (GeoPoint intersection : intersections) {
-            if (intersection.point.distance(gp.point) < light.getDistance(gp.point)) {
-                // Multiply ktr by the transparency factor of the geometry at the intersection point
-                ktr = ktr.product(intersection.geometry.getMaterial().kT);
-                if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                    return Double3.ZERO; // The ray is completely obstructed
-                }
-            }
-        }
-
-        return ktr;
+    protected Color addLight(Color color, Material material, LightSource light, Point point, Vector n, Vector v,
+                             Vector l, double nl, Double3 ktr, Double3 k) {
+        if (ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) return color;
+        // Scale the light intensity by the transparency coefficient
+        Color iL = light.getIntensity(point).scale(ktr);
+        // Add the diffusive and specular components to the color
+        return color.add(calcDiffusive(material, nl, iL))
+                .add(calcSpecular(material, n, material.shininess, nl, v, l, iL));
     }
 
-    public Color AdaptiveSuperSamplingRec(Point centerP, double Width, double Height, double minWidth, double minHeight, Point cameraLoc, Vector Vright, Vector Vup, List<Point> prePoints) {
-        if (Width < minWidth * 2 || Height < minHeight * 2) {
-            Vector direction = centerP.subtract(cameraLoc);
-//            if (direction.equals(Vector.ZERO)) {
-//                return primitives.Color.BLACK;
-//            }
-            return this.traceRay(new Ray(cameraLoc, direction));
-        }
-
-        List<Point> nextCenterPList = new LinkedList<>();
-        List<Point> cornersList = new LinkedList<>();
-        List<primitives.Color> colorList = new LinkedList<>();
-        Point tempCorner;
-        Ray tempRay;
-
-        // Iterate over the corners of the pixel and perform sub-sampling
-        for (int i = -1; i <= 1; i += 2) {
-            for (int j = -1; j <= 1; j += 2) {
-                tempCorner = centerP.add(Vright.scale(i * Width / 2)).add(Vup.scale(j * Height / 2));
-                cornersList.add(tempCorner);
-                // Check if the sub-pixel's corner is already sampled
-                if (prePoints == null || !isInList(prePoints, tempCorner)) {
-                    Vector direction = tempCorner.subtract(cameraLoc);
-                    if (!direction.equals(Vector.ZERO)) {
-                        tempRay = new Ray(cameraLoc, direction);
-                        nextCenterPList.add(centerP.add(Vright.scale(i * Width / 4)).add(Vup.scale(j * Height / 4)));
-                        colorList.add(traceRay(tempRay));
-                    }
-                }
-            }
-        }
-
-        if (nextCenterPList.isEmpty()) {
-            // If no valid sub-pixels were found, return black color.
-            return primitives.Color.BLACK;
-        }
+    /**
+     * Calculates the transparency factor along the shadow ray from a point to a light source.
+     *
+     * @param point         The point.
+     * @param n             The normal vector at the point, the shadow ray starts slightly off the surface.
+     * @param l             The direction vector of the light source, normalized.
+     * @param index         The index of the light source in the scene.
+     * @param intersections The counters the intersection tests are counted in, null if they aren't counted.
+     * @return The transparency factor as a Double3 object.
+     */
+    protected Double3 transparency(Point point, Vector n, Vector l, int index, IntersectionCounters intersections) {
+        return transparency(new Ray(point, l.scale(-1), n), lights().get(index).getDistance(point), index,
+                intersections);
+    }
 
-        boolean isAllEquals = true;
-        primitives.Color tempColor = colorList.get(0);
-        // Check if all colors in the colorList are almost equal
-        for (primitives.Color color : colorList) {
-            if (!tempColor.isAlmostEquals(color))
-                isAllEquals = false;
+    /**
+     * Calculates the transparency factor along a shadow ray from a point to a light source.
+     * The geometry which blocked the last blocked shadow ray of the thread to the light is tested first,
+     * and blocks the ray without the whole scene. Otherwise the scene is traversed once, and the geometry
+     * which blocked the ray by itself (if any) is remembered for the next shadow ray.
+     *
+     * @param shadowRay     The ray from the point towards the light source.
+     * @param distance      The distance of the light source from the point.
+     * @param index         The index of the light source in the scene.
+     * @param intersections The counters the intersection tests are counted in, null if they aren't counted.
+     * @return The transparency factor as a Double3 object.
+     */
+    private Double3 transparency(Ray shadowRay, double distance, int index, IntersectionCounters intersections) {
+        Geometry[] occluders = this.occluders.get();
+        if (index >= occluders.length) {
+            occluders = Arrays.copyOf(occluders, Math.max(index + 1, scene.lights.size()));
+            this.occluders.set(occluders);
         }
-        if (isAllEquals && colorList.size() > 1)
-            // If all colors are equal and there is more than one color, return the first color.
-            return tempColor;
-
-        tempColor = primitives.Color.BLACK;
-        // Recursively perform adaptive super-sampling on sub-pixels
-        for (Point center : nextCenterPList) {
-            tempColor = tempColor.add(AdaptiveSuperSamplingRec(center, Width / 2, Height / 2, minWidth, minHeight, cameraLoc, Vright, Vup, cornersList));
+        Geometry last = occluders[index];
+        if (last != null) {
+            if (intersections != null) intersections.count(last);
+            if (last.isOccluded(shadowRay, distance, intersections)) return Double3.ZERO;
         }
-        // Reduce the color by dividing by the number of sub-pixels
-        return tempColor.reduce(nextCenterPList.size());
-    }
 
-    private boolean isInList(List<Point> pointsList, Point point) {
-        for (Point tempPoint : pointsList) {
-            if (point.equals(tempPoint))
-                return true;
-        }
-        return false;
+        // Multiply the transparency factors of the geometries between the point and the light source,
+        // stopping as soon as the ray is completely obstructed
+        Hit occluder = new Hit(distance);
+        Double3 ktr = scene.geometries.findTransparency(shadowRay, distance, Double3.ONE, MIN_CALC_COLOR_K,
+                occluder, intersections);
+        if (occluder.geometry != null) occluders[index] = occluder.geometry;
+        return ktr;
     }
-}
\ No newline at end of file
+}
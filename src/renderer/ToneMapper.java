@@ -0,0 +1,52 @@
+package renderer;
+
+/**
+ * A tone mapping operator, which maps a color component of unlimited range (as accumulated by the
+ * renderer, where 255 is the printed white) into the range 0..255 of the image.
+ * Tone mapping is applied once, when an {@link AccumulationBuffer} is written to the image.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+@FunctionalInterface
+public interface ToneMapper {
+    /**
+     * Clamps any component bigger than 255 to 255, as {@link primitives.Color#getColor()} does
+     */
+    ToneMapper CLAMP = value -> value > 255 ? 255 : value;
+
+    /**
+     * Reinhard operator - x / (1 + x), on the components scaled so 255 is 1.
+     * Bright colors are compressed smoothly instead of being clipped, and the image is darker.
+     */
+    ToneMapper REINHARD = value -> 255 * value / (255 + value);
+
+    /**
+     * ACES filmic curve (the fit of Narkowicz), on the components scaled so 255 is 1.
+     * Contrast is increased in the mid tones and the highlights roll off to white.
+     */
+    ToneMapper ACES = value -> {
+        double x = value / 255;
+        double y = x * (2.51 * x + 0.03) / (x * (2.43 * x + 0.59) + 0.14);
+        return y > 1 ? 255 : 255 * y;
+    };
+
+    /**
+     * Maps a color component
+     *
+     * @param value the component, non-negative and without upper limit
+     * @return the mapped component, between 0 and 255 (inclusive)
+     */
+    double map(double value);
+
+    /**
+     * Maps the components of a color and packs them into an int of 8 bits per component (0xRRGGBB)
+     *
+     * @param red   the red component
+     * @param green the green component
+     * @param blue  the blue component
+     * @return the packed mapped color
+     */
+    default int toRGB(double red, double green, double blue) {
+        return (int) map(red) << 16 | (int) map(green) << 8 | (int) map(blue);
+    }
+}
@@ -0,0 +1,386 @@
+package renderer;
+
+import geometries.Geometry;
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.Hit;
+import geometries.IntersectionCounters;
+import lighting.LightHierarchy;
+import lighting.LightSource;
+import primitives.*;
+import scene.Scene;
+
+import java.util.Arrays;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * WavefrontRayTracer computes the same colors as {@link SimpleRayTracer}, but instead of following every
+ * primary ray depth first through its reflections and refractions, it processes a whole batch of rays
+ * stage by stage:
+ * <ol>
+ * <li>intersect - the closest hits of all the rays of the current generation</li>
+ * <li>shade - the local shading of the hits, which queues a shadow ray for every lit light</li>
+ * <li>shadow - the transparency of the scene along all the queued shadow rays</li>
+ * <li>combine - the light of the unshadowed lights is added to the local colors</li>
+ * <li>spawn - the reflected and refracted rays of the hits become the next generation</li>
+ * </ol>
+ * When no rays are left, the colors of the secondary rays are summed into their parents, from the last
+ * generation back to the primary rays.
+ * The transparency along a shadow ray and the light it adds are computed by the same methods the simple
+ * tracer uses ({@link #transparency} and {@link #addLight}), so both tracers shade a hit identically.
+ * <p>
+ * The state of the rays is kept in arrays (a column per field) and every stage is a tight loop over
+ * thousands of rays, so the geometries and the hierarchy of the scene stay in the cache instead of being
+ * evicted by shading code between one intersection and the next.
+ * Batches are traced by {@link #traceBatch(Ray[], int, Color[])} (which the camera calls with the primary
+ * rays of a tile of the image when it renders regular images with threads); a single ray is traced as a
+ * batch of one.
+ *
+ * @author Dvora Enav and Zohar Tamsut
+ */
+public class WavefrontRayTracer extends SimpleRayTracer {
+    /**
+     * The buffers of the batches of every thread, reused from one batch to the next
+     */
+    private final ThreadLocal<Wavefront> wavefronts = ThreadLocal.withInitial(Wavefront::new);
+
+    /**
+     * Constructs a wavefront ray tracer of a scene.
+     *
+     * @param scene the scene to be rendered by the ray tracer
+     */
+    public WavefrontRayTracer(Scene scene) {
+        super(scene);
+    }
+
+    @Override
+    public Color traceRay(Ray ray) {
+        Color[] color = new Color[1];
+        traceBatch(new Ray[]{ray}, 1, color);
+        return color[0];
+    }
+
+    @Override
+    public void traceBatch(Ray[] rays, int count, Color[] colors) {
+        wavefronts.get().trace(rays, count, colors);
+    }
+
+    /**
+     * The rays of a batch with their state, and the stages which process them
+     */
+    private class Wavefront {
+        /**
+         * Marks a missing child ray, or a ray which didn't hit anything
+         */
+        private static final int NONE = -1;
+
+        /** Amount of rays in the batch */
+        private int size = 0;
+        /** The rays */
+        private Ray[] rays = new Ray[0];
+        /** Recursion level of every ray - as in {@link SimpleRayTracer}, 1 is the last level */
+        private int[] levels = new int[0];
+        /** Attenuation factor of every ray */
+        private Double3[] k = new Double3[0];
+        /** The factor the background is scaled by if the ray misses, null for a primary ray */
+        private Double3[] kx = new Double3[0];
+        /** The primary ray every ray was spawned from */
+        private int[] roots = new int[0];
+        /** Amount of secondary rays every primary ray may still spawn (unused for the other rays) */
+        private int[] budgets = new int[0];
+        /** The reflected and the refracted rays of every ray, 2 per ray, {@link #NONE} if missing */
+        private int[] children = new int[0];
+        /** The hit geometry of every ray, null if the ray missed or is grazing */
+        private Geometry[] geometries = new Geometry[0];
+        /** The hit face of every ray which hit a mesh, -1 for the other geometries */
+        private int[] faces = new int[0];
+        /** The hit point of every ray */
+        private Point[] points = new Point[0];
+        /** The normal at the hit point of every ray */
+        private Vector[] normals = new Vector[0];
+        /** The color of every ray - the local color, and after the last stage the total color */
+        private Color[] colors = new Color[0];
+
+        /** Amount of queued shadow rays */
+        private int shadowSize = 0;
+        /** The ray whose hit point every shadow ray starts at */
+        private int[] shadowOwners = new int[0];
+        /** The index of the light of every shadow ray in the scene */
+        private int[] shadowLights = new int[0];
+        /** The direction of the light of every shadow ray */
+        private Vector[] shadowL = new Vector[0];
+        /** The dot product of the normal and the light direction of every shadow ray */
+        private double[] shadowNl = new double[0];
+        /** The transparency along every shadow ray */
+        private Double3[] shadowKtr = new Double3[0];
+
+        /** The counters of the rays of the current thread, null if the rays aren't counted */
+        private RenderStatistics.Counters counters = null;
+
+        /** The hit of the current intersection */
+        private final Hit hit = new Hit(Double.POSITIVE_INFINITY);
+
+        /**
+         * Traces a batch of primary rays
+         *
+         * @param primary the rays
+         * @param count   the amount of rays
+         * @param result  the array the colors are stored to
+         */
+        private void trace(Ray[] primary, int count, Color[] result) {
+            size = 0;
+            counters = statistics == null ? null : statistics.counters();
+            for (int i = 0; i < count; ++i) {
+                add(primary[i], MAX_CALC_COLOR_LEVEL, Double3.ONE, null, i);
+                budgets[i] = rayBudget;
+            }
+            int first = 0;
+            while (first < size) {
+                int last = size;
+                if (counters != null && first > 0) {
+                    // The rays of a generation are ordered by their primary rays, so every primary ray which
+                    // still has rays adds 1 to the depth of its tree
+                    for (int i = first; i < last; ++i)
+                        if (i == first || roots[i] != roots[i - 1]) ++counters.depths;
+                }
+                intersect(first, last);
+                shade(first, last);
+                shadows();
+                combine();
+                spawn(first, last);
+                first = last;
+            }
+            resolve();
+            if (counters != null) counters.primaryRays += count;
+
+            Color ambient = scene.ambientLight.getIntensity();
+            for (int i = 0; i < count; ++i)
+                result[i] = geometries[i] == null ? colors[i] : colors[i].add(ambient);
+            // Release the scene objects of the batch
+            Arrays.fill(rays, 0, size, null);
+            Arrays.fill(k, 0, size, null);
+            Arrays.fill(kx, 0, size, null);
+            Arrays.fill(geometries, 0, size, null);
+            Arrays.fill(points, 0, size, null);
+            Arrays.fill(normals, 0, size, null);
+            Arrays.fill(colors, 0, size, null);
+        }
+
+        /**
+         * Adds a ray to the batch
+         *
+         * @param ray   the ray
+         * @param level the recursion level of the ray
+         * @param k     the attenuation factor of the ray
+         * @param kx    the factor of the background if the ray misses, null for a primary ray
+         * @param root  the primary ray the ray was spawned from
+         * @return the index of the ray
+         */
+        private int add(Ray ray, int level, Double3 k, Double3 kx, int root) {
+            if (size == rays.length) grow(Math.max(256, 2 * size));
+            rays[size] = ray;
+            levels[size] = level;
+            this.k[size] = k;
+            this.kx[size] = kx;
+            roots[size] = root;
+            children[2 * size] = NONE;
+            children[2 * size + 1] = NONE;
+            return size++;
+        }
+
+        /**
+         * Intersect stage - finds the closest hits of a generation of rays.
+         * A ray which misses takes the color of the background.
+         *
+         * @param first the first ray of the generation
+         * @param last  the end of the generation (exclusive)
+         */
+        private void intersect(int first, int last) {
+            IntersectionCounters intersections = counters == null ? null : counters.intersections;
+            for (int i = first; i < last; ++i) {
+                hit.set(null, Double.POSITIVE_INFINITY);
+                if (scene.geometries.findClosestHit(rays[i], hit, intersections)) {
+                    geometries[i] = hit.geometry;
+                    faces[i] = hit.face;
+                    points[i] = rays[i].getPoint(hit.t);
+                } else {
+                    geometries[i] = null;
+                    colors[i] = kx[i] == null ? scene.background : scene.background.scale(kx[i]);
+                }
+            }
+        }
+
+        /**
+         * Shade stage - starts the local colors of the hits with their emission, and queues a shadow
+         * ray for every light at the side of the surface the ray came from
+         *
+         * @param first the first ray of the generation
+         * @param last  the end of the generation (exclusive)
+         */
+        private void shade(int first, int last) {
+            shadowSize = 0;
+            LightHierarchy lights = lights();
+            int[] indices = lightIndices(lights.size());
+            for (int i = first; i < last; ++i) {
+                Geometry geometry = geometries[i];
+                if (geometry == null) continue;
+                Point point = points[i];
+                Vector n = geometry.getNormal(point, faces[i]);
+                Vector direction = rays[i].getDirection();
+                // A secondary ray which grazes the surface adds nothing
+                if (kx[i] != null && isZero(n.dotProduct(direction))) {
+                    geometries[i] = null;
+                    colors[i] = Color.BLACK;
+                    continue;
+                }
+                normals[i] = n;
+                Vector v = direction.normalize();
+                double nv = alignZero(n.dotProduct(v));
+                if (nv == 0) {
+                    colors[i] = Color.BLACK;
+                    continue;
+                }
+                colors[i] = geometry.getEmission();
+                int count = lights.findLights(point, indices);
+                for (int c = 0; c < count; ++c) {
+                    int index = indices[c];
+                    LightSource light = lights.get(index);
+                    Vector l = light.getL(point).normalize();
+                    double nl = alignZero(n.dotProduct(l));
+                    if (nl * nv > 0) {  // sign(nl) == sign(nv)
+                        if (shadowSize == shadowOwners.length) growShadows(Math.max(256, 2 * shadowSize));
+                        shadowOwners[shadowSize] = i;
+                        shadowLights[shadowSize] = index;
+                        shadowL[shadowSize] = l;
+                        shadowNl[shadowSize] = nl;
+                        ++shadowSize;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Shadow stage - finds the transparency of the scene along all the queued shadow rays
+         */
+        private void shadows() {
+            if (counters != null) counters.shadowRays += shadowSize;
+            IntersectionCounters intersections = counters == null ? null : counters.intersections;
+            for (int s = 0; s < shadowSize; ++s) {
+                int i = shadowOwners[s];
+                shadowKtr[s] = transparency(points[i], normals[i], shadowL[s], shadowLights[s], intersections);
+            }
+        }
+
+        /**
+         * Combine stage - adds the diffusive and specular light of every shadow ray which isn't blocked
+         * to the color of its hit, in the order of the lights
+         */
+        private void combine() {
+            LightHierarchy lights = lights();
+            for (int s = 0; s < shadowSize; ++s) {
+                int i = shadowOwners[s];
+                colors[i] = addLight(colors[i], geometries[i].getMaterial(), lights.get(shadowLights[s]), points[i],
+                        normals[i], rays[i].getDirection().normalize(), shadowL[s], shadowNl[s], shadowKtr[s], k[i]);
+            }
+            Arrays.fill(shadowL, 0, shadowSize, null);
+            Arrays.fill(shadowKtr, 0, shadowSize, null);
+        }
+
+        /**
+         * Spawn stage - adds the reflected and refracted rays of the hits of a generation, unless they
+         * are too attenuated to matter, deeper than the material allows or over the budget of their
+         * primary ray
+         *
+         * @param first the first ray of the generation
+         * @param last  the end of the generation (exclusive)
+         */
+        private void spawn(int first, int last) {
+            for (int i = first; i < last; ++i) {
+                if (geometries[i] == null || levels[i] == 1) continue;
+                Material material = geometries[i].getMaterial();
+                if (MAX_CALC_COLOR_LEVEL - levels[i] >= material.maxDepth) continue;
+                GeoPoint gp = new GeoPoint(geometries[i], points[i], faces[i]);
+                Vector v = rays[i].getDirection();
+                // Spawning may reallocate the arrays, so the children are stored only afterwards
+                int reflected = spawn(i, material.kR, gp, v, true);
+                int refracted = spawn(i, material.kT, gp, v, false);
+                children[2 * i] = reflected;
+                children[2 * i + 1] = refracted;
+            }
+        }
+
+        /**
+         * Adds a reflected or refracted ray of a hit
+         *
+         * @param parent     the ray of the hit
+         * @param kx         the reflection or transparency factor of the material
+         * @param gp         the hit point
+         * @param v          the direction of the ray of the hit
+         * @param reflection true for the reflected ray, false for the refracted ray
+         * @return the index of the new ray, or {@link #NONE} if it isn't traced
+         */
+        private int spawn(int parent, Double3 kx, GeoPoint gp, Vector v, boolean reflection) {
+            Double3 kkx = k[parent].product(kx);
+            if (kkx.lowerThan(MIN_CALC_COLOR_K)) return NONE;
+            Vector n = normals[parent];
+            Ray ray = reflection ? constructReflectedRay(gp, v, n) : constructRefractedRay(gp, v, n);
+            int root = roots[parent];
+            if (ray == null || budgets[root] == 0) return NONE;
+            --budgets[root];
+            if (counters != null) {
+                if (reflection) ++counters.reflectedRays;
+                else ++counters.refractedRays;
+            }
+            return add(ray, levels[parent] - 1, kkx, kx, root);
+        }
+
+        /**
+         * Sums the colors of the reflected and refracted rays into the colors of their parents.
+         * Children are always added after their parents, so going backwards every child is complete
+         * before its parent.
+         */
+        private void resolve() {
+            for (int i = size - 1; i >= 0; --i) {
+                if (geometries[i] == null || levels[i] == 1) continue;
+                int reflected = children[2 * i], refracted = children[2 * i + 1];
+                Color global = (reflected == NONE ? Color.BLACK : colors[reflected])
+                        .add(refracted == NONE ? Color.BLACK : colors[refracted]);
+                colors[i] = colors[i].add(global);
+            }
+        }
+
+        /**
+         * Enlarges the arrays of the rays
+         *
+         * @param capacity the new capacity
+         */
+        private void grow(int capacity) {
+            rays = Arrays.copyOf(rays, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            k = Arrays.copyOf(k, capacity);
+            kx = Arrays.copyOf(kx, capacity);
+            roots = Arrays.copyOf(roots, capacity);
+            budgets = Arrays.copyOf(budgets, capacity);
+            children = Arrays.copyOf(children, 2 * capacity);
+            geometries = Arrays.copyOf(geometries, capacity);
+            faces = Arrays.copyOf(faces, capacity);
+            points = Arrays.copyOf(points, capacity);
+            normals = Arrays.copyOf(normals, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+        }
+
+        /**
+         * Enlarges the arrays of the shadow rays
+         *
+         * @param capacity the new capacity
+         */
+        private void growShadows(int capacity) {
+            shadowOwners = Arrays.copyOf(shadowOwners, capacity);
+            shadowLights = Arrays.copyOf(shadowLights, capacity);
+            shadowL = Arrays.copyOf(shadowL, capacity);
+            shadowNl = Arrays.copyOf(shadowNl, capacity);
+            shadowKtr = Arrays.copyOf(shadowKtr, capacity);
+        }
+    }
+}
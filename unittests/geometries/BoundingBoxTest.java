@@ -0,0 +1,91 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the BoundingBox class.
+ * Tests the ray-box (slab) test and the bounding boxes calculated by the geometries.
+ */
+class BoundingBoxTest {
+    /**
+     * Unit box from (0,0,0) to (1,1,1)
+     */
+    private final BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0.5, 0.5), new Vector(1, 0.1, 0)), Double.POSITIVE_INFINITY),
+                "Ray crosses the box");
+        // TC02: ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 2, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray misses the box");
+        // TC03: ray starts after the box
+        assertFalse(box.intersects(new Ray(new Point(2, 0.5, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Box is behind the ray");
+        // TC04: ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(0.5, 0.5, 0.5), new Vector(-1, -2, 3)), Double.POSITIVE_INFINITY),
+                "Ray starts inside the box");
+        // TC05: box is farther than the maximal distance
+        assertFalse(box.intersects(new Ray(new Point(-3, 0.5, 0.5), new Vector(1, 0, 0)), 2),
+                "Box is beyond the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray lies on a face of the box
+        assertTrue(box.intersects(new Ray(new Point(-1, 0, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray on a face of the box");
+        // TC12: ray crosses a flat box
+        assertTrue(new BoundingBox(0, 0, 5, 1, 1, 5)
+                        .intersects(new Ray(new Point(0.5, 0.5, 0), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY),
+                "Ray crosses a flat box");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()} of the geometries.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: sphere
+        BoundingBox sphereBox = new Sphere(new Point(1, 2, 3), 2).getBoundingBox();
+        assertEquals(new Point(-1, 0, 1), sphereBox.getMin(), "Wrong sphere box");
+        assertEquals(new Point(3, 4, 5), sphereBox.getMax(), "Wrong sphere box");
+
+        // TC02: triangle
+        BoundingBox triangleBox = new Triangle(new Point(1, 0, 0), new Point(0, 2, 0), new Point(0, 0, 3))
+                .getBoundingBox();
+        assertEquals(new Point(0, 0, 0), triangleBox.getMin(), "Wrong triangle box");
+        assertEquals(new Point(1, 2, 3), triangleBox.getMax(), "Wrong triangle box");
+
+        // TC03: cylinder along the z axis
+        BoundingBox cylinderBox = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2)
+                .getBoundingBox();
+        assertEquals(new Point(-1, -1, 0), cylinderBox.getMin(), "Wrong cylinder box");
+        assertEquals(new Point(1, 1, 2), cylinderBox.getMax(), "Wrong cylinder box");
+
+        // TC04: collection of bounded geometries
+        BoundingBox unionBox = new Geometries(new Sphere(new Point(1, 2, 3), 2),
+                new Sphere(new Point(-5, 0, 0), 1)).getBoundingBox();
+        assertEquals(new Point(-6, -1, -1), unionBox.getMin(), "Wrong collection box");
+        assertEquals(new Point(3, 4, 5), unionBox.getMax(), "Wrong collection box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: infinite geometries are unbounded
+        assertNull(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox(), "Plane is unbounded");
+        assertNull(new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox(),
+                "Tube is unbounded");
+        // TC12: a collection with an unbounded geometry is unbounded
+        assertNull(new Geometries(new Sphere(new Point(1, 2, 3), 2),
+                        new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox(),
+                "Collection with a plane is unbounded");
+    }
+}
@@ -0,0 +1,147 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the BoundingVolumeHierarchy class.
+ * Tests that the hierarchy finds exactly the same intersections as a plain Geometries collection.
+ */
+class BoundingVolumeHierarchyTest {
+    /**
+     * Comparator of points by their coordinates, to compare intersections regardless of their order
+     */
+    private final Comparator<Point> byCoordinates = Comparator.comparingDouble(Point::getX)
+            .thenComparingDouble(Point::getY).thenComparingDouble(Point::getZ);
+
+    /**
+     * Test method for {@link geometries.BoundingVolumeHierarchy#findIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Geometries geometries = new Geometries();
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Sphere sphere = new Sphere(new Point(i * 10, j * 10, -50), 3);
+                Triangle triangle = new Triangle(new Point(i * 10 - 4, j * 10 - 4, -40),
+                        new Point(i * 10 + 4, j * 10 - 4, -40), new Point(i * 10, j * 10 + 4, -40));
+                geometries.add(sphere, triangle);
+                bvh.add(sphere, triangle);
+            }
+        Plane plane = new Plane(new Point(0, 0, -100), new Vector(0, 0, 1));
+        geometries.add(plane);
+        bvh.add(plane);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray through a triangle and a sphere, then the plane
+        Ray ray = new Ray(new Point(30, 30, 0), new Vector(0, 0, -1));
+        assertEquals(4, bvh.findIntersections(ray).size(), "Wrong number of intersections");
+        assertEquals(sorted(geometries.findIntersections(ray)), sorted(bvh.findIntersections(ray)),
+                "Hierarchy found different intersections than the plain collection");
+
+        // TC02: slanted ray through several geometries
+        ray = new Ray(new Point(-5, -5, 0), new Vector(1, 1.2, -0.3));
+        assertEquals(sorted(geometries.findIntersections(ray)), sorted(bvh.findIntersections(ray)),
+                "Hierarchy found different intersections than the plain collection");
+
+        // TC03: ray which misses all the bounded geometries and hits only the plane
+        ray = new Ray(new Point(500, 500, 0), new Vector(0, 0, -1));
+        assertEquals(List.of(new Point(500, 500, -100)), bvh.findIntersections(ray),
+                "Wrong intersection with the unbounded geometry");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray which misses everything
+        assertNull(bvh.findIntersections(new Ray(new Point(500, 500, 0), new Vector(0, 0, 1))),
+                "Ray does not intersect with any geometry");
+
+        // TC12: empty hierarchy
+        assertNull(new BoundingVolumeHierarchy().findIntersections(ray), "Empty hierarchy has no intersections");
+
+        // TC13: geometries added after the hierarchy was built are found
+        Sphere late = new Sphere(new Point(500, 500, -50), 3);
+        bvh.add(late);
+        assertEquals(3, bvh.findIntersections(ray).size(), "Added geometry was not found");
+
+        // TC14: geometries added to a nested collection after the hierarchy was built are found
+        Geometries nested = new Geometries(new Sphere(new Point(600, 600, -50), 3));
+        bvh.add(nested);
+        assertEquals(3, bvh.findIntersections(ray).size(), "The nested collection is not on the ray");
+        nested.add(new Sphere(new Point(500, 500, -80), 3));
+        assertEquals(5, bvh.findIntersections(ray).size(), "Geometry added to a nested collection was not found");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingVolumeHierarchy#findClosestHit(Ray, double, IntersectionCounters)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Geometries geometries = new Geometries();
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy();
+        for (int i = 0; i < 20; ++i) {
+            Sphere sphere = new Sphere(new Point(i * 3, i % 4, -10 - i * 5), 2);
+            geometries.add(sphere);
+            bvh.add(sphere);
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the hierarchy finds the same closest intersection as the plain collection
+        for (int i = 0; i < 20; ++i) {
+            Ray ray = new Ray(new Point(i * 3 + 0.5, 1, 0), new Vector(-0.05 * i, 0.01, -1));
+            Intersectable.Hit expected = geometries.findClosestHit(ray, Double.POSITIVE_INFINITY, null);
+            Intersectable.Hit hit = bvh.findClosestHit(ray, Double.POSITIVE_INFINITY, null);
+            assertEquals(expected == null, hit == null, "Hierarchy and collection disagree on a hit");
+            if (expected != null) {
+                assertEquals(expected.geometry, hit.geometry, "Wrong closest geometry");
+                assertEquals(expected.t, hit.t, 0.000001, "Wrong closest distance");
+                assertEquals(ray.findClosestGeoPoint(geometries.findGeoIntersections(ray)).point,
+                        hit.toGeoPoint(ray).point, "Closest hit differs from the closest intersection point");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: all the geometries are beyond the maximal distance
+        assertNull(bvh.findClosestHit(new Ray(new Point(0.5, 1, 0), new Vector(0, 0, -1)), 5, null),
+                "Geometries beyond the maximal distance");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingVolumeHierarchy#isOccluded(Ray, double, IntersectionCounters)}.
+     */
+    @Test
+    void testIsOccluded() {
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy();
+        for (int i = 0; i < 20; ++i)
+            bvh.add(new Sphere(new Point(i * 3, 0, -10), 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a sphere blocks the ray
+        assertTrue(bvh.isOccluded(new Ray(new Point(30, 0, 0), new Vector(0, 0, -1)), 100, null),
+                "Sphere blocks the ray");
+        // TC02: the ray passes between the spheres
+        assertFalse(bvh.isOccluded(new Ray(new Point(31.5, 0, 0), new Vector(0, 0, -1)), 100, null),
+                "Ray passes between the spheres");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the sphere is beyond the maximal distance
+        assertFalse(bvh.isOccluded(new Ray(new Point(30, 0, 0), new Vector(0, 0, -1)), 8, null),
+                "Sphere is beyond the maximal distance");
+    }
+
+    /**
+     * Sorts a list of points by their coordinates
+     *
+     * @param points the points to sort
+     * @return the sorted points
+     */
+    private List<Point> sorted(List<Point> points) {
+        return points.stream().sorted(byCoordinates).toList();
+    }
+}
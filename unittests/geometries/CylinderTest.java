@@ -5,7 +5,10 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Unit tests for the Cylinder class.
@@ -52,5 +55,42 @@ class CylinderTest {
                 "TC07: Wrong normal to the center of the top base");
     }
 
+    /**
+     * Test method for {@link geometries.Cylinder#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Cylinder c = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the round surface twice
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)),
+                c.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0))),
+                "Wrong intersections with the round surface");
+        // TC02: ray crosses both bases
+        assertEquals(List.of(new Point(0.5, 0, 2), new Point(0.5, 0, 0)),
+                c.findIntersections(new Ray(new Point(0.5, 0, 5), new Vector(0, 0, -1))),
+                "Wrong intersections with the bases");
+        // TC03: ray crosses a base and the round surface
+        assertEquals(List.of(new Point(0.5, 0, 2), new Point(1, 0, 1.5)),
+                c.findIntersections(new Ray(new Point(-0.5, 0, 3), new Vector(1, 0, -1))),
+                "Wrong intersections with a base and the round surface");
+        // TC04: ray starts inside the cylinder
+        assertEquals(List.of(new Point(0, 0, 2)),
+                c.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1))),
+                "Wrong intersection of a ray starting inside");
+        // TC05: ray passes beyond the height of the cylinder
+        assertNull(c.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))),
+                "Ray passes above the cylinder");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray through the rim of a base
+        assertNull(c.findIntersections(new Ray(new Point(1, 0, 3), new Vector(0, 0, -1))),
+                "Ray along the round surface");
+        // TC12: ray in the plane of a base
+        assertNull(c.findIntersections(new Ray(new Point(-2, 0, 2), new Vector(1, 0, 0))),
+                "Ray in the plane of the top base");
+    }
+
 
 }
\ No newline at end of file
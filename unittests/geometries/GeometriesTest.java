@@ -1,12 +1,13 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for the Geometries class.
@@ -31,7 +32,7 @@ class GeometriesTest {
         );
         // ============ Equivalence Partitions Tests ==============
         // TC01: some of the geometries intersect with the ray
-        assertEquals(3,
+        assertEquals(6,
                 geometries.findIntersections(new Ray(new Point(0, 0, 0), new Vector(1, 1, 1))).size(),
                 "more then one intsersections");
 
@@ -45,7 +46,7 @@ class GeometriesTest {
                 "one intsersections");
 
         // TC04: all geometries intersect with the ray
-        assertEquals(4, geometries.findIntersections(new Ray(new Point(-2, -2, -2), new Vector(1, 1, 1))).size()
+        assertEquals(8, geometries.findIntersections(new Ray(new Point(-2, -2, -2), new Vector(1, 1, 1))).size()
                 , "all intsersections");
 
         // TC05: empty list
@@ -53,6 +54,106 @@ class GeometriesTest {
                 "empty list");
     }
 
+    /**
+     * Unit tests for the {@link Geometries#getBoundingBox()} method.
+     */
+    @Test
+    void testGetBoundingBox() {
+        Geometries inner = new Geometries(new Sphere(new Point(0, 0, -10), 1));
+        Geometries outer = new Geometries(inner);
+        Ray ray = new Ray(new Point(20, 0, 0), new Vector(0, 0, -1));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the box of the collection is the union of the boxes of its geometries
+        assertNull(outer.findIntersections(ray), "The ray misses the sphere");
+        // TC02: geometries added to a nested collection after it was added extend the outer box
+        inner.add(new Sphere(new Point(20, 0, -10), 1));
+        assertEquals(2, outer.findIntersections(ray).size(), "The sphere added to the inner collection was missed");
+        assertEquals(9, outer.findClosestHit(ray, Double.POSITIVE_INFINITY, null).t, 1e-10,
+                "Wrong closest intersection with the inner collection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: an unbounded geometry added to a nested collection makes the outer collection unbounded
+        inner.add(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)));
+        assertNull(outer.getBoundingBox(), "A collection with an unbounded geometry has no box");
+        // TC12: an empty collection has no box
+        assertNull(new Geometries().getBoundingBox(), "An empty collection has no box");
+    }
+
+    /**
+     * Unit tests for the
+     * {@link Geometries#findTransparency(Ray, double, Double3, double, Intersectable.Hit, IntersectionCounters)}
+     * and
+     * {@link Geometries#isOccluded(Ray, double, IntersectionCounters)} methods.
+     */
+    @Test
+    void testFindTransparency() {
+        Sphere glass = new Sphere(new Point(0, 0, -5), 1);
+        glass.setMaterial(new Material().setkT(0.5));
+        Triangle wall = new Triangle(new Point(-2, -2, -10), new Point(2, -2, -10), new Point(0, 2, -10));
+        Geometries geometries = new Geometries(glass, wall);
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray passes through both sides of the transparent sphere only
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 8, Double3.ONE, 0.001, null, null),
+                "Wrong transparency through the sphere");
+        assertTrue(geometries.isOccluded(ray, 8, null), "Sphere occludes the ray");
+
+        // TC02: the opaque triangle blocks the ray
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 20, Double3.ONE, 0.001, null, null),
+                "Opaque triangle must block the ray");
+
+        // TC03: nothing before the maximal distance
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 3, Double3.ONE, 0.001, null, null),
+                "Nothing blocks the ray before the maximal distance");
+        assertFalse(geometries.isOccluded(ray, 3, null), "Nothing occludes the ray before the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the maximal distance is between the two sides of the sphere
+        assertEquals(new Double3(0.5), geometries.findTransparency(ray, 5, Double3.ONE, 0.001, null, null),
+                "Only the near side of the sphere is before the maximal distance");
+
+        // TC12: the accumulated transparency drops below the minimal value
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 8, Double3.ONE, 0.3, null, null),
+                "Transparency below the minimal value must block the ray");
+    }
+
+    /**
+     * Unit tests for the occluder reported by
+     * {@link Geometries#findTransparency(Ray, double, Double3, double, Intersectable.Hit, IntersectionCounters)}.
+     */
+    @Test
+    void testFindTransparencyOccluder() {
+        Sphere glass = new Sphere(new Point(0, 0, -5), 1);
+        glass.setMaterial(new Material().setkT(0.5));
+        Triangle wall = new Triangle(new Point(-2, -2, -10), new Point(2, -2, -10), new Point(0, 2, -10));
+        Geometries geometries = new Geometries(glass, new Geometries(wall));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the opaque triangle in the inner collection blocks the ray
+        Intersectable.Hit occluder = new Intersectable.Hit(20);
+        geometries.findTransparency(ray, 20, Double3.ONE, 0.001, occluder, null);
+        assertSame(wall, occluder.geometry, "Wrong occluder");
+
+        // TC02: the transparent sphere doesn't block the ray by itself
+        occluder = new Intersectable.Hit(8);
+        geometries.findTransparency(ray, 8, Double3.ONE, 0.001, occluder, null);
+        assertNull(occluder.geometry, "Transparent sphere is not an occluder");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the transparency of the sphere is below the minimal value
+        occluder = new Intersectable.Hit(8);
+        geometries.findTransparency(ray, 8, Double3.ONE, 0.6, occluder, null);
+        assertSame(glass, occluder.geometry, "Sphere blocks the ray by itself");
+
+        // TC12: the ray is blocked by the accumulated transparency of the sphere, not by a single geometry
+        occluder = new Intersectable.Hit(8);
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 8, Double3.ONE, 0.3, occluder, null),
+                "Transparency below the minimal value must block the ray");
+        assertNull(occluder.geometry, "No single geometry blocks the ray");
+    }
+
 }
 
 
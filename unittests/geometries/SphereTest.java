@@ -147,4 +147,33 @@ class SphereTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Sphere#findClosestHit(Ray, double, IntersectionCounters)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Sphere sphere = new Sphere(new Point(1, 0, 0), 1d);
+        final Point p01 = new Point(-1, 0, 0);
+        final Ray ray = new Ray(p01, new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the sphere - the nearer intersection is found
+        Intersectable.Hit hit = sphere.findClosestHit(ray, Double.POSITIVE_INFINITY, null);
+        assertEquals(sphere, hit.geometry, "Wrong intersected geometry");
+        assertEquals(new Point(0, 0, 0), ray.getPoint(hit.t), "Wrong closest intersection");
+
+        // TC02: Ray starts inside the sphere - the single intersection is found
+        hit = sphere.findClosestHit(new Ray(new Point(0.5, 0, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY, null);
+        assertEquals(1.5, hit.t, 0.000001, "Wrong distance from inside the sphere");
+
+        // TC03: Ray's line is outside the sphere
+        assertNull(sphere.findClosestHit(new Ray(p01, new Vector(1, 1, 0)), Double.POSITIVE_INFINITY, null),
+                "Ray's line out of sphere");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The sphere is beyond the maximal distance
+        assertNull(sphere.findClosestHit(ray, 1, null), "Intersection beyond the maximal distance");
+        // TC12: Intersection exactly at the maximal distance is ignored
+        assertNull(sphere.findClosestHit(ray, 1 - 0.000001, null), "Intersection at the maximal distance");
+    }
+}
@@ -0,0 +1,188 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TriangleMesh class.
+ * Tests that the mesh intersects rays exactly like the separate triangles it is made of.
+ */
+class TriangleMeshTest {
+    /**
+     * Size of the grid of the test mesh
+     */
+    private static final int GRID = 20;
+    /**
+     * Comparator of points by their coordinates, to compare intersections regardless of their order
+     */
+    private final Comparator<Point> byCoordinates = Comparator.comparingDouble(Point::getX)
+            .thenComparingDouble(Point::getY).thenComparingDouble(Point::getZ);
+    /**
+     * Vertices of a wavy grid surface with GRID x GRID squares, each made of two faces
+     */
+    private final double[] vertices = new double[3 * (GRID + 1) * (GRID + 1)];
+    /**
+     * Faces of the grid surface
+     */
+    private final int[] faces = new int[6 * GRID * GRID];
+    /**
+     * The mesh of the grid surface
+     */
+    private final TriangleMesh mesh;
+    /**
+     * The same surface made of separate triangles
+     */
+    private final Geometries triangles = new Geometries();
+
+    /**
+     * Builds the grid surface as a mesh and as separate triangles
+     */
+    TriangleMeshTest() {
+        for (int i = 0; i <= GRID; ++i)
+            for (int j = 0; j <= GRID; ++j) {
+                int v = 3 * (i * (GRID + 1) + j);
+                vertices[v] = j;
+                vertices[v + 1] = i;
+                vertices[v + 2] = -10 + Math.sin(i * 0.7) + Math.cos(j * 0.4);
+            }
+        int f = 0;
+        for (int i = 0; i < GRID; ++i)
+            for (int j = 0; j < GRID; ++j) {
+                int a = i * (GRID + 1) + j, b = a + 1, c = a + GRID + 1, d = c + 1;
+                faces[f++] = a;
+                faces[f++] = b;
+                faces[f++] = d;
+                faces[f++] = a;
+                faces[f++] = d;
+                faces[f++] = c;
+            }
+        mesh = new TriangleMesh(vertices, faces);
+        for (int k = 0; k < faces.length; k += 3)
+            triangles.add(new Triangle(vertex(faces[k]), vertex(faces[k + 1]), vertex(faces[k + 2])));
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: rays which cross the surface, some of them twice
+        for (int i = 0; i < 30; ++i) {
+            Ray ray = new Ray(new Point(i * 0.7 + 0.13, 3.3 + i * 0.5, 0), new Vector(0.3, -0.1 * i, -1));
+            assertEquals(sorted(triangles.findIntersections(ray)), sorted(mesh.findIntersections(ray)),
+                    "Mesh found different intersections than the triangles");
+        }
+        // TC02: ray which crosses the surface almost along it
+        Ray ray = new Ray(new Point(-1, 7.5, -9.5), new Vector(1, 0.05, -0.02));
+        assertEquals(sorted(triangles.findIntersections(ray)), sorted(mesh.findIntersections(ray)),
+                "Mesh found different intersections than the triangles");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray which misses the surface
+        assertNull(mesh.findIntersections(new Ray(new Point(5, 5, 0), new Vector(0, 0, 1))),
+                "Ray does not intersect the mesh");
+        // TC12: ray through a shared edge of two faces
+        assertNull(mesh.findIntersections(new Ray(new Point(2.5, 2.5, 0), new Vector(0, 0, -1))),
+                "Intersections on edges are not counted");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestHit(Ray, double, IntersectionCounters)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the mesh finds the same closest intersection as the triangles, with the normal of the face
+        for (int i = 0; i < 30; ++i) {
+            Ray ray = new Ray(new Point(i * 0.7 + 0.13, 3.3 + i * 0.5, 0), new Vector(0.3, -0.1 * i, -1));
+            Intersectable.Hit expected = triangles.findClosestHit(ray, Double.POSITIVE_INFINITY, null);
+            Intersectable.Hit hit = mesh.findClosestHit(ray, Double.POSITIVE_INFINITY, null);
+            assertEquals(expected == null, hit == null, "Mesh and triangles disagree on a hit");
+            if (expected != null) {
+                assertEquals(expected.t, hit.t, 0.000001, "Wrong closest distance");
+                Point point = hit.toGeoPoint(ray).point;
+                assertEquals(expected.geometry.getNormal(point), hit.geometry.getNormal(point, hit.face),
+                        "Wrong normal of the face");
+                assertSame(mesh, hit.geometry, "The mesh itself should be reported in the hit");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the surface is beyond the maximal distance
+        assertNull(mesh.findClosestHit(new Ray(new Point(5.3, 5.6, 0), new Vector(0, 0, -1)), 5, null),
+                "Surface is beyond the maximal distance");
+        assertFalse(mesh.isOccluded(new Ray(new Point(5.3, 5.6, 0), new Vector(0, 0, -1)), 5, null),
+                "Surface is beyond the maximal distance");
+        assertTrue(mesh.isOccluded(new Ray(new Point(5.3, 5.6, 0), new Vector(0, 0, -1)), 20, null),
+                "Surface blocks the ray");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: points of intersections have the normal of the face which was hit
+        for (int i = 0; i < 30; ++i) {
+            Ray ray = new Ray(new Point(i * 0.7 + 0.13, 3.3 + i * 0.5, 0), new Vector(0.3, -0.1 * i, -1));
+            Intersectable.Hit hit = mesh.findClosestHit(ray, Double.POSITIVE_INFINITY, null);
+            if (hit == null) continue;
+            Point point = hit.toGeoPoint(ray).point;
+            assertEquals(mesh.getNormal(point, hit.face), mesh.getNormal(point), "Wrong normal of the mesh");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: point which is not on the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(5.3, 5.6, 0)),
+                "Point is not on the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: correct mesh
+        assertEquals(2 * GRID * GRID, mesh.getFaceCount(), "Wrong amount of faces");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: face which refers to a missing vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "Face refers to a missing vertex");
+        // TC12: no faces
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[0]),
+                "Mesh without faces");
+    }
+
+    /**
+     * Returns a vertex of the test surface
+     *
+     * @param index the index of the vertex
+     * @return the vertex
+     */
+    private Point vertex(int index) {
+        return new Point(vertices[3 * index], vertices[3 * index + 1], vertices[3 * index + 2]);
+    }
+
+    /**
+     * Sorts a list of points by their coordinates
+     *
+     * @param points the points to sort, may be null
+     * @return the sorted points, or null if there are no points
+     */
+    private List<Point> sorted(List<Point> points) {
+        return points == null ? null : points.stream().sorted(byCoordinates).toList();
+    }
+}
@@ -1,6 +1,7 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -72,4 +73,28 @@ class TriangleTest {
                 "Ray does not cross the triangle");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Triangle#findBarycentric(Ray)}.
+     */
+    @Test
+    void testFindBarycentric() {
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(4, 0, 0), new Point(0, 4, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the triangle
+        assertEquals(new Double3(0.5, 0.25, 0.25),
+                triangle.findBarycentric(new Ray(new Point(1, 1, 3), new Vector(0, 0, -1))),
+                "Wrong barycentric coordinates");
+        // TC02: ray misses the triangle
+        assertNull(triangle.findBarycentric(new Ray(new Point(3, 3, 3), new Vector(0, 0, -1))),
+                "Ray does not cross the triangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray parallel to the triangle
+        assertNull(triangle.findBarycentric(new Ray(new Point(-1, 1, 0), new Vector(1, 0, 0))),
+                "Ray parallel to the triangle");
+        // TC12: ray starts on the triangle
+        assertNull(triangle.findBarycentric(new Ray(new Point(1, 1, 0), new Vector(0, 0, -1))),
+                "Ray starts on the triangle");
+    }
+}
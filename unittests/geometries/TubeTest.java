@@ -5,8 +5,9 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for the Tube class.
@@ -42,5 +43,41 @@ class TubeTest {
                 "ZERO vector is not allowed");
     }
 
+    /**
+     * Test method for {@link geometries.Tube#findIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray starts outside and crosses the tube
+        assertEquals(List.of(new Point(-1, 0, 2), new Point(1, 0, 2)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 2), new Vector(1, 0, 0))),
+                "Wrong intersections of a ray crossing the tube");
+        // TC02: ray starts inside the tube
+        assertEquals(List.of(new Point(0, 1, -3)),
+                tube.findIntersections(new Ray(new Point(0, 0, -3), new Vector(0, 1, 0))),
+                "Wrong intersection of a ray starting inside the tube");
+        // TC03: ray starts after the tube
+        assertNull(tube.findIntersections(new Ray(new Point(2, 0, 0), new Vector(1, 0, 1))),
+                "Ray starts after the tube");
+        // TC04: ray misses the tube
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 2, 0), new Vector(1, 0, 0))),
+                "Ray misses the tube");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray parallel to the axis, inside the tube
+        assertNull(tube.findIntersections(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))),
+                "Ray parallel to the axis");
+        // TC12: ray tangent to the tube
+        assertNull(tube.findIntersections(new Ray(new Point(-2, 1, 0), new Vector(1, 0, 0))),
+                "Ray tangent to the tube");
+        // TC13: slanted ray through the axis
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 3)),
+                tube.findIntersections(new Ray(new Point(-2, 0, 0), new Vector(1, 0, 1))),
+                "Wrong intersections of a slanted ray");
+    }
+
 
 }
\ No newline at end of file
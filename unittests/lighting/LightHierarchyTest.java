@@ -0,0 +1,78 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LightHierarchy class and the ranges of the lights.
+ */
+class LightHierarchyTest {
+
+    /**
+     * Test method for {@link lighting.PointLight#getRange(double)}.
+     */
+    @Test
+    void testGetRange() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: quadratic attenuation - 100 / (1 + 0.01 * 100^2) = 0.99
+        PointLight light = new PointLight(new Color(100, 50, 0), Point.ZERO).setKQ(0.01);
+        assertEquals(100, light.getRange(100 / 101.0), 1e-9, "Wrong range of quadratic attenuation");
+        // TC02: linear attenuation - 100 / (1 + 0.5 * 18) = 10
+        assertEquals(18, light.setKQ(0).setKL(0.5).getRange(10), 1e-9, "Wrong range of linear attenuation");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no attenuation by the distance
+        assertEquals(Double.POSITIVE_INFINITY, new PointLight(new Color(100, 50, 0), Point.ZERO).getRange(1),
+                "Light without attenuation has no range");
+        // TC12: the light is weaker than the minimal intensity everywhere
+        assertEquals(0, light.setKC(20).getRange(10), "Weak light has no range");
+        // TC13: no minimal intensity
+        assertEquals(Double.POSITIVE_INFINITY, light.getRange(0), "All the lights are considered");
+    }
+
+    /**
+     * Test method for {@link lighting.LightHierarchy#findLights(Point, int[])}.
+     */
+    @Test
+    void testFindLights() {
+        // A directional light and a row of small point lights, 10 apart, of range a little over 5
+        List<LightSource> lights = new ArrayList<>();
+        lights.add(new DirectionLight(new Color(10, 10, 10), new Vector(0, -1, 0)));
+        for (int i = 0; i < 20; ++i)
+            lights.add(new PointLight(new Color(100, 100, 100), new Point(10 * i, 0, 0)).setKQ(3.9));
+        lights.add(new SpotLight(new Color(100, 100, 100), new Point(0, 0, 2), new Vector(0, 0, 1)));
+        LightHierarchy hierarchy = new LightHierarchy(lights, 1);
+        int[] indices = new int[hierarchy.size()];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a point near a single point light
+        int count = hierarchy.findLights(new Point(52, 1, 0), indices);
+        assertArrayEquals(new int[]{0, 6}, Arrays.copyOf(indices, count), "Wrong lights near the point");
+        // TC02: a point far from all the point lights
+        count = hierarchy.findLights(new Point(0, 50, 0), indices);
+        assertArrayEquals(new int[]{0}, Arrays.copyOf(indices, count), "Only the directional light is unbounded");
+        // TC03: a point in front of the spotlight, in the range of the first point light
+        count = hierarchy.findLights(new Point(0, 0, 3), indices);
+        assertArrayEquals(new int[]{0, 1, 21}, Arrays.copyOf(indices, count), "Wrong lights in the scene order");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a point between two point lights, in the range of both
+        count = hierarchy.findLights(new Point(15, 0, 0), indices);
+        assertArrayEquals(new int[]{0, 2, 3}, Arrays.copyOf(indices, count), "Wrong lights between the lights");
+        // TC12: without a minimal intensity all the lights are found, except the spotlight behind the point
+        LightHierarchy all = new LightHierarchy(lights, 0);
+        assertEquals(lights.size() - 1, all.findLights(new Point(52, 1, 0), indices), "All the lights are found");
+        assertTrue(all.isBuiltFrom(lights), "Hierarchy was built from the lights");
+        lights.remove(0);
+        assertFalse(all.isBuiltFrom(lights), "Lights of the scene changed");
+        assertThrows(IllegalArgumentException.class, () -> new LightHierarchy(lights, -1), "Negative intensity");
+    }
+}
@@ -59,4 +59,20 @@ class PointTest {
         assertThrows(IllegalArgumentException.class, () -> new Point(1, 2, 3).subtract(p), //
                 "Subtract P from P must throw exception");
     }
+
+    /**
+     * Test method for {@link primitives.Point#directionFrom(primitives.Point)}.
+     */
+    @Test
+    void testDirectionFrom() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Simple test
+        assertEquals(new Vector(1, 2, 2).normalize(), new Point(2, 4, 5).directionFrom(p), //
+                "Wrong direction between points");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: test the direction from the same point
+        assertThrows(IllegalArgumentException.class, () -> new Point(1, 2, 3).directionFrom(p), //
+                "Direction from P to P must throw exception");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.AmbientLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the AccumulationBuffer class and the tone mapping operators.
+ */
+class AccumulationBufferTest {
+
+    /**
+     * Test method for {@link renderer.AccumulationBuffer#add(int, int, Color)}.
+     */
+    @Test
+    void testAdd() {
+        AccumulationBuffer buffer = new AccumulationBuffer(4, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: samples above 255 are kept until they are averaged
+        buffer.add(1, 2, new Color(600, 100, 0));
+        buffer.add(1, 2, new Color(200, 50, 10));
+        assertEquals(2, buffer.getSamples(1, 2), "Wrong amount of samples");
+        assertEquals(new Color(400, 75, 5).toString(), buffer.getColor(1, 2).toString(), "Wrong average");
+        // TC02: a tile of samples
+        buffer.add(2, 0, 2, 2, new Color[]{new Color(1, 1, 1), new Color(2, 2, 2),
+                new Color(3, 3, 3), new Color(4, 4, 4)});
+        assertEquals(new Color(3, 3, 3).toString(), buffer.getColor(2, 1).toString(), "Wrong sample of the tile");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: pixel without samples
+        assertEquals(0, buffer.getSamples(0, 0), "Pixel has no samples");
+        assertEquals(Color.BLACK.toString(), buffer.getColor(0, 0).toString(), "Pixel without samples is black");
+        // TC12: cleared buffer
+        buffer.clear();
+        assertEquals(0, buffer.getSamples(1, 2), "Samples were not cleared");
+    }
+
+    /**
+     * Test method for {@link renderer.AccumulationBuffer#writeTo(ImageWriter, ToneMapper)}.
+     */
+    @Test
+    void testWriteTo() {
+        AccumulationBuffer buffer = new AccumulationBuffer(2, 1);
+        ImageWriter image = new ImageWriter("accumulation", 2, 1);
+        buffer.add(0, 0, new Color(510, 255, 100));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: clamp, as the pixels are written directly
+        buffer.writeTo(image, ToneMapper.CLAMP);
+        assertEquals(new Color(510, 255, 100).getRGB(), image.readPixel(0, 0), "Wrong clamped pixel");
+        // TC02: Reinhard compresses white (255) to half of it
+        buffer.writeTo(image, ToneMapper.REINHARD);
+        assertEquals(170 << 16 | 127 << 8 | 71, image.readPixel(0, 0), "Wrong Reinhard pixel");
+        // TC03: ACES keeps the components in range and in order
+        for (double value = 0; value < 5000; value += 7.5) {
+            double mapped = ToneMapper.ACES.map(value);
+            assertTrue(mapped >= 0 && mapped <= 255, "ACES out of range");
+            assertTrue(mapped <= ToneMapper.ACES.map(value + 7.5), "ACES is not monotonic");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: pixel without samples is not written
+        assertEquals(0, image.readPixel(1, 0), "Pixel without samples was written");
+        // TC12: image of another resolution
+        assertThrows(IllegalArgumentException.class,
+                () -> buffer.writeTo(new ImageWriter("accumulation", 1, 2), ToneMapper.CLAMP),
+                "Image of another resolution");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setToneMapper(ToneMapper)}.
+     */
+    @Test
+    void testCameraToneMapping() throws CloneNotSupportedException {
+        Scene scene = new Scene("Tone mapping test scene")
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.2)));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(400, 100, 20)));
+        Camera.Builder builder = Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setUseAdaptiveSupersampling(false)
+                .setMultithreading(2);
+        ImageWriter direct = new ImageWriter("direct", 16, 16);
+        builder.setImageWriter(direct).build().renderImageMultyThreading();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: clamp tone mapping of the accumulated samples gives the image of the direct writing
+        ImageWriter mapped = new ImageWriter("mapped", 16, 16);
+        Camera camera = builder.setImageWriter(mapped).setToneMapper(ToneMapper.CLAMP).build();
+        camera.renderImageMultyThreading();
+        for (int y = 0; y < 16; ++y)
+            for (int x = 0; x < 16; ++x)
+                assertEquals(direct.readPixel(x, y), mapped.readPixel(x, y), "Wrong pixel " + x + "," + y);
+        assertEquals(1, camera.getAccumulationBuffer().getSamples(8, 8), "Wrong amount of samples");
+
+        // TC02: a second rendering accumulates more samples
+        camera.renderImageMultyThreading();
+        assertEquals(2, camera.getAccumulationBuffer().getSamples(8, 8), "Samples were not accumulated");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a camera without tone mapping has no accumulation buffer
+        assertNull(builder.setToneMapper(null).build().getAccumulationBuffer(), "Buffer without tone mapping");
+    }
+}
@@ -1,12 +1,19 @@
 package renderer;
 
+import geometries.Sphere;
 import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 import scene.Scene;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 //import scene.Scene;
 
 /**
@@ -67,4 +74,128 @@ class CameraTest {
 
     }
 
+    /**
+     * Test method for
+     * {@link renderer.Camera#constructRayDirections(int, int, int, int, int, int, double[])}.
+     */
+    @Test
+    void testConstructRayDirections() throws CloneNotSupportedException {
+        Camera camera = cameraBuilder.setVpSize(8, 6).build();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: 3X2 rectangle inside a 8X6 view plane - the directions of the rays of the pixels
+        double[] directions = new double[18];
+        camera.constructRayDirections(8, 6, 2, 3, 3, 2, directions);
+        for (int p = 0; p < 6; ++p)
+            assertEquals(camera.constructRay(8, 6, 2 + p % 3, 3 + p / 3).getDirection(),
+                    new Vector(directions[3 * p], directions[3 * p + 1], directions[3 * p + 2]), "Bad direction");
+
+        // =============== Boundary Values Tests ==================
+        // BV01: the whole view plane after rays of another resolution
+        camera.constructRay(4, 4, 0, 0);
+        directions = new double[3 * 48];
+        camera.constructRayDirections(8, 6, 0, 0, 8, 6, directions);
+        assertEquals(new Vector(3.5, -2.5, -10).normalize(), new Vector(directions[0], directions[1], directions[2]),
+                "Bad direction of the corner");
+        assertEquals(new Vector(-3.5, 2.5, -10).normalize(), new Vector(directions[141], directions[142], directions[143]),
+                "Bad direction of the opposite corner");
+    }
+
+    /**
+     * Test method for adaptive supersampling in {@link renderer.Camera#renderImageMultyThreading()}.
+     */
+    @Test
+    void testAdaptiveSupersampling() throws CloneNotSupportedException {
+        // An empty scene, so all the corners of the pixels have the color of the background
+        AtomicInteger traced = new AtomicInteger();
+        Scene scene = new Scene("Test").setBackground(new primitives.Color(10, 20, 30));
+        RayTracerBase counter = new SimpleRayTracer(scene) {
+            @Override
+            public primitives.Color traceRay(Ray ray) {
+                traced.incrementAndGet();
+                return super.traceRay(ray);
+            }
+        };
+        ImageWriter imageWriter = new ImageWriter("Test", 10, 10);
+        Camera.Builder builder = cameraBuilder.setVpSize(10, 10).setRayTracer(counter).setImageWriter(imageWriter)
+                .setUseAdaptiveSupersampling(true);
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: without threads - the pixels of a row share their corners
+        builder.setMultithreading(0).build().renderImageMultyThreading();
+        assertEquals(10 * 11 * 2, traced.get(), "Shared corners were traced again");
+
+        // EP02: a single tile - the pixels of all the rows share their corners
+        traced.set(0);
+        builder.setMultithreading(2).setTileSize(16).build().renderImageMultyThreading();
+        assertEquals(11 * 11, traced.get(), "Shared corners were traced again");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImageProgressive()}.
+     */
+    @Test
+    void testRenderImageProgressive() throws CloneNotSupportedException {
+        AtomicInteger traced = new AtomicInteger();
+        Scene scene = new Scene("Test").setBackground(new primitives.Color(10, 20, 30));
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 30).setEmission(new primitives.Color(200, 50, 0)));
+        RayTracerBase counter = new SimpleRayTracer(scene) {
+            @Override
+            public primitives.Color traceRay(Ray ray) {
+                traced.incrementAndGet();
+                return super.traceRay(ray);
+            }
+        };
+        ImageWriter direct = new ImageWriter("Test", 20, 20);
+        Camera.Builder builder = cameraBuilder.setVpSize(100, 100).setRayTracer(counter)
+                .setUseAdaptiveSupersampling(false).setMultithreading(0);
+        builder.setImageWriter(direct).build().renderImageMultyThreading();
+
+        // ============ Equivalence Partitions Tests ==============
+        // EP01: a single sample - every pixel is traced once, through its center
+        traced.set(0);
+        ImageWriter progressive = new ImageWriter("Test", 20, 20);
+        builder.setImageWriter(progressive).setProgressive(1, 0).build().renderImageProgressive();
+        assertEquals(20 * 20, traced.get(), "Pixels were traced again");
+        for (int y = 0; y < 20; ++y)
+            for (int x = 0; x < 20; ++x)
+                assertEquals(direct.readPixel(x, y), progressive.readPixel(x, y), "Wrong pixel " + x + "," + y);
+
+        // EP02: refinement passes with threads - every pixel has all the samples
+        traced.set(0);
+        Camera camera = builder.setProgressive(4, 0).setToneMapper(ToneMapper.CLAMP).setMultithreading(-1).build();
+        camera.renderImageProgressive();
+        assertEquals(4 * 20 * 20, traced.get(), "Wrong amount of samples");
+        for (int y = 0; y < 20; ++y)
+            for (int x = 0; x < 20; ++x)
+                assertEquals(4, camera.getAccumulationBuffer().getSamples(x, y), "Wrong samples of " + x + "," + y);
+
+        // EP03: a set amount of threads - the passes are rendered by the threads of the camera's own pool
+        traced.set(0);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        RayTracerBase recorder = new SimpleRayTracer(scene) {
+            @Override
+            public primitives.Color traceRay(Ray ray) {
+                traced.incrementAndGet();
+                threads.add(Thread.currentThread().getName());
+                return super.traceRay(ray);
+            }
+        };
+        builder.setRayTracer(recorder).setMultithreading(3).setTileSize(4).build().renderImageProgressive();
+        assertEquals(4 * 20 * 20, traced.get(), "Wrong amount of samples with a pool");
+        assertTrue(threads.stream().noneMatch(name -> name.contains("commonPool")),
+                "The passes were rendered by the common pool: " + threads);
+        builder.setRayTracer(counter).setMultithreading(-1);
+
+        // =============== Boundary Values Tests ==================
+        // BV01: the time budget is over at once - only the first pass is done, and it fills the image
+        traced.set(0);
+        ImageWriter preview = new ImageWriter("Test", 20, 20);
+        builder.setImageWriter(preview).setToneMapper(null).setProgressive(100, 1e-9).build().renderImageProgressive();
+        assertEquals(3 * 3, traced.get(), "Only a pixel of every block should be traced");
+        for (int y = 0; y < 20; ++y)
+            for (int x = 0; x < 20; ++x)
+                assertNotEquals(0, preview.readPixel(x, y), "Pixel " + x + "," + y + " was not written");
+        assertEquals(direct.readPixel(8, 8), preview.readPixel(15, 15), "Block without the pixel of its block");
+    }
 }
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import primitives.Color;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * This class is responsible for writing an image with a grid pattern.
@@ -51,5 +52,28 @@ class ImageWriterTest {
 //        image.writeToImage();
 //    }
     }
-}
 
+    /**
+     * Test method for {@link renderer.ImageWriter#writePixels(int, int, int, int, Color[])}.
+     */
+    @Test
+    void testWritePixels() {
+        ImageWriter image = new ImageWriter("tiles", 5, 4);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a 2X3 tile inside the image, written row by row
+        Color[] colors = new Color[6];
+        for (int p = 0; p < 6; ++p) colors[p] = new Color(10 * p, 20, 300);
+        image.writePixels(2, 1, 2, 3, colors);
+        for (int p = 0; p < 6; ++p)
+            assertEquals(new java.awt.Color(10 * p, 20, 255).getRGB() & 0xFFFFFF, image.readPixel(2 + p % 2, 1 + p / 2),
+                    "Wrong pixel of the tile");
+        assertEquals(0, image.readPixel(1, 1), "Pixel outside the tile was written");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a whole row
+        image.writePixels(0, 0, 5, 1, new Color[]{colors[1], colors[2], colors[3], colors[4], colors[5]});
+        assertEquals(colors[5].getRGB(), image.readPixel(4, 0), "Wrong last pixel of the row");
+        assertEquals(0, image.readPixel(0, 1), "Pixel of the next row was written");
+    }
+}
@@ -0,0 +1,190 @@
+package renderer;
+
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MeshLoader class.
+ * Every format is tested with the same model - a unit square at z = -1 made of a quad, and a triangle
+ * beside it at x between 2 and 3.
+ */
+class MeshLoaderTest {
+    /**
+     * Ray through the middle of the first half of the square
+     */
+    private final Ray squareRay = new Ray(new Point(0.25, 0.75, 0), new Vector(0, 0, -1));
+    /**
+     * Ray through the triangle
+     */
+    private final Ray triangleRay = new Ray(new Point(2.2, 0.2, 0), new Vector(0, 0, -1));
+
+    /**
+     * Test method for {@link renderer.MeshLoader#loadObj(InputStream)}.
+     */
+    @Test
+    void testLoadObj() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: vertices, a quad with texture and normal indexes, and a triangle with relative indexes
+        String obj = """
+                # test model
+                o square
+                v 0 0 -1
+                v 1 0 -1
+                v 1 1 -1
+                v 0 1 -1
+                vt 0 0
+                vn 0 0 1
+                f 1/1/1 2/1/1 3/1/1 4/1/1
+                v 2 0 -1
+                v\t3 0 -1
+                v 2 1 -1
+                usemtl none
+                f -3//1 -2//1 -1//1
+                """;
+        assertModel(MeshLoader.loadObj(stream(obj.getBytes(StandardCharsets.US_ASCII))));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: face with less than 3 vertices
+        assertThrows(IOException.class,
+                () -> MeshLoader.loadObj(stream("v 0 0 0\nv 1 0 0\nf 1 2\n".getBytes(StandardCharsets.US_ASCII))),
+                "Face with 2 vertices is malformed");
+        // TC12: face which refers to a missing vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> MeshLoader.loadObj(stream("v 0 0 0\nv 1 0 0\nf 1 2 3\n".getBytes(StandardCharsets.US_ASCII))),
+                "Face refers to a missing vertex");
+    }
+
+    /**
+     * Test method for {@link renderer.MeshLoader#loadPly(InputStream)}.
+     */
+    @Test
+    void testLoadPly() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: binary little endian, with another vertex property and another face list
+        assertModel(MeshLoader.loadPly(stream(binaryPly(ByteOrder.LITTLE_ENDIAN))));
+        // TC02: binary big endian
+        assertModel(MeshLoader.loadPly(stream(binaryPly(ByteOrder.BIG_ENDIAN))));
+        // TC03: ASCII
+        String ply = """
+                ply
+                format ascii 1.0
+                comment test model
+                element vertex 7
+                property float x
+                property float y
+                property float z
+                element face 2
+                property list uchar int vertex_indices
+                end_header
+                0 0 -1
+                1 0 -1
+                1 1 -1
+                0 1 -1
+                2 0 -1
+                3 0 -1
+                2 1 -1
+                4 0 1 2 3
+                3 4 5 6
+                """;
+        assertModel(MeshLoader.loadPly(stream(ply.getBytes(StandardCharsets.US_ASCII))));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: data which ends before all the elements were read
+        byte[] truncated = binaryPly(ByteOrder.LITTLE_ENDIAN);
+        assertThrows(IOException.class,
+                () -> MeshLoader.loadPly(stream(java.util.Arrays.copyOf(truncated, truncated.length - 5))),
+                "Truncated PLY data");
+        // TC12: not a PLY file
+        assertThrows(IOException.class,
+                () -> MeshLoader.loadPly(stream("v 0 0 0\n".getBytes(StandardCharsets.US_ASCII))),
+                "Not a PLY file");
+    }
+
+    /**
+     * Test method for the mesh element of {@link renderer.SceneLoader#loadSceneFromFile(String)}.
+     */
+    @Test
+    void testSceneLoaderMesh(@TempDir Path directory) throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: scene with a mesh file relative to the scene file
+        Files.write(directory.resolve("model.ply"), binaryPly(ByteOrder.LITTLE_ENDIAN));
+        Files.writeString(directory.resolve("scene.xml"), """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <scene name="Mesh scene" background-color="0 0 0">
+                    <ambientLight color="255 255 255" k="1.0"/>
+                    <geometries>
+                        <mesh file="model.ply" emission="10 20 30"/>
+                    </geometries>
+                </scene>
+                """);
+        Scene scene = new SceneLoader().loadSceneFromFile(directory.resolve("scene.xml").toString());
+        assertNotNull(scene, "Scene was not loaded");
+        assertEquals(List.of(new Point(0.25, 0.75, -1)), scene.geometries.findIntersections(squareRay),
+                "Wrong intersection with the mesh of the scene");
+    }
+
+    /**
+     * Checks a loaded mesh of the test model
+     *
+     * @param mesh the mesh
+     */
+    private void assertModel(TriangleMesh mesh) {
+        assertEquals(3, mesh.getFaceCount(), "Wrong amount of faces");
+        assertEquals(List.of(new Point(0.25, 0.75, -1)), mesh.findIntersections(squareRay),
+                "Wrong intersection with the square");
+        assertEquals(List.of(new Point(2.2, 0.2, -1)), mesh.findIntersections(triangleRay),
+                "Wrong intersection with the triangle");
+    }
+
+    /**
+     * Writes the test model as a binary PLY file, with another vertex property (a double confidence)
+     * and another face list (unsigned short flags) which the loader should skip
+     *
+     * @param order the byte order of the file
+     * @return the contents of the file
+     */
+    private byte[] binaryPly(ByteOrder order) {
+        String header = "ply\r\nformat " + (order == ByteOrder.LITTLE_ENDIAN ? "binary_little_endian" : "binary_big_endian")
+                + " 1.0\nelement vertex 7\nproperty float x\nproperty double confidence\nproperty float y\n"
+                + "property float z\nelement face 2\nproperty list uchar ushort flags\n"
+                + "property list uchar uint vertex_indices\nend_header\n";
+        float[][] points = {{0, 0, -1}, {1, 0, -1}, {1, 1, -1}, {0, 1, -1}, {2, 0, -1}, {3, 0, -1}, {2, 1, -1}};
+        ByteBuffer data = ByteBuffer.allocate(1024).order(order);
+        for (float[] point : points)
+            data.putFloat(point[0]).putDouble(0.5).putFloat(point[1]).putFloat(point[2]);
+        data.put((byte) 1).putShort((short) 7).put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3);
+        data.put((byte) 0).put((byte) 3).putInt(4).putInt(5).putInt(6);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(header.getBytes(StandardCharsets.US_ASCII));
+        out.write(data.array(), 0, data.position());
+        return out.toByteArray();
+    }
+
+    /**
+     * Wraps the contents of a file with a stream
+     *
+     * @param bytes the contents
+     * @return the stream
+     */
+    private InputStream stream(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+}
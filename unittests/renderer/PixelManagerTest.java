@@ -0,0 +1,56 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PixelManager class.
+ */
+class PixelManagerTest {
+    /**
+     * Claims ranges of pixels until there are no more, counting how many times every pixel was claimed
+     *
+     * @param manager the pixel manager
+     * @param count   the amount of pixels of a range
+     * @param claims  the amount of claims of every pixel, by its index
+     */
+    private static void claimAll(PixelManager manager, int count, AtomicIntegerArray claims) {
+        for (long first = manager.nextPixels(count); first >= 0; first = manager.nextPixels(count))
+            for (long index = first; index < Math.min(first + count, claims.length()); ++index)
+                claims.incrementAndGet((int) index);
+    }
+
+    /**
+     * Test method for {@link renderer.PixelManager#nextPixels(int)}.
+     */
+    @Test
+    void testNextPixels() throws InterruptedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: several threads claim ranges - every pixel is handed out exactly once
+        PixelManager manager = new PixelManager(37, 53, 0);
+        AtomicIntegerArray claims = new AtomicIntegerArray(37 * 53);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; ++t) {
+            threads[t] = new Thread(() -> claimAll(manager, 10, claims));
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        for (int index = 0; index < claims.length(); ++index)
+            assertEquals(1, claims.get(index), "Pixel " + index + " was not handed out exactly once");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a range larger than the image hands out the whole image at once
+        PixelManager single = new PixelManager(3, 4, 0);
+        assertEquals(0, single.nextPixels(100), "The range should start at the first pixel");
+        assertEquals(-1, single.nextPixels(100), "There should be no more pixels");
+
+        // TC12: ranges of a single pixel
+        PixelManager one = new PixelManager(1, 2, 0);
+        assertEquals(0, one.nextPixels(1), "Wrong first pixel");
+        assertEquals(1, one.nextPixels(1), "Wrong second pixel");
+        assertEquals(-1, one.nextPixels(1), "There should be no more pixels");
+    }
+}
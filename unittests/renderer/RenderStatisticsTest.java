@@ -0,0 +1,122 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RenderStatistics class.
+ */
+class RenderStatisticsTest {
+    /**
+     * Scene of a mirror sphere on a plane, lit by a point light
+     */
+    private final Scene scene = new Scene("Statistics test scene");
+
+    /**
+     * Builds the scene
+     */
+    RenderStatisticsTest() {
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -100), 40).setEmission(new Color(50, 20, 20))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30).setkR(0.5)),
+                new Plane(new Point(0, -40, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKD(0.5)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(50, 100, 0)));
+    }
+
+    /**
+     * Renders the scene with statistics
+     *
+     * @param rayTracer  the ray tracer
+     * @param adaptive   true for adaptive supersampling
+     * @param threads    the amount of threads, 0 for rendering in the calling thread
+     * @param statistics the statistics
+     */
+    private void render(RayTracerBase rayTracer, boolean adaptive, int threads, RenderStatistics statistics)
+            throws CloneNotSupportedException {
+        Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(100).setVpSize(200, 200)
+                .setImageWriter(new ImageWriter("Statistics", 20, 20))
+                .setRayTracer(rayTracer)
+                .setUseAdaptiveSupersampling(adaptive)
+                .setMultithreading(threads)
+                .setStatistics(statistics)
+                .build()
+                .renderImageMultyThreading();
+    }
+
+    /**
+     * Test method for the statistics of {@link renderer.Camera#renderImageMultyThreading()}.
+     */
+    @Test
+    void testRenderStatistics() throws CloneNotSupportedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: regular rendering - a primary ray per pixel
+        RenderStatistics statistics = new RenderStatistics();
+        render(new SimpleRayTracer(scene), false, 2, statistics);
+        assertEquals(400, statistics.getPrimaryRays(), "Wrong amount of primary rays");
+        assertTrue(statistics.getShadowRays() > 0, "Shadow rays were not counted");
+        assertTrue(statistics.getReflectedRays() > 0, "Reflected rays were not counted");
+        assertEquals(0, statistics.getRefractedRays(), "Nothing is transparent");
+        assertTrue(statistics.getAverageDepth() > 0 && statistics.getAverageDepth() < 10, "Wrong average depth");
+        assertTrue(statistics.getIntersectionTests().get("Sphere") > 0, "Sphere tests were not counted");
+        assertTrue(statistics.getIntersectionTests().get("Plane") > 0, "Plane tests were not counted");
+        assertTrue(statistics.getPhases().containsKey("render"), "Render time was not measured");
+        assertEquals(0, statistics.getSamples(), "Adaptive supersampling wasn't used");
+
+        // TC02: the wavefront ray tracer counts the same rays
+        RenderStatistics wavefront = new RenderStatistics();
+        render(new WavefrontRayTracer(scene), false, 2, wavefront);
+        assertEquals(statistics.getPrimaryRays(), wavefront.getPrimaryRays(), "Wrong amount of primary rays");
+        assertEquals(statistics.getShadowRays(), wavefront.getShadowRays(), "Wrong amount of shadow rays");
+        assertEquals(statistics.getReflectedRays(), wavefront.getReflectedRays(), "Wrong amount of reflected rays");
+        assertEquals(statistics.getAverageDepth(), wavefront.getAverageDepth(), 1e-10, "Wrong average depth");
+
+        // TC03: adaptive supersampling - every traced sample is a primary ray
+        RenderStatistics adaptive = new RenderStatistics();
+        render(new SimpleRayTracer(scene), true, 2, adaptive);
+        assertTrue(adaptive.getSubdivisions() > 0, "Edges of the sphere were not subdivided");
+        assertEquals(adaptive.getSamples(), adaptive.getPrimaryRays(), "Wrong amount of samples");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: statistics are not changed by a later rendering with other statistics
+        Map<String, Long> tests = statistics.getIntersectionTests();
+        render(new SimpleRayTracer(scene), false, 2, new RenderStatistics());
+        assertEquals(tests, statistics.getIntersectionTests(), "Tests of another rendering were counted");
+        assertEquals(400, statistics.getPrimaryRays(), "Rays of another rendering were counted");
+
+        // TC12: renderings at the same time count their tests separately. The cached shadow occluders
+        // depend on the pixels every thread renders, so each rendering runs in a single thread.
+        RenderStatistics single = new RenderStatistics();
+        render(new WavefrontRayTracer(scene), false, 0, single);
+        Map<String, Long> alone = single.getIntersectionTests();
+        RenderStatistics first = new RenderStatistics();
+        RenderStatistics second = new RenderStatistics();
+        Thread thread = new Thread(() -> {
+            try {
+                render(new WavefrontRayTracer(scene), false, 0, second);
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        render(new WavefrontRayTracer(scene), false, 0, first);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            fail("Interrupted while waiting for the other rendering");
+        }
+        assertEquals(alone, first.getIntersectionTests(), "Tests of a concurrent rendering were counted");
+        assertEquals(alone, second.getIntersectionTests(), "Tests of a concurrent rendering were counted");
+    }
+}
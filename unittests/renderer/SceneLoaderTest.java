@@ -0,0 +1,149 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SceneLoader class.
+ */
+class SceneLoaderTest {
+    /**
+     * A scene with all the kinds of elements
+     */
+    private static final String SCENE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <scene name="Full scene" background-color="10 20 30">
+                <ambientLight color="255 255 255" k="0.1"/>
+                <camera location="0 0 1000" direction="0 0 -1" up="0 1 0" vp-distance="1000"
+                        vp-size="200 200" resolution="50 40" image="loaded"/>
+                <materials>
+                    <material name="shiny" kd="0.5" ks="0.5" shininess="100"/>
+                </materials>
+                <geometries>
+                    <sphere center="0 0 -100" radius="50" emission="100 20 20" material="shiny"/>
+                    <triangle p0="-100 0 -100" p1="0 100 -100" p2="-100 100 -100"/>
+                    <polygon vertices="200 0 -100, 300 0 -100, 300 100 -100, 200 100 -100"/>
+                    <plane point="0 -500 0" normal="0 1 0"/>
+                    <cylinder radius="10" head="0 0 -300" direction="0 1 0" height="20"/>
+                    <mesh file="square.obj" material="shiny"/>
+                </geometries>
+                <lights>
+                    <directionalLight intensity="100 100 100" direction="0 -1 -1"/>
+                    <pointLight intensity="500 500 500" position="0 100 0" kl="0.0005"/>
+                    <spotLight intensity="500 500 500" position="0 100 0" direction="0 -1 0" narrow-beam="10"/>
+                </lights>
+            </scene>
+            """;
+    /**
+     * A mesh of a square, at x and y between 500 and 600
+     */
+    private static final String SQUARE = """
+            v 500 500 -100
+            v 600 500 -100
+            v 600 600 -100
+            v 500 600 -100
+            f 1 2 3 4
+            """;
+
+    /**
+     * Test method for {@link renderer.SceneLoader#loadSceneFromFile(String)}.
+     */
+    @Test
+    void testLoadSceneFromFile(@TempDir Path directory) throws IOException, CloneNotSupportedException {
+        SceneLoader loader = new SceneLoader();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: scene with geometries, materials, lights and a camera
+        Path file = directory.resolve("scene.xml");
+        Files.writeString(file, SCENE);
+        Files.writeString(directory.resolve("square.obj"), SQUARE);
+        Scene scene = loader.loadSceneFromFile(file.toString());
+        assertNotNull(scene, "Scene was not loaded");
+        assertEquals("Full scene", scene.name, "Wrong scene name");
+        assertEquals(new java.awt.Color(10, 20, 30), scene.background.getColor(), "Wrong background");
+        assertEquals(3, scene.lights.size(), "Wrong amount of lights");
+        assertInstanceOf(PointLight.class, scene.lights.get(1), "Wrong type of light");
+        assertInstanceOf(SpotLight.class, scene.lights.get(2), "Wrong type of light");
+
+        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(
+                new Ray(new Point(0, 0, 0), new Vector(0, 0, -1)));
+        assertEquals(2, intersections.size(), "Wrong intersections with the sphere");
+        assertEquals(new java.awt.Color(100, 20, 20), intersections.get(0).geometry.getEmission().getColor(), "Wrong emission");
+        assertEquals(100, intersections.get(0).geometry.getMaterial().shininess, "Wrong material");
+        assertEquals(1, scene.geometries.findIntersections(
+                new Ray(new Point(250, 50, 0), new Vector(0, 0, -1))).size(), "Polygon was not loaded");
+
+        Camera camera = loader.getCameraBuilder().build();
+        assertEquals(new Point(0, 0, 1000), camera.getPosition(), "Wrong camera location");
+        assertEquals(1000, camera.getDistance(), "Wrong view plane distance");
+        assertEquals(9, loader.getLoadedRecords(), "Wrong amount of geometries and lights");
+        assertTrue(loader.getLoadTime() > 0, "The load time was not measured");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: geometry with a material which was not defined
+        Files.writeString(file, SCENE.replace("material=\"shiny\"", "material=\"glass\""));
+        assertNull(loader.loadSceneFromFile(file.toString()), "Undefined material");
+        assertEquals(0, loader.getLoadedRecords(), "A failed load has no records");
+        // TC12: scene without a camera
+        Files.writeString(file, SCENE.replaceAll("(?s)<camera.*?/>", ""));
+        assertNotNull(loader.loadSceneFromFile(file.toString()), "Scene was not loaded");
+        assertNull(loader.getCameraBuilder(), "Scene has no camera");
+    }
+
+    /**
+     * Test method for {@link renderer.SceneLoader#saveBinary(String, String)}.
+     */
+    @Test
+    void testSaveBinary(@TempDir Path directory) throws IOException, CloneNotSupportedException {
+        SceneLoader loader = new SceneLoader();
+        Path xml = directory.resolve("scene.xml");
+        Path binary = directory.resolve("scene.bin");
+        Files.writeString(xml, SCENE);
+        Files.writeString(directory.resolve("square.obj"), SQUARE);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the binary file loads the same scene as the XML file
+        Scene fromXml = loader.loadSceneFromFile(xml.toString());
+        assertTrue(loader.saveBinary(xml.toString(), binary.toString()), "Binary file was not written");
+        Scene scene = loader.loadSceneFromFile(binary.toString());
+        assertNotNull(scene, "Binary scene was not loaded");
+        assertEquals(fromXml.name, scene.name, "Wrong scene name");
+        assertEquals(fromXml.background.getColor(), scene.background.getColor(), "Wrong background");
+        assertEquals(fromXml.lights.size(), scene.lights.size(), "Wrong amount of lights");
+        for (Ray ray : List.of(new Ray(new Point(0, 0, 0), new Vector(0, 0, -1)),
+                new Ray(new Point(250, 50, 0), new Vector(0, 0, -1)),
+                new Ray(new Point(550, 520, 0), new Vector(0, 0, -1)),
+                new Ray(new Point(0, 0, -300), new Vector(1, 0.2, 0.1)))) {
+            List<GeoPoint> expected = fromXml.geometries.findGeoIntersections(ray);
+            List<GeoPoint> actual = scene.geometries.findGeoIntersections(ray);
+            assertEquals(expected.size(), actual.size(), "Wrong amount of intersections");
+            for (int i = 0; i < expected.size(); ++i) {
+                assertEquals(expected.get(i).point, actual.get(i).point, "Wrong intersection");
+                assertEquals(expected.get(i).geometry.getMaterial().shininess,
+                        actual.get(i).geometry.getMaterial().shininess, "Wrong material");
+            }
+        }
+        Camera camera = loader.getCameraBuilder().build();
+        assertEquals(new Point(0, 0, 1000), camera.getPosition(), "Wrong camera location");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: truncated binary file
+        byte[] bytes = Files.readAllBytes(binary);
+        Files.write(binary, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(loader.loadSceneFromFile(binary.toString()), "Truncated binary file");
+    }
+}
@@ -0,0 +1,120 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Plane;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the SimpleRayTracer class.
+ * The scene is a black mirror in front of the ray and a red mirror behind it, so the ray bounces between
+ * them and every hit of the red mirror adds its emission to the color.
+ */
+class SimpleRayTracerTest {
+    /**
+     * The ray between the mirrors
+     */
+    private final Ray ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+    /**
+     * The material of the red mirror
+     */
+    private final Material redMirror = new Material().setkR(0.5);
+
+    /**
+     * Builds a scene of the two mirrors
+     *
+     * @return the scene
+     */
+    private Scene mirrors() {
+        Scene scene = new Scene("Mirrors test scene");
+        scene.geometries = new Geometries(
+                new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(new Material().setkR(0.5)),
+                new Plane(new Point(0, 0, 100), new Vector(0, 0, -1))
+                        .setEmission(new Color(10, 0, 0)).setMaterial(redMirror));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setRayBudget(int)}.
+     */
+    @Test
+    void testSetRayBudget() {
+        Scene scene = mirrors();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: no budget - the red mirror is hit at depths 1, 3, 5, 7 and 9
+        assertEquals(new java.awt.Color(50, 0, 0), new SimpleRayTracer(scene).traceRay(ray).getColor(),
+                "Wrong color without a budget");
+        // TC02: budget of 4 rays - the red mirror is hit at depths 1 and 3
+        assertEquals(new java.awt.Color(20, 0, 0), new SimpleRayTracer(scene).setRayBudget(4).traceRay(ray).getColor(),
+                "Wrong color with a budget");
+        assertEquals(new java.awt.Color(20, 0, 0),
+                new WavefrontRayTracer(scene).setRayBudget(4).traceRay(ray).getColor(),
+                "Wrong color of the wavefront tracer with a budget");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: budget of 0 - the primary ray only
+        assertEquals(new java.awt.Color(0, 0, 0), new SimpleRayTracer(scene).setRayBudget(0).traceRay(ray).getColor(),
+                "Wrong color with an empty budget");
+        // TC12: negative budget
+        assertThrows(IllegalArgumentException.class, () -> new SimpleRayTracer(scene).setRayBudget(-1),
+                "Negative budget");
+    }
+
+    /**
+     * Test method for the maximal depth of a material in {@link renderer.SimpleRayTracer#traceRay(Ray)}.
+     */
+    @Test
+    void testMaterialMaxDepth() {
+        Scene scene = mirrors();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the red mirror reflects rays up to depth 3 - it is hit at depths 1 and 3
+        redMirror.setMaxDepth(3);
+        assertEquals(new java.awt.Color(20, 0, 0), new SimpleRayTracer(scene).traceRay(ray).getColor(),
+                "Wrong color with a maximal depth");
+        assertEquals(new java.awt.Color(20, 0, 0), new WavefrontRayTracer(scene).traceRay(ray).getColor(),
+                "Wrong color of the wavefront tracer with a maximal depth");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the red mirror doesn't reflect at all
+        redMirror.setMaxDepth(0);
+        assertEquals(new java.awt.Color(10, 0, 0), new SimpleRayTracer(scene).traceRay(ray).getColor(),
+                "Wrong color with a maximal depth of 0");
+    }
+
+    /**
+     * Test method for {@link renderer.SimpleRayTracer#setMinLightIntensity(double)}.
+     */
+    @Test
+    void testSetMinLightIntensity() {
+        // A diffusive wall in front of the ray, a red light near it and a green light far from it
+        Scene scene = new Scene("Lights test scene");
+        scene.geometries.add(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(new Material().setKD(1)));
+        scene.lights.add(new PointLight(new Color(100, 0, 0), new Point(0, 0, -90)).setKQ(0.01));
+        scene.lights.add(new PointLight(new Color(0, 100, 0), new Point(1000, 0, -50)).setKQ(0.01));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: all the lights are considered
+        Color all = new SimpleRayTracer(scene).traceRay(ray);
+        assertEquals(50, all.getRed(), 1e-10, "Wrong light of the near light");
+        assertTrue(all.getGreen() > 0, "The far light illuminates the wall");
+        // TC02: the far light is weaker than the minimal intensity at the wall
+        Color near = new SimpleRayTracer(scene).setMinLightIntensity(1).traceRay(ray);
+        assertEquals(50, near.getRed(), 1e-10, "Wrong light of the near light");
+        assertEquals(0, near.getGreen(), "The far light is not considered");
+        assertEquals(near.toString(), new WavefrontRayTracer(scene).setMinLightIntensity(1).traceRay(ray).toString(),
+                "Wrong color of the wavefront tracer");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: negative minimal intensity
+        assertThrows(IllegalArgumentException.class, () -> new SimpleRayTracer(scene).setMinLightIntensity(-1),
+                "Negative minimal intensity");
+    }
+}
@@ -0,0 +1,128 @@
+package renderer;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the WavefrontRayTracer class.
+ * The wavefront tracer must compute exactly the colors of the simple ray tracer.
+ */
+class WavefrontRayTracerTest {
+    /**
+     * Scene with reflective and transparent geometries, shadows and a mirror floor
+     */
+    private final Scene scene = new Scene("Wavefront test scene")
+            .setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)))
+            .setBackground(new Color(20, 20, 40));
+
+    /**
+     * Builds the scene of random spheres and triangles
+     */
+    WavefrontRayTracerTest() {
+        Random random = new Random(4909);
+        Intersectable[] bodies = new Intersectable[61];
+        for (int i = 0; i < 60; ++i) {
+            Point center = new Point(random.nextDouble(-100, 100), random.nextDouble(-60, 60),
+                    random.nextDouble(-300, -100));
+            Material material = new Material().setKD(0.5).setKS(0.5).setShininess(60)
+                    .setkT(i % 3 == 0 ? 0.5 : 0).setkR(i % 4 == 0 ? 0.4 : 0);
+            bodies[i] = i % 2 == 0
+                    ? new Sphere(center, 12).setEmission(new Color(80, 30, 30)).setMaterial(material)
+                    : new Triangle(center, center.add(new Vector(25, 0, 0)), center.add(new Vector(0, 25, 8)))
+                    .setEmission(new Color(30, 30, 80)).setMaterial(material);
+        }
+        bodies[60] = new Plane(new Point(0, -70, 0), new Vector(0, 1, 0))
+                .setEmission(new Color(40, 40, 40)).setMaterial(new Material().setKD(0.6).setkR(0.5));
+        scene.geometries = new BoundingVolumeHierarchy(bodies);
+        scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(-50, 100, 0)).setKL(0.0005));
+        scene.lights.add(new SpotLight(new Color(400, 400, 600), new Point(80, 80, -50), new Vector(-1, -1, -1))
+                .setKL(0.0005));
+    }
+
+    /**
+     * Test method for {@link renderer.WavefrontRayTracer#traceBatch(Ray[], int, Color[])}.
+     */
+    @Test
+    void testTraceBatch() {
+        int n = 64;
+        Ray[] rays = new Ray[n * n];
+        for (int i = 0; i < n; ++i)
+            for (int j = 0; j < n; ++j)
+                rays[i * n + j] = new Ray(Point.ZERO, new Vector(j - n / 2 + 0.5, i - n / 2 + 0.5, -n / 1.5));
+        Color[] expected = new Color[rays.length];
+        new SimpleRayTracer(scene).traceBatch(rays, rays.length, expected);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a batch of rays which hit, miss, reflect and refract
+        Color[] colors = new Color[rays.length];
+        WavefrontRayTracer tracer = new WavefrontRayTracer(scene);
+        tracer.traceBatch(rays, rays.length, colors);
+        for (int i = 0; i < rays.length; ++i)
+            assertEquals(expected[i].toString(), colors[i].toString(), "Wrong color of ray " + i);
+        // TC02: a batch of rays with a ray budget
+        Color[] limited = new Color[rays.length];
+        new SimpleRayTracer(scene).setRayBudget(3).traceBatch(rays, rays.length, limited);
+        new WavefrontRayTracer(scene).setRayBudget(3).traceBatch(rays, rays.length, colors);
+        for (int i = 0; i < rays.length; ++i)
+            assertEquals(limited[i].toString(), colors[i].toString(), "Wrong color of ray " + i + " with a budget");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a batch of a single ray, after a larger batch
+        for (int i = 0; i < rays.length; i += 97)
+            assertEquals(expected[i].toString(), tracer.traceRay(rays[i]).toString(), "Wrong color of ray " + i);
+    }
+
+    /**
+     * Test method for {@link renderer.WavefrontRayTracer#traceBatch(Ray[], int, Color[])} on a floor shadowed
+     * by an opaque sphere, a mesh and a transparent sphere.
+     */
+    @Test
+    void testTraceBatchShadows() {
+        Scene shadows = new Scene("Wavefront shadows scene")
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.05)));
+        Material material = new Material().setKD(0.5).setKS(0.5).setShininess(30);
+        shadows.geometries.add(
+                new Plane(new Point(0, -50, 0), new Vector(0, 1, 0))
+                        .setEmission(new Color(30, 30, 30)).setMaterial(material),
+                new Sphere(new Point(-40, -20, -200), 20).setEmission(new Color(60, 20, 20)).setMaterial(material),
+                new Sphere(new Point(40, -20, -200), 20).setEmission(new Color(20, 20, 60))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.5).setShininess(30).setkT(0.6)),
+                new TriangleMesh(new double[]{-15, -10, -150, 15, -10, -150, 15, -10, -120, -15, -10, -120},
+                        new int[]{0, 1, 2, 0, 2, 3})
+                        .setEmission(new Color(20, 60, 20)).setMaterial(material));
+        shadows.lights.add(new PointLight(new Color(600, 500, 400), new Point(0, 100, -180)).setKL(0.0005));
+        shadows.lights.add(new SpotLight(new Color(400, 400, 600), new Point(60, 80, -100),
+                new Vector(-1, -2, -1)).setKL(0.0005));
+
+        int n = 48;
+        Ray[] rays = new Ray[n * n];
+        for (int i = 0; i < n; ++i)
+            for (int j = 0; j < n; ++j)
+                rays[i * n + j] = new Ray(Point.ZERO, new Vector(j - n / 2 + 0.5, i - n, -n));
+        Color[] expected = new Color[rays.length];
+        new SimpleRayTracer(shadows).traceBatch(rays, rays.length, expected);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: lit, shadowed and partly shadowed points of the floor
+        Color[] colors = new Color[rays.length];
+        new WavefrontRayTracer(shadows).traceBatch(rays, rays.length, colors);
+        Set<String> distinct = new HashSet<>();
+        for (int i = 0; i < rays.length; ++i) {
+            assertEquals(expected[i].toString(), colors[i].toString(), "Wrong color of ray " + i);
+            distinct.add(colors[i].toString());
+        }
+        assertTrue(distinct.size() > 1, "The scene should not be shaded uniformly");
+    }
+}